@@ -0,0 +1,120 @@
+package com.chineselearning.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Cache whose synchronized loads ({@code @Cacheable(sync = true)}) are coalesced per key
+ *
+ * RedisCache serialises every load of a cache behind one lock and only within
+ * this instance; here each key gets its own in-flight load via SingleFlight,
+ * and unrelated keys load in parallel. Redis errors on the lookup or the
+ * write-back are logged and treated as a miss, like the cache error handler
+ * does for the other cache operations. Everything else goes to the target.
+ *
+ * @author Senior Backend Architect
+ */
+@Slf4j
+public class CoalescingCache implements Cache {
+
+    private final Cache target;
+    private final SingleFlight singleFlight;
+
+    public CoalescingCache(Cache target, SingleFlight singleFlight) {
+        this.target = target;
+        this.singleFlight = singleFlight;
+    }
+
+    public Cache getTargetCache() {
+        return target;
+    }
+
+    @Override
+    public String getName() {
+        return target.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return target.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return target.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return target.get(key, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = lookup(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        try {
+            return singleFlight.call(getName(), key, () -> {
+                T value = valueLoader.call();
+                if (value != null) {
+                    store(key, value);
+                }
+                return value;
+            });
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        target.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return target.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        target.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return target.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        target.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return target.invalidate();
+    }
+
+    private ValueWrapper lookup(Object key) {
+        try {
+            return target.get(key);
+        } catch (RuntimeException e) {
+            log.warn("Cache GET failed for cache: {}, key: {} - {}", getName(), key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void store(Object key, Object value) {
+        try {
+            target.put(key, value);
+        } catch (RuntimeException e) {
+            log.warn("Cache PUT failed for cache: {}, key: {} - {}", getName(), key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.chineselearning.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Hands out the target manager's caches wrapped in {@link CoalescingCache}
+ *
+ * @author Senior Backend Architect
+ */
+public class CoalescingCacheManager implements CacheManager {
+
+    private final CacheManager target;
+    private final SingleFlight singleFlight;
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public CoalescingCacheManager(CacheManager target, SingleFlight singleFlight) {
+        this.target = target;
+        this.singleFlight = singleFlight;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache targetCache = target.getCache(name);
+        if (targetCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, key -> new CoalescingCache(targetCache, singleFlight));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return target.getCacheNames();
+    }
+}
@@ -0,0 +1,140 @@
+package com.chineselearning.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.stereotype.Component;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Request coalescing: concurrent calls for the same (group, key) share one load
+ *
+ * The first caller (leader) runs the loader; callers arriving while it is in
+ * flight wait on the leader's future and get the same value or exception.
+ * Once the load finishes the key is free again, so nothing is cached here -
+ * that stays the job of Redis.
+ *
+ * Metrics: counter "singleflight.calls" tagged with group and
+ * result=leader|coalesced, and the gauge "singleflight.in_flight". Collapsed
+ * calls per key are kept in memory for the MAX_TRACKED_KEYS first keys seen
+ * (see {@link #topCollapsed(int)}); keys stay out of Micrometer tags because
+ * search hashes and page keys are unbounded.
+ *
+ * @author Senior Backend Architect
+ */
+@Component
+public class SingleFlight {
+
+    private static final int MAX_TRACKED_KEYS = 1000;
+
+    private final ConcurrentMap<Map.Entry<String, Object>, CompletableFuture<Object>> inFlight =
+            new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> collapsed = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gaugeMapSize("singleflight.in_flight", Tags.empty(), inFlight);
+    }
+
+    /**
+     * Result of loader, shared with every concurrent call for the same group and key
+     */
+    public <T> T execute(String group, Object key, Supplier<T> loader) {
+        try {
+            return call(group, key, loader::get);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            // Interrupted while waiting for the leader; suppliers themselves only throw unchecked exceptions
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Same as execute, for loaders that throw checked exceptions; the leader's exception is rethrown as is
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T call(String group, Object key, Callable<T> loader) throws Exception {
+        Map.Entry<String, Object> id = new AbstractMap.SimpleImmutableEntry<>(group, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(id, flight);
+
+        if (leader != null) {
+            count(group, "coalesced");
+            track(group, key);
+            try {
+                return (T) leader.get();
+            } catch (ExecutionException e) {
+                throw rethrow(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw e;
+            }
+        }
+
+        count(group, "leader");
+        try {
+            T value = loader.call();
+            flight.complete(value);
+            return value;
+        } catch (Exception | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, flight);
+        }
+    }
+
+    /**
+     * Keys with the most collapsed calls, highest first ("group key" -> calls)
+     */
+    public Map<String, Long> topCollapsed(int limit) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>();
+        for (Map.Entry<String, LongAdder> entry : collapsed.entrySet()) {
+            entries.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue().sum()));
+        }
+        entries.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()));
+
+        Map<String, Long> top = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : entries.subList(0, Math.min(limit, entries.size()))) {
+            top.put(entry.getKey(), entry.getValue());
+        }
+        return top;
+    }
+
+    private void track(String group, Object key) {
+        String name = group + " " + key;
+        LongAdder calls = collapsed.get(name);
+        if (calls == null) {
+            if (collapsed.size() >= MAX_TRACKED_KEYS) {
+                return;
+            }
+            calls = collapsed.computeIfAbsent(name, k -> new LongAdder());
+        }
+        calls.increment();
+    }
+
+    private void count(String group, String result) {
+        meterRegistry.counter("singleflight.calls", "group", group, "result", result).increment();
+    }
+
+    private static Exception rethrow(Throwable cause) {
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return (Exception) cause;
+    }
+}
@@ -1,10 +1,13 @@
 package com.chineselearning.config;
 
+import com.chineselearning.cache.CoalescingCacheManager;
+import com.chineselearning.cache.SingleFlight;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurer;
@@ -36,15 +39,19 @@ import java.util.Map;
  * - Custom serialization với Jackson
  * - Multiple cache configurations với different TTLs
  * - Custom error handling
+ * - Coalesced cache-miss loads (@Cacheable(sync = true) qua SingleFlight)
  * - Cache statistics và monitoring
  * 
  * @author Senior Backend Architect
  */
 @Configuration
 @EnableCaching
+@RequiredArgsConstructor
 @Slf4j
 public class RedisConfig implements CachingConfigurer {
 
+    private final SingleFlight singleFlight;
+
     /**
      * Custom ObjectMapper cho Redis serialization
      * Configured để handle Java 8 time, enums, và polymorphic types
@@ -137,6 +144,10 @@ public class RedisConfig implements CachingConfigurer {
         cacheConfigurations.put("user-progress", 
                 createDefaultCacheConfig(Duration.ofMinutes(10)));
         
+        // Search result pages - 10 minutes; index writes retire them earlier via the generation key
+        cacheConfigurations.put("search-results", 
+                createDefaultCacheConfig(Duration.ofMinutes(10)));
+        
         // AI chat cache - 1 hour (for repeated queries)
         cacheConfigurations.put("ai-responses", 
                 createDefaultCacheConfig(Duration.ofHours(1)));
@@ -147,10 +158,14 @@ public class RedisConfig implements CachingConfigurer {
                 .transactionAware() // Enable transaction support
                 .build();
         
+        // Not a bean itself once wrapped, so load the configured caches here
+        cacheManager.afterPropertiesSet();
+        
         log.info("RedisCacheManager initialized with {} custom cache configurations", 
                 cacheConfigurations.size());
         
-        return cacheManager;
+        // Concurrent misses on the same key share one load
+        return new CoalescingCacheManager(cacheManager, singleFlight);
     }
 
     /**
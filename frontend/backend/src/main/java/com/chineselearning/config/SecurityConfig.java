@@ -37,6 +37,8 @@ public class SecurityConfig {
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/courses/**").permitAll()
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/grammar/**").permitAll()
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/radicals/**").permitAll()
+                        // Read-only vocabulary endpoints that take their input in the body
+                        .requestMatchers(org.springframework.http.HttpMethod.POST, "/api/vocab/batch", "/api/vocab/annotate").permitAll()
                         // Protected WRITE endpoints (POST, PUT, DELETE) - require authentication
                         .requestMatchers(org.springframework.http.HttpMethod.POST, "/api/courses/**").authenticated()
                         .requestMatchers(org.springframework.http.HttpMethod.PUT, "/api/courses/**").authenticated()
@@ -1,5 +1,6 @@
 package com.chineselearning.controller;
 
+import com.chineselearning.cache.SingleFlight;
 import com.chineselearning.config.RedisCacheStatistics;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -26,6 +27,7 @@ import java.util.Map;
 public class CacheManagementController {
 
     private final RedisCacheStatistics cacheStatistics;
+    private final SingleFlight singleFlight;
 
     @Operation(
             summary = "Get cache statistics",
@@ -39,6 +41,20 @@ public class CacheManagementController {
         return ResponseEntity.ok(stats);
     }
 
+    @Operation(
+            summary = "Get coalesced calls per key",
+            description = "Số request trùng đã được gộp vào một lần load, theo key (Chỉ ADMIN)",
+            security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @GetMapping("/coalesced")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Long>> getCoalescedCalls(
+            @Parameter(description = "Số key trả về, nhiều request gộp nhất trước")
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(singleFlight.topCollapsed(Math.max(limit, 0)));
+    }
+
     @Operation(
             summary = "Clear specific cache",
             description = "Xóa cache theo tên (Chỉ ADMIN)",
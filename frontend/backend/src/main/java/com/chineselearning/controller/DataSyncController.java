@@ -1,5 +1,6 @@
 package com.chineselearning.controller;
 
+import com.chineselearning.search.dto.SyncStats;
 import com.chineselearning.search.service.DataSyncService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -7,6 +8,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -86,5 +88,15 @@ public class DataSyncController {
                 "message", "Courses sync completed"
         ));
     }
-}
 
+    @Operation(
+            summary = "Thống kê đồng bộ",
+            description = "Kết quả lần sync gần nhất theo entity: số document, lỗi, retry, docs/s (Chỉ ADMIN)",
+            security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, SyncStats>> getStats() {
+        return ResponseEntity.ok(dataSyncService.getLastRunStats());
+    }
+}
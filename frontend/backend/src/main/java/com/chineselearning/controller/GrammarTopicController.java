@@ -77,8 +77,13 @@ public class GrammarTopicController {
     @GetMapping("/page")
     public ResponseEntity<PageResponse<GrammarTopicResponse>> getGrammarTopicsPage(
             @Parameter(description = "Số trang") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Kích thước trang") @RequestParam(defaultValue = "20") int size
+            @Parameter(description = "Kích thước trang") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Cursor mode: để trống cho trang đầu, sau đó dùng nextCursor (bỏ qua page)")
+            @RequestParam(required = false) String cursor
     ) {
+        if (cursor != null) {
+            return ResponseEntity.ok(grammarTopicService.getPageByCursor(cursor, size));
+        }
         return ResponseEntity.ok(grammarTopicService.getPage(page, size));
     }
 
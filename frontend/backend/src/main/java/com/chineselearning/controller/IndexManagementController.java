@@ -0,0 +1,92 @@
+package com.chineselearning.controller;
+
+import com.chineselearning.index.VocabularyNgramIndexManager;
+import com.chineselearning.index.VocabularySegmenterManager;
+import com.chineselearning.index.VocabularySuggestTrieManager;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * In-memory Index Management Controller
+ *
+ * Endpoints cho admin để monitor các index trong JVM
+ *
+ * @author Senior Backend Architect
+ */
+@RestController
+@RequestMapping("/api/admin/index")
+@RequiredArgsConstructor
+@Tag(name = "Index Management", description = "Admin endpoints for in-memory index monitoring")
+public class IndexManagementController {
+
+    private final VocabularyNgramIndexManager ngramIndexManager;
+    private final VocabularySegmenterManager segmenterManager;
+    private final VocabularySuggestTrieManager suggestTrieManager;
+
+    @Operation(
+            summary = "Get vocabulary n-gram index statistics",
+            description = "Số lượng từ, n-gram và bộ nhớ ước tính (Chỉ ADMIN)",
+            security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @GetMapping("/vocabulary")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getVocabularyIndexStats() {
+        return ResponseEntity.ok(ngramIndexManager.getStatistics());
+    }
+
+    @Operation(
+            summary = "Rebuild vocabulary n-gram index",
+            description = "Build lại toàn bộ index từ PostgreSQL (Chỉ ADMIN)",
+            security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @PostMapping("/vocabulary/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildVocabularyIndex() {
+        ngramIndexManager.rebuild();
+        return ResponseEntity.ok(ngramIndexManager.getStatistics());
+    }
+
+    @Operation(
+            summary = "Get vocabulary segmenter statistics",
+            description = "Số từ trong từ điển, độ dài từ tối đa và bộ nhớ của trie (Chỉ ADMIN)",
+            security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @GetMapping("/segmenter")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getSegmenterStats() {
+        return ResponseEntity.ok(segmenterManager.getStatistics());
+    }
+
+    @Operation(
+            summary = "Get vocabulary suggest trie statistics",
+            description = "Số từ, số node, top-k và bộ nhớ ước tính của trie gợi ý (Chỉ ADMIN)",
+            security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @GetMapping("/suggest")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getSuggestTrieStats() {
+        return ResponseEntity.ok(suggestTrieManager.getStatistics());
+    }
+
+    @Operation(
+            summary = "Rebuild vocabulary suggest trie",
+            description = "Build lại trie gợi ý từ PostgreSQL (Chỉ ADMIN)",
+            security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @PostMapping("/suggest/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildSuggestTrie() {
+        suggestTrieManager.rebuild();
+        return ResponseEntity.ok(suggestTrieManager.getStatistics());
+    }
+}
@@ -82,8 +82,13 @@ public class RadicalController {
     @GetMapping("/page")
     public ResponseEntity<PageResponse<RadicalResponse>> getRadicalsPage(
             @Parameter(description = "Số trang") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Kích thước trang") @RequestParam(defaultValue = "50") int size
+            @Parameter(description = "Kích thước trang") @RequestParam(defaultValue = "50") int size,
+            @Parameter(description = "Cursor mode: để trống cho trang đầu, sau đó dùng nextCursor (bỏ qua page)")
+            @RequestParam(required = false) String cursor
     ) {
+        if (cursor != null) {
+            return ResponseEntity.ok(radicalService.getPageByCursor(cursor, size));
+        }
         return ResponseEntity.ok(radicalService.getPage(page, size));
     }
 
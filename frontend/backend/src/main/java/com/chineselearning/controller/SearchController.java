@@ -3,9 +3,11 @@ package com.chineselearning.controller;
 import com.chineselearning.search.document.CourseDocument;
 import com.chineselearning.search.document.GrammarTopicDocument;
 import com.chineselearning.search.document.VocabularyDocument;
+import com.chineselearning.search.dto.FederatedSearchResponse;
 import com.chineselearning.search.dto.SearchRequest;
 import com.chineselearning.search.dto.SearchResponse;
 import com.chineselearning.search.service.CourseSearchService;
+import com.chineselearning.search.service.FederatedSearchService;
 import com.chineselearning.search.service.GrammarSearchService;
 import com.chineselearning.search.service.VocabularySearchService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -33,12 +35,27 @@ public class SearchController {
     private final VocabularySearchService vocabularySearchService;
     private final GrammarSearchService grammarSearchService;
     private final CourseSearchService courseSearchService;
+    private final FederatedSearchService federatedSearchService;
+
+    // ==================== Federated Search ====================
+
+    @Operation(
+            summary = "Tìm kiếm đồng thời từ vựng, ngữ pháp và khóa học",
+            description = "Ba index được truy vấn song song; index quá thời gian bị bỏ qua và kết quả được đánh dấu partial"
+    )
+    @GetMapping("/all")
+    public ResponseEntity<FederatedSearchResponse> searchAll(
+            @Parameter(description = "Từ khóa tìm kiếm") @RequestParam String q,
+            @Parameter(description = "Số kết quả mỗi loại (1-50)") @RequestParam(defaultValue = "5") int size
+    ) {
+        return ResponseEntity.ok(federatedSearchService.search(q, size));
+    }
 
     // ==================== Vocabulary Search ====================
 
     @Operation(
             summary = "Tìm kiếm từ vựng nâng cao",
-            description = "Full-text search từ vựng với fuzzy matching và filters"
+            description = "Full-text search từ vựng với fuzzy matching và filters; facets=true trả thêm số lượng theo HSK, variant và tag"
     )
     @PostMapping("/vocabulary")
     public ResponseEntity<SearchResponse<VocabularyDocument>> searchVocabulary(
@@ -71,8 +71,13 @@ public class TextbookManagementController {
     @GetMapping("/page")
     public ResponseEntity<PageResponse<TextbookResponse>> getTextbooksPage(
             @Parameter(description = "Số trang") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Kích thước trang") @RequestParam(defaultValue = "10") int size
+            @Parameter(description = "Kích thước trang") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Cursor mode: để trống cho trang đầu, sau đó dùng nextCursor (bỏ qua page)")
+            @RequestParam(required = false) String cursor
     ) {
+        if (cursor != null) {
+            return ResponseEntity.ok(textbookService.getPageByCursor(cursor, size));
+        }
         return ResponseEntity.ok(textbookService.getPage(page, size));
     }
 
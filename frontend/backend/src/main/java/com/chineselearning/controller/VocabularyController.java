@@ -1,14 +1,24 @@
 package com.chineselearning.controller;
 
 import com.chineselearning.dto.PageResponse;
+import com.chineselearning.dto.request.AnnotateRequest;
+import com.chineselearning.dto.request.VocabularyBatchRequest;
+import com.chineselearning.dto.response.AnnotationResponse;
 import com.chineselearning.dto.response.VocabularyResponse;
 import com.chineselearning.service.interfaces.VocabularyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/vocab")
@@ -16,6 +26,8 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Vocabulary", description = "Từ vựng API")
 public class VocabularyController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final VocabularyService vocabularyService;
 
     @Operation(summary = "Lấy danh sách từ vựng", description = "Lấy danh sách từ vựng có phân trang, lọc và tìm kiếm")
@@ -24,12 +36,58 @@ public class VocabularyController {
             @Parameter(description = "Số trang (bắt đầu từ 0)", example = "0") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Số lượng từ vựng mỗi trang", example = "20") @RequestParam(defaultValue = "20") int size,
             @Parameter(description = "Lọc theo biến thể: SIMPLIFIED, TRADITIONAL, BOTH") @RequestParam(required = false) String variant,
-            @Parameter(description = "Từ khóa tìm kiếm") @RequestParam(required = false) String search
+            @Parameter(description = "Từ khóa tìm kiếm") @RequestParam(required = false) String search,
+            @Parameter(description = "Lọc theo cấp độ HSK (1-6)") @RequestParam(required = false) Integer hskLevel,
+            @Parameter(description = "Cursor mode: để trống cho trang đầu, sau đó dùng nextCursor (bỏ qua page)")
+            @RequestParam(required = false) String cursor
     ) {
-        PageResponse<VocabularyResponse> response = vocabularyService.getVocabulary(page, size, search, variant);
+        PageResponse<VocabularyResponse> response = cursor != null
+                ? vocabularyService.getVocabularyByCursor(cursor, size, search, variant, hskLevel)
+                : vocabularyService.getVocabulary(page, size, search, variant, hskLevel);
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Xuất toàn bộ từ vựng",
+            description = "Stream toàn bộ từ vựng dạng NDJSON (mỗi dòng một từ), format=gzip để nén. Bộ nhớ không phụ thuộc kích thước bảng")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportVocabularies(
+            @Parameter(description = "ndjson hoặc gzip", example = "ndjson") @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        boolean gzip = "gzip".equalsIgnoreCase(format);
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024);
+                vocabularyService.exportAll(gzipOut);
+                gzipOut.finish();
+            } else {
+                vocabularyService.exportAll(out);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"vocabulary.ndjson" + (gzip ? ".gz" : "") + "\"")
+                .body(body);
+    }
+
+    @Operation(summary = "Lấy nhiều từ vựng theo danh sách ID",
+            description = "Trả về theo đúng thứ tự ID yêu cầu, bỏ qua ID không tồn tại (tối đa 500)")
+    @PostMapping("/batch")
+    public ResponseEntity<List<VocabularyResponse>> getVocabulariesByIds(
+            @Valid @RequestBody VocabularyBatchRequest request
+    ) {
+        return ResponseEntity.ok(vocabularyService.getByIds(request.getIds()));
+    }
+
+    @Operation(summary = "Tách từ và chú thích văn bản tiếng Trung",
+            description = "Tách câu thành các từ có trong từ điển (maximum matching hai chiều), kèm pinyin, nghĩa và ID từ vựng")
+    @PostMapping("/annotate")
+    public ResponseEntity<AnnotationResponse> annotate(@Valid @RequestBody AnnotateRequest request) {
+        return ResponseEntity.ok(vocabularyService.annotate(request.getText(), request.getMode()));
+    }
+
     @Operation(summary = "Lấy từ vựng theo ID", description = "Lấy chi tiết một từ vựng cụ thể")
     @GetMapping("/{id}")
     public ResponseEntity<VocabularyResponse> getVocabularyById(
@@ -0,0 +1,66 @@
+package com.chineselearning.controller;
+
+import com.chineselearning.dto.response.VocabularyImportResponse;
+import com.chineselearning.exception.custom.InvalidRequestException;
+import com.chineselearning.importer.CsvVocabularyRowReader;
+import com.chineselearning.importer.NdjsonVocabularyRowReader;
+import com.chineselearning.importer.VocabularyRowReader;
+import com.chineselearning.service.VocabularyImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Vocabulary Import Controller
+ *
+ * Bulk load từ vựng (CSV hoặc NDJSON) gửi trực tiếp trong request body
+ *
+ * @author Senior Backend Architect
+ */
+@RestController
+@RequestMapping("/api/admin/vocabulary")
+@RequiredArgsConstructor
+@Tag(name = "Vocabulary Import", description = "Import từ vựng hàng loạt (Admin only)")
+public class VocabularyImportController {
+
+    private final VocabularyImportService vocabularyImportService;
+    private final ObjectMapper objectMapper;
+
+    @Operation(
+            summary = "Import từ vựng hàng loạt",
+            description = "Body là file CSV (có header) hoặc NDJSON. Trùng hanzi + pinyin thì cập nhật (Chỉ ADMIN)",
+            security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<VocabularyImportResponse> importVocabulary(
+            @Parameter(description = "csv hoặc ndjson", example = "csv") @RequestParam(defaultValue = "csv") String format,
+            InputStream body
+    ) throws IOException {
+        try (VocabularyRowReader reader = createReader(format, body)) {
+            return ResponseEntity.ok(vocabularyImportService.importRows(reader));
+        }
+    }
+
+    private VocabularyRowReader createReader(String format, InputStream body) {
+        if ("csv".equalsIgnoreCase(format)) {
+            return new CsvVocabularyRowReader(body);
+        }
+        if ("ndjson".equalsIgnoreCase(format) || "jsonl".equalsIgnoreCase(format)) {
+            return new NdjsonVocabularyRowReader(body, objectMapper);
+        }
+        throw new InvalidRequestException("Unsupported import format", "format", format);
+    }
+}
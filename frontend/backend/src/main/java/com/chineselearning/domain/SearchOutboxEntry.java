@@ -0,0 +1,48 @@
+package com.chineselearning.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending Elasticsearch change, written in the same transaction as the row it
+ * describes and removed once the search index has been updated
+ */
+@Entity
+@Table(name = "search_outbox")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String entity;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false, length = 10)
+    @Enumerated(EnumType.STRING)
+    private Operation operation;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public enum Operation {
+        UPSERT, DELETE
+    }
+}
@@ -0,0 +1,38 @@
+package com.chineselearning.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * High-water mark of the incremental Elasticsearch sync, one row per synced entity:
+ * rows with updated_at after the watermark still have to be indexed
+ */
+@Entity
+@Table(name = "search_sync_watermarks")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchSyncWatermark {
+
+    @Id
+    @Column(length = 50)
+    private String entity;
+
+    @Column(nullable = false)
+    private LocalDateTime watermark;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
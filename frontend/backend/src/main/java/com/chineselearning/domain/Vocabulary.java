@@ -1,10 +1,12 @@
 package com.chineselearning.domain;
 
+import com.chineselearning.search.text.SearchTextNormalizer;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -44,7 +46,23 @@ public class Vocabulary {
     @Column(name = "frequency_rank")
     private Integer frequencyRank;
 
+    // Normalized search keys, derived from pinyin / nghia on every write
+    @Column(name = "pinyin_plain")
+    private String pinyinPlain;
+
+    @Column(name = "pinyin_numeric")
+    private String pinyinNumeric;
+
+    @Column(name = "pinyin_initials")
+    private String pinyinInitials;
+
+    @Column(name = "nghia_folded")
+    private String meaningFolded;
+
+    // Lazy, but initialized for up to 100 owners per query: a page of entities
+    // costs one tag query instead of one per row
     @ElementCollection(fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     @CollectionTable(name = "vocab_tags", joinColumns = @JoinColumn(name = "vocab_id"))
     @Column(name = "tag")
     private Set<String> tags = new HashSet<>();
@@ -59,11 +77,23 @@ public class Vocabulary {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        normalizeSearchFields();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        normalizeSearchFields();
+    }
+
+    /**
+     * Recompute the normalized search columns from pinyin and meaning
+     */
+    public void normalizeSearchFields() {
+        pinyinPlain = SearchTextNormalizer.pinyinPlain(pinyin);
+        pinyinNumeric = SearchTextNormalizer.pinyinNumeric(pinyin);
+        pinyinInitials = SearchTextNormalizer.pinyinInitials(pinyin);
+        meaningFolded = SearchTextNormalizer.foldVietnamese(meaning);
     }
 
     public enum VariantType {
@@ -0,0 +1,62 @@
+package com.chineselearning.dto;
+
+import com.chineselearning.exception.custom.InvalidRequestException;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset (seek) pagination
+ *
+ * Encodes the (sort key, id) of the last row of a page; the next page seeks
+ * past it instead of skipping an OFFSET. Clients must treat the value as opaque.
+ *
+ * @author Senior Backend Architect
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class KeysetCursor {
+
+    private static final char SEPARATOR = '\u001f';
+
+    /**
+     * Sort key of the last row, null when the listing is ordered by id only
+     */
+    private final String sortKey;
+
+    private final long id;
+
+    public static String encode(Object sortKey, long id) {
+        String payload = (sortKey != null ? sortKey.toString() : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return decoded cursor, or null for an empty cursor (first page)
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String payload = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = payload.lastIndexOf(SEPARATOR);
+            String sortKey = payload.substring(0, separator);
+            long id = Long.parseLong(payload.substring(separator + 1));
+            return new KeysetCursor(sortKey.isEmpty() ? null : sortKey, id);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidRequestException("Invalid cursor", "cursor", cursor);
+        }
+    }
+
+    public int sortKeyAsInt() {
+        try {
+            return Integer.parseInt(sortKey);
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Invalid cursor", "cursor", sortKey);
+        }
+    }
+}
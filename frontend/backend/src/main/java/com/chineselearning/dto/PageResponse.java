@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Data
 @Builder
@@ -21,6 +23,12 @@ public class PageResponse<T> {
     private boolean hasNext;
     private boolean hasPrevious;
 
+    /**
+     * Opaque cursor for the next page in cursor mode, null on the last page.
+     * In cursor mode totals are not counted and reported as -1.
+     */
+    private String nextCursor;
+
     public static <T> PageResponse<T> of(List<T> content, long totalElements, int totalPages, int currentPage, int size) {
         return PageResponse.<T>builder()
                 .content(content)
@@ -32,5 +40,25 @@ public class PageResponse<T> {
                 .hasPrevious(currentPage > 0)
                 .build();
     }
-}
 
+    /**
+     * Build a cursor-mode page from rows fetched with limit size + 1;
+     * the extra row only tells whether another page exists
+     */
+    public static <E, T> PageResponse<T> ofCursor(List<E> rows, int size, Function<E, T> mapper,
+                                                  Function<E, String> cursorOf, boolean hasPrevious) {
+        boolean hasNext = rows.size() > size;
+        List<E> pageRows = hasNext ? rows.subList(0, size) : rows;
+
+        return PageResponse.<T>builder()
+                .content(pageRows.stream().map(mapper).collect(Collectors.toList()))
+                .totalElements(-1)
+                .totalPages(-1)
+                .currentPage(-1)
+                .size(size)
+                .hasNext(hasNext)
+                .hasPrevious(hasPrevious)
+                .nextCursor(hasNext ? cursorOf.apply(pageRows.get(pageRows.size() - 1)) : null)
+                .build();
+    }
+}
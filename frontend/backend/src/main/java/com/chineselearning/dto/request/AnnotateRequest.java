@@ -0,0 +1,26 @@
+package com.chineselearning.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request DTO for segmenting and annotating Chinese text
+ *
+ * @author Senior Backend Architect
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnnotateRequest {
+
+    @NotBlank(message = "Văn bản không được trống")
+    @Size(max = 100000, message = "Văn bản tối đa 100000 ký tự")
+    private String text;
+
+    private String mode;  // BIDIRECTIONAL (default), FORWARD, BACKWARD
+}
@@ -0,0 +1,27 @@
+package com.chineselearning.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for fetching many vocabulary entries by id
+ *
+ * @author Senior Backend Architect
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VocabularyBatchRequest {
+
+    @NotEmpty(message = "Danh sách id không được trống")
+    @Size(max = 500, message = "Tối đa 500 id mỗi request")
+    private List<@NotNull(message = "Id không được null") Long> ids;
+}
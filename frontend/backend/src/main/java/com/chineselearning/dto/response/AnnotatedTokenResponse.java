@@ -0,0 +1,29 @@
+package com.chineselearning.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One segment of annotated text; vocabulary fields are null for unknown segments
+ *
+ * @author Senior Backend Architect
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnnotatedTokenResponse {
+
+    private String text;
+    private int start;            // char offset in the input, inclusive
+    private int end;              // exclusive
+    private boolean known;
+    private Long vocabId;         // entry shown: most frequent, then lowest id
+    private List<Long> vocabIds;  // every entry with this hanzi (different readings)
+    private String pinyin;
+    private String meaning;
+}
@@ -0,0 +1,25 @@
+package com.chineselearning.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Segmented text with dictionary annotations
+ *
+ * @author Senior Backend Architect
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnnotationResponse {
+
+    private String mode;
+    private int knownTokens;
+    private int unknownTokens;
+    private List<AnnotatedTokenResponse> tokens;
+}
@@ -0,0 +1,30 @@
+package com.chineselearning.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of a vocabulary bulk import
+ *
+ * @author Senior Backend Architect
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VocabularyImportResponse {
+
+    private long received;        // rows read from the input
+    private long rejected;        // rows failing parsing or validation
+    private long duplicates;      // rows superseded by a later row with the same hanzi + pinyin
+    private long inserted;
+    private long updated;
+    private long tagsAdded;
+    private long durationMs;
+    private long rowsPerSecond;
+    private List<String> errors;  // first errors only, "line N: reason"
+}
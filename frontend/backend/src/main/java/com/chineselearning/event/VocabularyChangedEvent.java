@@ -0,0 +1,47 @@
+package com.chineselearning.event;
+
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Application event published after vocabulary rows are written
+ * In-memory structures (snapshot, indexes) listen to it to refresh themselves
+ *
+ * @author Senior Backend Architect
+ */
+@Getter
+public class VocabularyChangedEvent {
+
+    /**
+     * Above this many ids, listeners rebuild instead: re-reading that many rows costs
+     * about as much, and an IN list is bounded by the 32767 bind parameters of the driver
+     */
+    public static final int MAX_IDS = 10_000;
+
+    /**
+     * IDs of changed rows; empty means "anything may have changed"
+     */
+    private final Set<Long> ids;
+
+    private VocabularyChangedEvent(Set<Long> ids) {
+        this.ids = ids;
+    }
+
+    /**
+     * Event for the given ids; more than MAX_IDS (or none) is a full refresh
+     */
+    public static VocabularyChangedEvent of(Collection<Long> ids) {
+        return ids.size() > MAX_IDS ? all() : new VocabularyChangedEvent(Set.copyOf(ids));
+    }
+
+    public static VocabularyChangedEvent all() {
+        return new VocabularyChangedEvent(Collections.emptySet());
+    }
+
+    public boolean isFullRefresh() {
+        return ids.isEmpty();
+    }
+}
@@ -0,0 +1,164 @@
+package com.chineselearning.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * RFC 4180 CSV with a header row
+ *
+ * Recognised columns (any order, case-insensitive): hanzi, pinyin, meaning|nghia,
+ * example, variant, hskLevel|hsk_level, frequencyRank|frequency_rank, tags.
+ * Tags are separated by '|' or ';'. Quoted fields may contain commas, quotes ("")
+ * and line breaks.
+ *
+ * @author Senior Backend Architect
+ */
+public class CsvVocabularyRowReader implements VocabularyRowReader {
+
+    private static final Map<String, String> COLUMN_ALIASES = Map.of(
+            "nghia", "meaning",
+            "hsk_level", "hsklevel",
+            "frequency_rank", "frequencyrank"
+    );
+
+    private final BufferedReader reader;
+    private final StringBuilder field = new StringBuilder();
+    private Map<String, Integer> columns;
+    private long recordNumber;
+
+    public CsvVocabularyRowReader(InputStream in) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public VocabularyImportRow next() throws IOException {
+        if (columns == null) {
+            readHeader();
+        }
+
+        List<String> record;
+        do {
+            record = readRecord();
+            if (record == null) {
+                return null;
+            }
+            recordNumber++;
+        } while (record.size() == 1 && record.get(0).isBlank());
+
+        VocabularyImportRow row = new VocabularyImportRow();
+        row.setLineNumber(recordNumber);
+        try {
+            row.setHanzi(value(record, "hanzi"));
+            row.setPinyin(value(record, "pinyin"));
+            row.setMeaning(value(record, "meaning"));
+            row.setExample(value(record, "example"));
+            row.setVariant(value(record, "variant"));
+            row.setHskLevel(intValue(record, "hsklevel"));
+            row.setFrequencyRank(intValue(record, "frequencyrank"));
+            String tags = value(record, "tags");
+            if (tags != null) {
+                row.setTags(Arrays.asList(tags.split("\\s*[|;]\\s*")));
+            }
+        } catch (NumberFormatException e) {
+            return VocabularyImportRow.failed(recordNumber, "Invalid number: " + e.getMessage());
+        }
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+
+        List<String> header = readRecord();
+        if (header == null) {
+            header = List.of();
+        }
+        columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().toLowerCase(Locale.ROOT);
+            columns.putIfAbsent(COLUMN_ALIASES.getOrDefault(name, name), i);
+        }
+    }
+
+    private String value(List<String> record, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private Integer intValue(List<String> record, String column) {
+        String value = value(record, column);
+        return value == null ? null : Integer.valueOf(value);
+    }
+
+    /**
+     * @return fields of the next record, or null at end of input
+     */
+    private List<String> readRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    break;
+                }
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,53 @@
+package com.chineselearning.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One JSON object per line; blank lines are skipped
+ *
+ * @author Senior Backend Architect
+ */
+public class NdjsonVocabularyRowReader implements VocabularyRowReader {
+
+    private final BufferedReader reader;
+    private final ObjectReader rowReader;
+    private long lineNumber;
+
+    public NdjsonVocabularyRowReader(InputStream in, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        this.rowReader = objectMapper.readerFor(VocabularyImportRow.class);
+    }
+
+    @Override
+    public VocabularyImportRow next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+
+        try {
+            VocabularyImportRow row = rowReader.readValue(line);
+            row.setLineNumber(lineNumber);
+            return row;
+        } catch (JsonProcessingException e) {
+            return VocabularyImportRow.failed(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
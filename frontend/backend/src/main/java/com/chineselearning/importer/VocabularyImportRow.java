@@ -0,0 +1,62 @@
+package com.chineselearning.importer;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One input row of a vocabulary bulk import
+ *
+ * NDJSON rows use the same field names as VocabularyResponse, so an export
+ * from /api/vocab/export can be imported as-is. CSV headers may use either
+ * these names or the column names (nghia, hsk_level, frequency_rank).
+ *
+ * @author Senior Backend Architect
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class VocabularyImportRow {
+
+    private String hanzi;
+    private String pinyin;
+
+    @JsonAlias("nghia")
+    private String meaning;
+
+    @JsonAlias("viDu")
+    private String example;
+
+    private String variant;
+
+    @JsonAlias("hsk_level")
+    private Integer hskLevel;
+
+    @JsonAlias("frequency_rank")
+    private Integer frequencyRank;
+
+    private List<String> tags;
+
+    /**
+     * 1-based line (NDJSON) or record (CSV) number in the input
+     */
+    @JsonIgnore
+    private long lineNumber;
+
+    /**
+     * Set by the reader when the line could not be parsed
+     */
+    @JsonIgnore
+    private String error;
+
+    public static VocabularyImportRow failed(long lineNumber, String error) {
+        VocabularyImportRow row = new VocabularyImportRow();
+        row.setLineNumber(lineNumber);
+        row.setError(error);
+        return row;
+    }
+}
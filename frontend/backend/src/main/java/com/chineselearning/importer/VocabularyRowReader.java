@@ -0,0 +1,18 @@
+package com.chineselearning.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Pull-based reader over an import stream; holds at most one row in memory
+ *
+ * @author Senior Backend Architect
+ */
+public interface VocabularyRowReader extends Closeable {
+
+    /**
+     * Next row, or null at end of input. Unparseable input is returned as a
+     * row with {@link VocabularyImportRow#getError()} set rather than thrown.
+     */
+    VocabularyImportRow next() throws IOException;
+}
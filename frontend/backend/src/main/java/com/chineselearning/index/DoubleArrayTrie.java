@@ -0,0 +1,251 @@
+package com.chineselearning.index;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Static double-array trie mapping strings to int values
+ *
+ * Each state s has children at base[s] + code(c), valid when check[t] == s + 1
+ * (0 marks a free slot). A key ends at s when its terminator slot base[s] + 0
+ * is a child of s; that slot stores -(value + 1) in base. Characters are mapped
+ * to dense codes 1..alphabetSize in char order, so lookups are two array reads
+ * per character and the arrays stay compact.
+ *
+ * @author Senior Backend Architect
+ */
+public final class DoubleArrayTrie {
+
+    private static final int TERMINATOR = 0;
+
+    private final int[] codeByChar = new int[Character.MAX_VALUE + 1];
+    private int[] base;
+    private int[] check;
+    private int size;
+    private int maxKeyLength;
+
+    // Build state
+    private BitSet usedBases;
+    private int nextCheckPos;
+
+    private DoubleArrayTrie() {
+    }
+
+    /**
+     * @param entries keys in natural (char) order with their values (>= 0)
+     */
+    public static DoubleArrayTrie build(SortedMap<String, Integer> entries) {
+        DoubleArrayTrie trie = new DoubleArrayTrie();
+        trie.buildInternal(entries);
+        return trie;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int maxKeyLength() {
+        return maxKeyLength;
+    }
+
+    /**
+     * Longest key that is a prefix of text[from..]; returns its length (0 if none)
+     * and stores the value in valueOut[0]
+     */
+    public int longestPrefix(CharSequence text, int from, int[] valueOut) {
+        int state = 0;
+        int best = 0;
+        int limit = Math.min(text.length(), from + maxKeyLength);
+        for (int i = from; i < limit; i++) {
+            state = next(state, text.charAt(i));
+            if (state < 0) {
+                break;
+            }
+            int value = valueAt(state);
+            if (value >= 0) {
+                best = i - from + 1;
+                valueOut[0] = value;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Same walk, reading text backwards from end - 1. Used on a trie built from
+     * reversed keys, it finds the longest key that ends at end.
+     */
+    public int longestPrefixReversed(CharSequence text, int end, int[] valueOut) {
+        int state = 0;
+        int best = 0;
+        int limit = Math.max(0, end - maxKeyLength);
+        for (int i = end - 1; i >= limit; i--) {
+            state = next(state, text.charAt(i));
+            if (state < 0) {
+                break;
+            }
+            int value = valueAt(state);
+            if (value >= 0) {
+                best = end - i;
+                valueOut[0] = value;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Heap used by the arrays, in bytes
+     */
+    public long estimatedBytes() {
+        return 4L * codeByChar.length + 4L * base.length + 4L * check.length;
+    }
+
+    private int next(int state, char c) {
+        int code = codeByChar[c];
+        if (code == 0) {
+            return -1;
+        }
+        int t = base[state] + code;
+        return t < check.length && check[t] == state + 1 ? t : -1;
+    }
+
+    private int valueAt(int state) {
+        int t = base[state] + TERMINATOR;
+        return t < check.length && check[t] == state + 1 ? -base[t] - 1 : -1;
+    }
+
+    private void buildInternal(SortedMap<String, Integer> entries) {
+        // Dense codes in char order keep key order identical to code order
+        boolean[] seen = new boolean[codeByChar.length];
+        for (String key : entries.keySet()) {
+            for (int i = 0; i < key.length(); i++) {
+                seen[key.charAt(i)] = true;
+            }
+        }
+        int alphabetSize = 0;
+        for (int c = 0; c < seen.length; c++) {
+            if (seen[c]) {
+                codeByChar[c] = ++alphabetSize;
+            }
+        }
+
+        int n = 0;
+        String[] keys = new String[entries.size()];
+        int[] values = new int[entries.size()];
+        for (Map.Entry<String, Integer> entry : entries.entrySet()) {
+            if (entry.getKey().isEmpty()) continue;
+            keys[n] = entry.getKey();
+            values[n] = entry.getValue();
+            maxKeyLength = Math.max(maxKeyLength, entry.getKey().length());
+            n++;
+        }
+        size = n;
+
+        int capacity = Math.max(1024, n * 2 + alphabetSize + 1);
+        base = new int[capacity];
+        check = new int[capacity];
+        usedBases = new BitSet();
+        nextCheckPos = 1;
+
+        if (n > 0) {
+            insert(0, keys, values, 0, n, 0);
+        }
+
+        int used = check.length;
+        while (used > 1 && check[used - 1] == 0) {
+            used--;
+        }
+        base = Arrays.copyOf(base, used + alphabetSize + 1);
+        check = Arrays.copyOf(check, used + alphabetSize + 1);
+        usedBases = null;
+    }
+
+    /**
+     * Place the children of state for keys[left, right), which share their first depth chars
+     */
+    private void insert(int state, String[] keys, int[] values, int left, int right, int depth) {
+        // Distinct child codes; a key ending here sorts first and yields the terminator
+        int[] codes = new int[right - left];
+        int[] starts = new int[right - left + 1];
+        int count = 0;
+        for (int i = left; i < right; i++) {
+            int code = depth < keys[i].length() ? codeByChar[keys[i].charAt(depth)] : TERMINATOR;
+            if (count == 0 || codes[count - 1] != code) {
+                codes[count] = code;
+                starts[count] = i;
+                count++;
+            }
+        }
+        starts[count] = right;
+
+        int begin = findBase(codes, count);
+        base[state] = begin;
+        for (int k = 0; k < count; k++) {
+            check[begin + codes[k]] = state + 1;
+        }
+
+        for (int k = 0; k < count; k++) {
+            int child = begin + codes[k];
+            if (codes[k] == TERMINATOR) {
+                base[child] = -values[starts[k]] - 1;
+            } else {
+                insert(child, keys, values, starts[k], starts[k + 1], depth + 1);
+            }
+        }
+    }
+
+    /**
+     * Smallest free base for the child codes. Scanning starts at nextCheckPos, which
+     * moves forward once the region behind it is nearly full (the darts heuristic),
+     * so the search does not rescan the dense front of the arrays for every node.
+     */
+    private int findBase(int[] codes, int count) {
+        int pos = Math.max(codes[0] + 1, nextCheckPos) - 1;
+        int occupied = 0;
+        boolean first = true;
+        int begin;
+        while (true) {
+            pos++;
+            ensureCapacity(pos + 1);
+            if (check[pos] != 0) {
+                occupied++;
+                continue;
+            }
+            if (first) {
+                nextCheckPos = pos;
+                first = false;
+            }
+            begin = pos - codes[0];
+            ensureCapacity(begin + codes[count - 1] + 1);
+            if (begin > 0 && !usedBases.get(begin) && fits(begin, codes, count)) {
+                break;
+            }
+        }
+        if ((double) occupied / (pos - nextCheckPos + 1) >= 0.95) {
+            nextCheckPos = pos;
+        }
+        usedBases.set(begin);
+        return begin;
+    }
+
+    private boolean fits(int begin, int[] codes, int count) {
+        for (int k = 0; k < count; k++) {
+            int t = begin + codes[k];
+            // slot 0 is the root and never a child
+            if (t == 0 || check[t] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= check.length) {
+            return;
+        }
+        int capacity = Math.max(required, check.length + (check.length >> 1));
+        base = Arrays.copyOf(base, capacity);
+        check = Arrays.copyOf(check, capacity);
+    }
+}
@@ -0,0 +1,289 @@
+package com.chineselearning.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process character n-gram inverted index over the searchable vocabulary fields
+ * (hanzi, pinyin, meaning and their normalized forms)
+ *
+ * Every 1-, 2- and 3-character gram of each (lower-cased) field maps to a
+ * posting list of internal document numbers kept as a sorted int array.
+ * Document numbers only ever grow, so appends keep postings sorted; an
+ * update tombstones the old document and appends a new one, and postings are
+ * compacted once tombstones outnumber a quarter of the live documents.
+ *
+ * Queries of up to 3 characters are a single posting lookup. Longer queries
+ * intersect the trigram postings (smallest first) and verify candidates with
+ * a substring check, which removes grams that matched at different offsets.
+ *
+ * @author Senior Backend Architect
+ */
+public final class VocabularyNgramIndex {
+
+    private static final int MAX_GRAM = 3;
+    private static final char FIELD_SEPARATOR = '\u0001';
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> docByVocabId = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+
+    private long[] vocabIds = new long[1024];
+    private String[] texts = new String[1024];
+    private int docCount;
+    private int liveCount;
+
+    /**
+     * Add or replace one vocabulary entry; null fields are indexed as empty
+     */
+    public void upsert(long vocabId, String... fields) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(vocabId);
+            addInternal(vocabId, fields);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long vocabId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(vocabId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Vocabulary ids (ascending) with any field containing the keyword, ignoring case
+     */
+    public long[] search(String keyword) {
+        return searchAny(List.of(keyword == null ? "" : keyword));
+    }
+
+    /**
+     * Vocabulary ids (ascending, distinct) matching at least one of the keywords
+     */
+    public long[] searchAny(Collection<String> keywords) {
+        Set<String> needles = new LinkedHashSet<>();
+        for (String keyword : keywords) {
+            if (keyword != null && !keyword.isBlank()) {
+                needles.add(keyword.toLowerCase(Locale.ROOT));
+            }
+        }
+        if (needles.isEmpty()) {
+            return new long[0];
+        }
+
+        lock.readLock().lock();
+        try {
+            BitSet matched = new BitSet(docCount);
+            for (String needle : needles) {
+                boolean verify = needle.length() > MAX_GRAM;
+                for (int doc : candidates(needle)) {
+                    if (deleted.get(doc)) continue;
+                    if (verify && !texts[doc].contains(needle)) continue;
+                    matched.set(doc);
+                }
+            }
+
+            long[] result = new long[matched.cardinality()];
+            int k = 0;
+            for (int doc = matched.nextSetBit(0); doc >= 0; doc = matched.nextSetBit(doc + 1)) {
+                result[k++] = vocabIds[doc];
+            }
+            Arrays.sort(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate heap footprint, for the admin endpoint
+     */
+    public Map<String, Object> getStatistics() {
+        lock.readLock().lock();
+        try {
+            long postingEntries = 0;
+            long bytes = 0;
+            for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+                Postings p = entry.getValue();
+                postingEntries += p.size;
+                // HashMap node + key String + Postings object + int[]
+                bytes += 32 + (40 + 2L * entry.getKey().length()) + 24 + (16 + 4L * p.docs.length);
+            }
+            for (int doc = 0; doc < docCount; doc++) {
+                bytes += texts[doc] != null ? 40 + 2L * texts[doc].length() : 0;
+            }
+            bytes += 8L * vocabIds.length + 8L * texts.length + 48L * docByVocabId.size() + deleted.size() / 8;
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("live_documents", liveCount);
+            stats.put("total_documents", docCount);
+            stats.put("distinct_grams", postings.size());
+            stats.put("posting_entries", postingEntries);
+            stats.put("estimated_bytes", bytes);
+            stats.put("estimated_bytes_per_100k_entries", liveCount > 0 ? bytes * 100_000L / liveCount : 0);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] candidates(String needle) {
+        if (needle.length() <= MAX_GRAM) {
+            Postings p = postings.get(needle);
+            return p == null ? new int[0] : Arrays.copyOf(p.docs, p.size);
+        }
+
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + MAX_GRAM <= needle.length(); i++) {
+            grams.add(needle.substring(i, i + MAX_GRAM));
+        }
+        List<Postings> lists = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            Postings p = postings.get(gram);
+            if (p == null) {
+                return new int[0];
+            }
+            lists.add(p);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+        int[] result = Arrays.copyOf(lists.get(0).docs, lists.get(0).size);
+        int length = result.length;
+        for (int i = 1; i < lists.size() && length > 0; i++) {
+            length = intersectInto(result, length, lists.get(i));
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    /**
+     * Intersect result[0..length) with the posting list in place, returns the new length
+     */
+    private static int intersectInto(int[] result, int length, Postings other) {
+        int i = 0, j = 0, k = 0;
+        while (i < length && j < other.size) {
+            if (result[i] < other.docs[j]) {
+                i++;
+            } else if (result[i] > other.docs[j]) {
+                j++;
+            } else {
+                result[k++] = result[i];
+                i++;
+                j++;
+            }
+        }
+        return k;
+    }
+
+    private void addInternal(long vocabId, String[] values) {
+        int doc = docCount++;
+        if (doc == vocabIds.length) {
+            vocabIds = Arrays.copyOf(vocabIds, doc * 2);
+            texts = Arrays.copyOf(texts, doc * 2);
+        }
+
+        String[] fields = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            fields[i] = lower(values[i]);
+        }
+        vocabIds[doc] = vocabId;
+        texts[doc] = String.join(String.valueOf(FIELD_SEPARATOR), fields);
+        docByVocabId.put(vocabId, doc);
+        liveCount++;
+
+        Set<String> grams = new HashSet<>();
+        for (String field : fields) {
+            for (int i = 0; i < field.length(); i++) {
+                for (int n = 1; n <= MAX_GRAM && i + n <= field.length(); n++) {
+                    grams.add(field.substring(i, i + n));
+                }
+            }
+        }
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, g -> new Postings()).add(doc);
+        }
+    }
+
+    private void removeInternal(long vocabId) {
+        Integer doc = docByVocabId.remove(vocabId);
+        if (doc != null) {
+            deleted.set(doc);
+            texts[doc] = null;
+            liveCount--;
+        }
+    }
+
+    /**
+     * Rebuild postings without tombstoned documents once they make up a quarter of the index
+     */
+    private void compactIfNeeded() {
+        int dead = docCount - liveCount;
+        if (dead < 1024 || dead * 4 < liveCount) {
+            return;
+        }
+
+        long[] oldIds = vocabIds;
+        String[] oldTexts = texts;
+        int oldCount = docCount;
+
+        postings.clear();
+        docByVocabId.clear();
+        deleted.clear();
+        vocabIds = new long[Math.max(1024, liveCount * 2)];
+        texts = new String[vocabIds.length];
+        docCount = 0;
+        liveCount = 0;
+
+        for (int doc = 0; doc < oldCount; doc++) {
+            if (oldTexts[doc] == null) continue;
+            addInternal(oldIds[doc], oldTexts[doc].split(String.valueOf(FIELD_SEPARATOR), -1));
+        }
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Growable sorted int array
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+}
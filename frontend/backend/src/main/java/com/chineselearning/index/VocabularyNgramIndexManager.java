@@ -0,0 +1,135 @@
+package com.chineselearning.index;
+
+import com.chineselearning.event.VocabularyChangedEvent;
+import com.chineselearning.repository.VocabularyRepository;
+import com.chineselearning.search.text.SearchTextNormalizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Owns the {@link VocabularyNgramIndex}
+ *
+ * - Full build on startup and on full-refresh events (new index swapped in atomically)
+ * - Incremental upsert/remove for events that carry the changed ids (imports,
+ *   backfills); removals are tombstoned until the next compaction
+ *
+ * @author Senior Backend Architect
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VocabularyNgramIndexManager {
+
+    private final VocabularyRepository vocabularyRepository;
+
+    private final AtomicReference<VocabularyNgramIndex> current = new AtomicReference<>();
+    private volatile long lastBuildTimeMs;
+
+    @Value("${app.vocabulary.ngram-index.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Current index, or null while the first build is still running
+     */
+    public VocabularyNgramIndex current() {
+        return enabled ? current.get() : null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Async
+    public void buildOnStartup() {
+        if (!enabled) {
+            log.info("Vocabulary n-gram index disabled");
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Error building vocabulary n-gram index", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Async
+    public void onVocabularyChanged(VocabularyChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (event.isFullRefresh() || current.get() == null) {
+                rebuild();
+            } else {
+                applyChanges(event.getIds());
+            }
+        } catch (Exception e) {
+            log.error("Error updating vocabulary n-gram index", e);
+        }
+    }
+
+    public synchronized void rebuild() {
+        long startTime = System.currentTimeMillis();
+
+        VocabularyNgramIndex index = new VocabularyNgramIndex();
+        for (VocabularyRepository.SearchRow row : vocabularyRepository.findAllSearchRows()) {
+            upsert(index, row);
+        }
+        current.set(index);
+
+        lastBuildTimeMs = System.currentTimeMillis() - startTime;
+        log.info("Vocabulary n-gram index built: {} entries in {} ms", index.size(), lastBuildTimeMs);
+    }
+
+    private synchronized void applyChanges(Set<Long> ids) {
+        VocabularyNgramIndex index = current.get();
+        List<VocabularyRepository.SearchRow> rows = vocabularyRepository.findSearchRowsByIdIn(ids);
+
+        Set<Long> missing = new HashSet<>(ids);
+        for (VocabularyRepository.SearchRow row : rows) {
+            upsert(index, row);
+            missing.remove(row.getId());
+        }
+        missing.forEach(index::remove);
+
+        log.debug("Vocabulary n-gram index updated: {} upserted, {} removed", rows.size(), missing.size());
+    }
+
+    /**
+     * Index the raw fields plus their normalized forms; rows not yet backfilled
+     * get the normalized forms computed here
+     */
+    private static void upsert(VocabularyNgramIndex index, VocabularyRepository.SearchRow row) {
+        String pinyinPlain = row.getPinyinPlain() != null
+                ? row.getPinyinPlain() : SearchTextNormalizer.pinyinPlain(row.getPinyin());
+        String pinyinNumeric = row.getPinyinNumeric() != null
+                ? row.getPinyinNumeric() : SearchTextNormalizer.pinyinNumeric(row.getPinyin());
+        String meaningFolded = row.getMeaningFolded() != null
+                ? row.getMeaningFolded() : SearchTextNormalizer.foldVietnamese(row.getMeaning());
+        index.upsert(row.getId(), row.getHanzi(), row.getPinyin(), row.getMeaning(),
+                pinyinPlain, pinyinNumeric, meaningFolded);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        VocabularyNgramIndex index = current();
+        stats.put("enabled", enabled);
+        stats.put("ready", index != null);
+        stats.put("last_build_time_ms", lastBuildTimeMs);
+        if (index != null) {
+            stats.putAll(index.getStatistics());
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,303 @@
+package com.chineselearning.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Dictionary segmenter over every vocabulary hanzi
+ *
+ * Bidirectional maximum matching: forward matching uses a double-array trie of
+ * the words, backward matching a second trie of the reversed words. The result
+ * with fewer tokens wins, then the one with fewer unknown single characters,
+ * and ties go to backward matching, which is right more often for Chinese.
+ *
+ * Text without a dictionary match is still returned, as single unknown CJK
+ * characters or runs of letters/digits, whitespace or punctuation, so the
+ * tokens always cover the whole input.
+ *
+ * @author Senior Backend Architect
+ */
+public final class VocabularySegmenter {
+
+    public enum Mode {
+        FORWARD, BACKWARD, BIDIRECTIONAL
+    }
+
+    private static final int NO_ENTRY = -1;
+
+    private static final int CLASS_CJK = 0;
+    private static final int CLASS_ALNUM = 1;
+    private static final int CLASS_SPACE = 2;
+    private static final int CLASS_OTHER = 3;
+
+    private final DoubleArrayTrie forward;
+    private final DoubleArrayTrie backward;
+
+    // Per dictionary word: the entry shown (most frequent, then lowest id) and all ids
+    private final long[][] idsByWord;
+    private final String[] pinyinByWord;
+    private final String[] meaningByWord;
+
+    private VocabularySegmenter(Builder builder) {
+        int n = builder.words.size();
+        idsByWord = new long[n][];
+        pinyinByWord = new String[n];
+        meaningByWord = new String[n];
+
+        SortedMap<String, Integer> forwardKeys = new TreeMap<>();
+        SortedMap<String, Integer> backwardKeys = new TreeMap<>();
+        int word = 0;
+        for (Map.Entry<String, List<Entry>> e : builder.words.entrySet()) {
+            List<Entry> entries = e.getValue();
+            Entry primary = entries.get(0);
+            long[] ids = new long[entries.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = entries.get(i).id;
+            }
+            idsByWord[word] = ids;
+            pinyinByWord[word] = primary.pinyin;
+            meaningByWord[word] = primary.meaning;
+
+            forwardKeys.put(e.getKey(), word);
+            backwardKeys.put(reverseChars(e.getKey()), word);
+            word++;
+        }
+        forward = DoubleArrayTrie.build(forwardKeys);
+        backward = DoubleArrayTrie.build(backwardKeys);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return idsByWord.length;
+    }
+
+    public List<Token> segment(String text, Mode mode) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        switch (mode) {
+            case FORWARD:
+                return forwardMatch(text);
+            case BACKWARD:
+                return backwardMatch(text);
+            default:
+                List<Token> fmm = forwardMatch(text);
+                List<Token> bmm = backwardMatch(text);
+                if (fmm.size() != bmm.size()) {
+                    return fmm.size() < bmm.size() ? fmm : bmm;
+                }
+                return unknownSingles(fmm) < unknownSingles(bmm) ? fmm : bmm;
+        }
+    }
+
+    public long[] idsOf(int word) {
+        return idsByWord[word];
+    }
+
+    public long primaryIdOf(int word) {
+        return idsByWord[word][0];
+    }
+
+    public String pinyinOf(int word) {
+        return pinyinByWord[word];
+    }
+
+    public String meaningOf(int word) {
+        return meaningByWord[word];
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("words", idsByWord.length);
+        stats.put("max_word_length", forward.maxKeyLength());
+        stats.put("trie_bytes", forward.estimatedBytes() + backward.estimatedBytes());
+        return stats;
+    }
+
+    private List<Token> forwardMatch(String text) {
+        List<Token> tokens = new ArrayList<>();
+        int[] value = new int[1];
+        int i = 0;
+        while (i < text.length()) {
+            int length = forward.longestPrefix(text, i, value);
+            if (length > 0) {
+                tokens.add(new Token(i, i + length, value[0]));
+                i += length;
+            } else {
+                int end = unknownEnd(text, i);
+                tokens.add(new Token(i, end, NO_ENTRY));
+                i = end;
+            }
+        }
+        return tokens;
+    }
+
+    private List<Token> backwardMatch(String text) {
+        List<Token> tokens = new ArrayList<>();
+        int[] value = new int[1];
+        int j = text.length();
+        while (j > 0) {
+            int length = backward.longestPrefixReversed(text, j, value);
+            if (length > 0) {
+                tokens.add(new Token(j - length, j, value[0]));
+                j -= length;
+            } else {
+                int start = unknownStart(text, j);
+                tokens.add(new Token(start, j, NO_ENTRY));
+                j = start;
+            }
+        }
+        Collections.reverse(tokens);
+        return tokens;
+    }
+
+    /**
+     * Char-by-char reversal (unlike StringBuilder.reverse, surrogate pairs are
+     * reversed too), matching how the backward walk reads the text
+     */
+    private static String reverseChars(String value) {
+        char[] chars = new char[value.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = value.charAt(chars.length - 1 - i);
+        }
+        return new String(chars);
+    }
+
+    private static int unknownSingles(List<Token> tokens) {
+        int count = 0;
+        for (Token token : tokens) {
+            if (token.word == NO_ENTRY && token.end - token.start == 1) count++;
+        }
+        return count;
+    }
+
+    /**
+     * CJK characters are unknown one at a time; other text in runs of the same class
+     */
+    private static int unknownEnd(String text, int start) {
+        int cls = charClass(text.charAt(start));
+        int end = start + 1;
+        if (cls == CLASS_CJK) {
+            // keep surrogate pairs (CJK extension B and later) together
+            return Character.isHighSurrogate(text.charAt(start)) && end < text.length()
+                    && Character.isLowSurrogate(text.charAt(end)) ? end + 1 : end;
+        }
+        while (end < text.length() && charClass(text.charAt(end)) == cls) {
+            end++;
+        }
+        return end;
+    }
+
+    private static int unknownStart(String text, int end) {
+        int cls = charClass(text.charAt(end - 1));
+        int start = end - 1;
+        if (cls == CLASS_CJK) {
+            return Character.isLowSurrogate(text.charAt(start)) && start > 0
+                    && Character.isHighSurrogate(text.charAt(start - 1)) ? start - 1 : start;
+        }
+        while (start > 0 && charClass(text.charAt(start - 1)) == cls) {
+            start--;
+        }
+        return start;
+    }
+
+    private static int charClass(char c) {
+        if (Character.isIdeographic(c) || Character.isSurrogate(c)) {
+            return CLASS_CJK;
+        }
+        if (Character.isLetterOrDigit(c)) {
+            return CLASS_ALNUM;
+        }
+        if (Character.isWhitespace(c)) {
+            return CLASS_SPACE;
+        }
+        return CLASS_OTHER;
+    }
+
+    /**
+     * A span of the input; word is the dictionary word number or -1 when unknown
+     */
+    public static final class Token {
+        private final int start;
+        private final int end;
+        private final int word;
+
+        Token(int start, int end, int word) {
+            this.start = start;
+            this.end = end;
+            this.word = word;
+        }
+
+        public int getStart() {
+            return start;
+        }
+
+        public int getEnd() {
+            return end;
+        }
+
+        public int getWord() {
+            return word;
+        }
+
+        public boolean isKnown() {
+            return word != NO_ENTRY;
+        }
+    }
+
+    public static final class Builder {
+
+        private final Map<String, List<Entry>> words = new TreeMap<>();
+
+        private Builder() {
+        }
+
+        public Builder add(long id, String hanzi, String pinyin, String meaning, Integer frequencyRank) {
+            if (hanzi == null || hanzi.isBlank()) {
+                return this;
+            }
+            words.computeIfAbsent(hanzi.trim(), h -> new ArrayList<>(1))
+                    .add(new Entry(id, pinyin, meaning, frequencyRank));
+            return this;
+        }
+
+        public VocabularySegmenter build() {
+            for (List<Entry> entries : words.values()) {
+                // Primary entry first, so idsOf(word)[0] is the one displayed
+                Collections.sort(entries);
+            }
+            return new VocabularySegmenter(this);
+        }
+    }
+
+    /**
+     * Orders by frequency rank (unranked last), then id
+     */
+    private static final class Entry implements Comparable<Entry> {
+        private final long id;
+        private final String pinyin;
+        private final String meaning;
+        private final int frequencyRank;
+
+        private Entry(long id, String pinyin, String meaning, Integer frequencyRank) {
+            this.id = id;
+            this.pinyin = pinyin;
+            this.meaning = meaning;
+            this.frequencyRank = frequencyRank != null ? frequencyRank : Integer.MAX_VALUE;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byRank = Integer.compare(frequencyRank, other.frequencyRank);
+            return byRank != 0 ? byRank : Long.compare(id, other.id);
+        }
+    }
+}
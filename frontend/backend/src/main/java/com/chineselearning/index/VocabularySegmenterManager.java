@@ -0,0 +1,126 @@
+package com.chineselearning.index;
+
+import com.chineselearning.event.VocabularyChangedEvent;
+import com.chineselearning.repository.VocabularyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Owns the {@link VocabularySegmenter}
+ *
+ * The tries are static, so vocabulary changes build a new segmenter and swap
+ * it in atomically; requests keep using the old one until then. Changes that
+ * arrive while a rebuild is queued share it, so a burst of events (a batched
+ * backfill) costs one or two rebuilds, not one per event.
+ *
+ * @author Senior Backend Architect
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VocabularySegmenterManager {
+
+    private final VocabularyRepository vocabularyRepository;
+
+    private final AtomicReference<VocabularySegmenter> current = new AtomicReference<>();
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private volatile long lastBuildTimeMs;
+
+    @Value("${app.vocabulary.segmenter.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Current segmenter, or null while the first build is still running
+     */
+    public VocabularySegmenter current() {
+        return enabled ? current.get() : null;
+    }
+
+    /**
+     * Current segmenter, building it first if a request arrives before the startup build finished
+     */
+    public VocabularySegmenter currentOrBuild() {
+        if (!enabled) {
+            return null;
+        }
+        VocabularySegmenter segmenter = current.get();
+        if (segmenter == null) {
+            synchronized (this) {
+                if (current.get() == null) {
+                    rebuild();
+                }
+            }
+            segmenter = current.get();
+        }
+        return segmenter;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Async
+    public void buildOnStartup() {
+        if (!enabled) {
+            log.info("Vocabulary segmenter disabled");
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Error building vocabulary segmenter", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Async
+    public void onVocabularyChanged(VocabularyChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        // The queued rebuild has not read the table yet, so it will see this change too
+        if (!rebuildPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Error rebuilding vocabulary segmenter after change", e);
+        }
+    }
+
+    public synchronized void rebuild() {
+        rebuildPending.set(false);
+        long startTime = System.currentTimeMillis();
+
+        VocabularySegmenter.Builder builder = VocabularySegmenter.builder();
+        for (VocabularyRepository.DictionaryRow row : vocabularyRepository.findAllDictionaryRows()) {
+            builder.add(row.getId(), row.getHanzi(), row.getPinyin(), row.getMeaning(), row.getFrequencyRank());
+        }
+        VocabularySegmenter segmenter = builder.build();
+        current.set(segmenter);
+
+        lastBuildTimeMs = System.currentTimeMillis() - startTime;
+        log.info("Vocabulary segmenter built: {} words in {} ms", segmenter.size(), lastBuildTimeMs);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        VocabularySegmenter segmenter = current();
+        stats.put("enabled", enabled);
+        stats.put("ready", segmenter != null);
+        stats.put("last_build_time_ms", lastBuildTimeMs);
+        if (segmenter != null) {
+            stats.putAll(segmenter.getStatistics());
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,360 @@
+package com.chineselearning.index;
+
+import com.chineselearning.domain.Vocabulary.VariantType;
+import com.chineselearning.dto.KeysetCursor;
+import com.chineselearning.dto.PageResponse;
+import com.chineselearning.dto.response.VocabularyResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable columnar snapshot of the vocabulary table
+ *
+ * Rows are stored column by column in primitive arrays, sorted by id, so
+ * paging and variant/HSK filtering never touch the database. String columns
+ * are de-duplicated while building, which keeps repeated values (pinyin
+ * syllables, tags, short meanings) to a single instance per snapshot.
+ *
+ * @author Senior Backend Architect
+ */
+public final class VocabularySnapshot {
+
+    /**
+     * Marker for a NULL integer column
+     */
+    public static final int NO_VALUE = -1;
+
+    private static final VariantType[] VARIANTS = VariantType.values();
+
+    private final long version;
+    private final String fingerprint;
+
+    private final long[] ids;
+    private final int[] hskLevels;
+    private final int[] frequencyRanks;
+    private final byte[] variants;
+    private final String[] hanzi;
+    private final String[] pinyin;
+    private final String[] meanings;
+    private final String[] examples;
+    private final String[][] tags;
+
+    // Precomputed row lists for each filter value (sorted row numbers)
+    private final int[][] rowsByVariant;
+    private final int[][] rowsByHskLevel;
+
+    private VocabularySnapshot(Builder builder, long version, String fingerprint) {
+        int n = builder.size;
+        this.version = version;
+        this.fingerprint = fingerprint;
+        this.ids = Arrays.copyOf(builder.ids, n);
+        this.hskLevels = Arrays.copyOf(builder.hskLevels, n);
+        this.frequencyRanks = Arrays.copyOf(builder.frequencyRanks, n);
+        this.variants = Arrays.copyOf(builder.variants, n);
+        this.hanzi = Arrays.copyOf(builder.hanzi, n);
+        this.pinyin = Arrays.copyOf(builder.pinyin, n);
+        this.meanings = Arrays.copyOf(builder.meanings, n);
+        this.examples = Arrays.copyOf(builder.examples, n);
+        this.tags = Arrays.copyOf(builder.tags, n);
+        this.rowsByVariant = buildVariantRows();
+        this.rowsByHskLevel = buildHskRows();
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Row number of the given id, or a negative value when absent
+     */
+    public int rowOf(long id) {
+        return Arrays.binarySearch(ids, id);
+    }
+
+    public long idAt(int row) {
+        return ids[row];
+    }
+
+    public String hanziAt(int row) {
+        return hanzi[row];
+    }
+
+    public String pinyinAt(int row) {
+        return pinyin[row];
+    }
+
+    public String meaningAt(int row) {
+        return meanings[row];
+    }
+
+    public int hskLevelAt(int row) {
+        return hskLevels[row];
+    }
+
+    public int frequencyRankAt(int row) {
+        return frequencyRanks[row];
+    }
+
+    /**
+     * Page through the snapshot in id order, optionally filtered by variant and HSK level.
+     * A variant filter also matches rows marked BOTH, same as the JPA path.
+     */
+    public PageResponse<VocabularyResponse> page(int page, int size, VariantType variant, Integer hskLevel) {
+        int[] rows = filter(variant, hskLevel);
+        int total = rows == null ? ids.length : rows.length;
+
+        int from = (int) Math.min((long) page * size, total);
+        int to = Math.min(from + size, total);
+
+        List<VocabularyResponse> content = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            content.add(toResponse(rows == null ? i : rows[i]));
+        }
+
+        int totalPages = size > 0 ? (int) Math.ceil((double) total / size) : 0;
+        return PageResponse.of(content, total, totalPages, page, size);
+    }
+
+    /**
+     * Cursor-mode page: rows with id greater than afterId, located by binary search
+     */
+    public PageResponse<VocabularyResponse> pageAfter(Long afterId, int size, VariantType variant, Integer hskLevel) {
+        int[] rows = filter(variant, hskLevel);
+        int total = rows == null ? ids.length : rows.length;
+
+        int from = 0;
+        if (afterId != null) {
+            int hi = total;
+            while (from < hi) {
+                int mid = (from + hi) >>> 1;
+                if (ids[rows == null ? mid : rows[mid]] <= afterId) {
+                    from = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+        }
+
+        int to = (int) Math.min((long) from + size + 1, total);
+        List<Integer> fetched = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            fetched.add(rows == null ? i : rows[i]);
+        }
+        return PageResponse.ofCursor(fetched, size, this::toResponse,
+                row -> KeysetCursor.encode(null, ids[row]), afterId != null);
+    }
+
+    public VocabularyResponse toResponse(int row) {
+        String[] rowTags = tags[row];
+        return VocabularyResponse.builder()
+                .id(ids[row])
+                .hanzi(hanzi[row])
+                .pinyin(pinyin[row])
+                .meaning(meanings[row])
+                .example(examples[row])
+                .variant(VARIANTS[variants[row]].name())
+                .hskLevel(hskLevels[row] == NO_VALUE ? null : hskLevels[row])
+                .frequencyRank(frequencyRanks[row] == NO_VALUE ? null : frequencyRanks[row])
+                .tags(new HashSet<>(Arrays.asList(rowTags)))
+                .build();
+    }
+
+    /**
+     * @return sorted row numbers matching the filters, or null when unfiltered
+     */
+    private int[] filter(VariantType variant, Integer hskLevel) {
+        int[] byVariant = variant == null ? null : rowsByVariant[variant.ordinal()];
+        int[] byHsk = null;
+        if (hskLevel != null) {
+            byHsk = hskLevel >= 0 && hskLevel < rowsByHskLevel.length
+                    ? rowsByHskLevel[hskLevel]
+                    : new int[0];
+        }
+
+        if (byVariant == null) {
+            return byHsk;
+        }
+        if (byHsk == null) {
+            return byVariant;
+        }
+        return intersect(byVariant, byHsk);
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[k++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, k);
+    }
+
+    private int[][] buildVariantRows() {
+        int both = VariantType.BOTH.ordinal();
+        int[][] result = new int[VARIANTS.length][];
+        for (VariantType type : VARIANTS) {
+            int wanted = type.ordinal();
+            int count = 0;
+            for (byte v : variants) {
+                if (v == wanted || v == both) count++;
+            }
+            int[] rows = new int[count];
+            int k = 0;
+            for (int row = 0; row < variants.length; row++) {
+                if (variants[row] == wanted || variants[row] == both) rows[k++] = row;
+            }
+            result[wanted] = rows;
+        }
+        return result;
+    }
+
+    private int[][] buildHskRows() {
+        int maxLevel = 0;
+        for (int level : hskLevels) {
+            maxLevel = Math.max(maxLevel, level);
+        }
+        int[] counts = new int[maxLevel + 1];
+        for (int level : hskLevels) {
+            if (level != NO_VALUE) counts[level]++;
+        }
+        int[][] result = new int[maxLevel + 1][];
+        for (int level = 0; level <= maxLevel; level++) {
+            result[level] = new int[counts[level]];
+        }
+        int[] fill = new int[maxLevel + 1];
+        for (int row = 0; row < hskLevels.length; row++) {
+            int level = hskLevels[row];
+            if (level != NO_VALUE) result[level][fill[level]++] = row;
+        }
+        return result;
+    }
+
+    /**
+     * Append-only builder; rows must be added in ascending id order
+     */
+    public static final class Builder {
+
+        private static final String[] NO_TAGS = new String[0];
+
+        private final Map<String, String> interned = new HashMap<>();
+
+        private int size;
+        private long[] ids;
+        private int[] hskLevels;
+        private int[] frequencyRanks;
+        private byte[] variants;
+        private String[] hanzi;
+        private String[] pinyin;
+        private String[] meanings;
+        private String[] examples;
+        private String[][] tags;
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 16);
+            ids = new long[capacity];
+            hskLevels = new int[capacity];
+            frequencyRanks = new int[capacity];
+            variants = new byte[capacity];
+            hanzi = new String[capacity];
+            pinyin = new String[capacity];
+            meanings = new String[capacity];
+            examples = new String[capacity];
+            tags = new String[capacity][];
+        }
+
+        public Builder add(long id, String hanziValue, String pinyinValue, String meaning, String example,
+                           VariantType variant, Integer hskLevel, Integer frequencyRank, List<String> rowTags) {
+            if (size > 0 && id <= ids[size - 1]) {
+                throw new IllegalStateException("Rows must be added in ascending id order: " + id);
+            }
+            ensureCapacity(size + 1);
+
+            ids[size] = id;
+            hskLevels[size] = hskLevel != null ? hskLevel : NO_VALUE;
+            frequencyRanks[size] = frequencyRank != null ? frequencyRank : NO_VALUE;
+            variants[size] = (byte) (variant != null ? variant : VariantType.BOTH).ordinal();
+            hanzi[size] = intern(hanziValue);
+            pinyin[size] = intern(pinyinValue);
+            meanings[size] = intern(meaning);
+            examples[size] = intern(example);
+            tags[size] = internTags(rowTags);
+            size++;
+            return this;
+        }
+
+        /**
+         * Append row of source unchanged, same ordering rule as add
+         */
+        public Builder copy(VocabularySnapshot source, int row) {
+            String[] rowTags = source.tags[row];
+            return add(source.ids[row], source.hanzi[row], source.pinyin[row], source.meanings[row],
+                    source.examples[row], VARIANTS[source.variants[row]],
+                    source.hskLevels[row] == NO_VALUE ? null : source.hskLevels[row],
+                    source.frequencyRanks[row] == NO_VALUE ? null : source.frequencyRanks[row],
+                    Arrays.asList(rowTags));
+        }
+
+        public VocabularySnapshot build(long version, String fingerprint) {
+            return new VocabularySnapshot(this, version, fingerprint);
+        }
+
+        private String intern(String value) {
+            if (value == null) {
+                return null;
+            }
+            return interned.computeIfAbsent(value, v -> v);
+        }
+
+        private String[] internTags(List<String> rowTags) {
+            if (rowTags == null || rowTags.isEmpty()) {
+                return NO_TAGS;
+            }
+            String[] result = new String[rowTags.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = intern(rowTags.get(i));
+            }
+            return result;
+        }
+
+        private void ensureCapacity(int required) {
+            if (required <= ids.length) {
+                return;
+            }
+            int capacity = Math.max(required, ids.length + (ids.length >> 1));
+            ids = Arrays.copyOf(ids, capacity);
+            hskLevels = Arrays.copyOf(hskLevels, capacity);
+            frequencyRanks = Arrays.copyOf(frequencyRanks, capacity);
+            variants = Arrays.copyOf(variants, capacity);
+            hanzi = Arrays.copyOf(hanzi, capacity);
+            pinyin = Arrays.copyOf(pinyin, capacity);
+            meanings = Arrays.copyOf(meanings, capacity);
+            examples = Arrays.copyOf(examples, capacity);
+            tags = Arrays.copyOf(tags, capacity);
+        }
+    }
+}
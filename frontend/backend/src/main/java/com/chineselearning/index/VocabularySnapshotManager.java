@@ -0,0 +1,200 @@
+package com.chineselearning.index;
+
+import com.chineselearning.domain.Vocabulary;
+import com.chineselearning.event.VocabularyChangedEvent;
+import com.chineselearning.repository.VocabularyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Owns the current {@link VocabularySnapshot}
+ *
+ * - Builds the snapshot on startup
+ * - Applies {@link VocabularyChangedEvent}s that carry ids (imports, backfills)
+ *   as a delta: only those rows are read, the rest is copied from the current
+ *   snapshot
+ * - Rebuilds from the whole table on full-refresh events and when the table
+ *   fingerprint (row count, max id, max updated_at) changes, e.g. after manual
+ *   SQL loads; full-refresh events arriving while a rebuild is queued share it
+ * - Swaps the new version in atomically; readers never see a partial snapshot
+ *
+ * @author Senior Backend Architect
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VocabularySnapshotManager {
+
+    private final VocabularyRepository vocabularyRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AtomicReference<VocabularySnapshot> current = new AtomicReference<>();
+    private final AtomicLong versionSequence = new AtomicLong();
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    @Value("${app.vocabulary.snapshot.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Current snapshot, or null while the first build is still running
+     */
+    public VocabularySnapshot current() {
+        return enabled ? current.get() : null;
+    }
+
+    public boolean isReady() {
+        return current() != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Async
+    public void buildOnStartup() {
+        if (!enabled) {
+            log.info("Vocabulary snapshot disabled");
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Error building initial vocabulary snapshot", e);
+        }
+    }
+
+    /**
+     * Catch changes that did not go through the application (manual SQL, other nodes)
+     * and announce them, so every in-memory structure refreshes, not only the snapshot
+     */
+    @Scheduled(fixedDelayString = "${app.vocabulary.snapshot.check-interval-ms:30000}",
+            initialDelayString = "${app.vocabulary.snapshot.check-interval-ms:30000}")
+    public void refreshIfStale() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            VocabularySnapshot snapshot = current.get();
+            String fingerprint = fingerprint(vocabularyRepository.fetchFingerprint());
+            if (snapshot == null || !snapshot.getFingerprint().equals(fingerprint)) {
+                log.info("Vocabulary table changed ({}), publishing full refresh", fingerprint);
+                eventPublisher.publishEvent(VocabularyChangedEvent.all());
+            }
+        } catch (Exception e) {
+            log.error("Error checking vocabulary snapshot freshness", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Async
+    public void onVocabularyChanged(VocabularyChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (event.isFullRefresh() || current.get() == null) {
+                // A rebuild queued by an earlier event has not read the table yet and will see this change too
+                if (rebuildPending.compareAndSet(false, true)) {
+                    rebuild();
+                }
+            } else {
+                applyChanges(event.getIds());
+            }
+        } catch (Exception e) {
+            log.error("Error updating vocabulary snapshot after change", e);
+        }
+    }
+
+    /**
+     * Load the whole table into a new snapshot and publish it
+     */
+    public synchronized VocabularySnapshot rebuild() {
+        rebuildPending.set(false);
+        long startTime = System.currentTimeMillis();
+
+        String fingerprint = fingerprint(vocabularyRepository.fetchFingerprint());
+        List<Vocabulary> vocabularies = vocabularyRepository.findAll(Sort.by(Sort.Direction.ASC, "id"));
+
+        Map<Long, List<String>> tagsById = tagsById(vocabularyRepository.findAllTagRows());
+
+        VocabularySnapshot.Builder builder = VocabularySnapshot.builder(vocabularies.size());
+        for (Vocabulary v : vocabularies) {
+            add(builder, v, tagsById);
+        }
+
+        VocabularySnapshot snapshot = builder.build(versionSequence.incrementAndGet(), fingerprint);
+        current.set(snapshot);
+
+        log.info("Vocabulary snapshot v{} built: {} rows in {} ms",
+                snapshot.getVersion(), snapshot.size(), System.currentTimeMillis() - startTime);
+        return snapshot;
+    }
+
+    /**
+     * New snapshot with the given ids re-read from the table; ids no longer there are dropped
+     */
+    private synchronized void applyChanges(Set<Long> ids) {
+        long startTime = System.currentTimeMillis();
+        VocabularySnapshot previous = current.get();
+
+        String fingerprint = fingerprint(vocabularyRepository.fetchFingerprint());
+        List<Vocabulary> changed = new ArrayList<>(vocabularyRepository.findAllById(ids));
+        changed.sort(Comparator.comparing(Vocabulary::getId));
+        Map<Long, List<String>> tagsById = tagsById(vocabularyRepository.findTagRowsByVocabIdIn(ids));
+
+        // Merge two id-ordered sequences: the untouched rows of previous and the re-read rows
+        VocabularySnapshot.Builder builder = VocabularySnapshot.builder(previous.size() + changed.size());
+        int next = 0;
+        for (int row = 0; row < previous.size(); row++) {
+            long id = previous.idAt(row);
+            while (next < changed.size() && changed.get(next).getId() < id) {
+                add(builder, changed.get(next++), tagsById);
+            }
+            if (!ids.contains(id)) {
+                builder.copy(previous, row);
+            }
+        }
+        while (next < changed.size()) {
+            add(builder, changed.get(next++), tagsById);
+        }
+
+        VocabularySnapshot snapshot = builder.build(versionSequence.incrementAndGet(), fingerprint);
+        current.set(snapshot);
+
+        log.debug("Vocabulary snapshot v{} updated: {} ids re-read, {} rows in {} ms",
+                snapshot.getVersion(), ids.size(), snapshot.size(), System.currentTimeMillis() - startTime);
+    }
+
+    private static void add(VocabularySnapshot.Builder builder, Vocabulary v, Map<Long, List<String>> tagsById) {
+        builder.add(v.getId(), v.getHanzi(), v.getPinyin(), v.getMeaning(), v.getExample(),
+                v.getVariant(), v.getHskLevel(), v.getFrequencyRank(), tagsById.get(v.getId()));
+    }
+
+    private static Map<Long, List<String>> tagsById(List<VocabularyRepository.TagRow> rows) {
+        Map<Long, List<String>> tagsById = new HashMap<>();
+        for (VocabularyRepository.TagRow row : rows) {
+            tagsById.computeIfAbsent(row.getVocabId(), id -> new ArrayList<>(2)).add(row.getTag());
+        }
+        return tagsById;
+    }
+
+    private String fingerprint(VocabularyRepository.Fingerprint fp) {
+        return fp.getTotal() + ":" + fp.getMaxId() + ":" + fp.getLastUpdated();
+    }
+}
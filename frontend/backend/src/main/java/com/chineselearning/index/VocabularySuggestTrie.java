@@ -0,0 +1,394 @@
+package com.chineselearning.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed prefix trie for vocabulary type-ahead
+ *
+ * Each edge carries a run of characters (radix trie). Every node keeps the
+ * best top-k entries of its subtree, distinct by hanzi, so a lookup is one
+ * walk down the prefix plus a copy of at most k strings, whatever the number
+ * of matching words.
+ *
+ * Entries rank by frequency rank, then HSK level (missing values last), then
+ * id. Updates mark the nodes on the changed key paths dirty and recompute
+ * their top-k bottom-up once per batch, from the node's own entries and the
+ * children's top-k lists.
+ *
+ * Keys are expected to be normalized already (lower-case, no diacritics).
+ *
+ * @author Senior Backend Architect
+ */
+public final class VocabularySuggestTrie {
+
+    private static final Item[] NO_ITEMS = new Item[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final char[] NO_CHARS = new char[0];
+
+    private static final Comparator<Item> RANKING = Comparator
+            .comparingInt((Item item) -> item.frequencyRank)
+            .thenComparingInt(item -> item.hskLevel)
+            .thenComparingLong(item -> item.id);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final int topK;
+    private final Node root = new Node("");
+    private final Map<Long, Item> itemsById = new HashMap<>();
+    private int nodeCount = 1;
+
+    public VocabularySuggestTrie(int topK) {
+        if (topK <= 0) {
+            throw new IllegalArgumentException("topK must be positive");
+        }
+        this.topK = topK;
+    }
+
+    /**
+     * One vocabulary entry and the keys it can be found under
+     */
+    public static final class Item {
+
+        private final long id;
+        private final String hanzi;
+        private final int frequencyRank;
+        private final int hskLevel;
+        private final String[] keys;
+
+        public Item(long id, String hanzi, Integer frequencyRank, Integer hskLevel, Collection<String> keys) {
+            this.id = id;
+            this.hanzi = hanzi;
+            this.frequencyRank = frequencyRank != null ? frequencyRank : Integer.MAX_VALUE;
+            this.hskLevel = hskLevel != null ? hskLevel : Integer.MAX_VALUE;
+            this.keys = keys.stream()
+                    .filter(key -> key != null && !key.isEmpty())
+                    .distinct()
+                    .toArray(String[]::new);
+        }
+
+        public long getId() {
+            return id;
+        }
+    }
+
+    private static final class Node {
+        String label;
+        char[] firsts = NO_CHARS;
+        Node[] children = NO_CHILDREN;
+        Item[] own = NO_ITEMS;
+        Item[] top = NO_ITEMS;
+        boolean dirty;
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * Add or replace entries and remove ids in one batch
+     */
+    public void update(Collection<Item> upserts, Collection<Long> removals) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : removals) {
+                Item old = itemsById.remove(id);
+                if (old != null) {
+                    for (String key : old.keys) {
+                        remove(key, old);
+                    }
+                }
+            }
+            for (Item item : upserts) {
+                Item old = itemsById.put(item.id, item);
+                if (old != null) {
+                    for (String key : old.keys) {
+                        remove(key, old);
+                    }
+                }
+                for (String key : item.keys) {
+                    insert(key, item);
+                }
+            }
+            recompute(root);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Hanzi of the best entries with a key starting with any of the prefixes,
+     * best first, distinct; at most min(limit, topK)
+     */
+    public List<String> suggest(Collection<String> prefixes, int limit) {
+        int size = Math.min(limit, topK);
+        if (size <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Item> candidates = new ArrayList<>();
+            for (String prefix : prefixes) {
+                if (prefix != null && !prefix.isEmpty()) {
+                    candidates.addAll(Arrays.asList(find(prefix)));
+                }
+            }
+            candidates.sort(RANKING);
+
+            Set<String> hanzi = new HashSet<>();
+            List<String> result = new ArrayList<>(size);
+            for (Item item : candidates) {
+                if (hanzi.add(item.hanzi)) {
+                    result.add(item.hanzi);
+                    if (result.size() == size) {
+                        break;
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return itemsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate heap footprint, for the admin endpoint
+     */
+    public Map<String, Object> getStatistics() {
+        lock.readLock().lock();
+        try {
+            long[] totals = new long[2]; // label chars, top-k slots
+            sumNodes(root, totals);
+            long keys = 0;
+            for (Item item : itemsById.values()) {
+                keys += item.keys.length;
+            }
+            // Node object + label String + the three arrays' headers; Item + keys
+            long bytes = nodeCount * 160L + 2 * totals[0] + 4 * totals[1]
+                    + itemsById.size() * 120L + keys * 4L;
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("entries", itemsById.size());
+            stats.put("keys", keys);
+            stats.put("nodes", nodeCount);
+            stats.put("top_k", topK);
+            stats.put("estimated_bytes", bytes);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void sumNodes(Node node, long[] totals) {
+        totals[0] += node.label.length();
+        totals[1] += node.top.length + node.own.length + node.children.length;
+        for (Node child : node.children) {
+            sumNodes(child, totals);
+        }
+    }
+
+    /**
+     * Top-k of the node that covers every key starting with prefix
+     */
+    private Item[] find(String prefix) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int slot = Arrays.binarySearch(node.firsts, prefix.charAt(i));
+            if (slot < 0) {
+                return NO_ITEMS;
+            }
+            Node child = node.children[slot];
+            int remaining = prefix.length() - i;
+            if (remaining <= child.label.length()) {
+                return child.label.regionMatches(0, prefix, i, remaining) ? child.top : NO_ITEMS;
+            }
+            if (!prefix.startsWith(child.label, i)) {
+                return NO_ITEMS;
+            }
+            i += child.label.length();
+            node = child;
+        }
+        return node.top;
+    }
+
+    private void insert(String key, Item item) {
+        Node node = root;
+        node.dirty = true;
+        int i = 0;
+        while (i < key.length()) {
+            char c = key.charAt(i);
+            int slot = Arrays.binarySearch(node.firsts, c);
+            if (slot < 0) {
+                Node leaf = new Node(key.substring(i));
+                leaf.own = new Item[]{item};
+                leaf.dirty = true;
+                addChild(node, -slot - 1, leaf);
+                return;
+            }
+
+            Node child = node.children[slot];
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                // Split the edge: node -> mid (shared part) -> child (rest)
+                Node mid = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                mid.firsts = new char[]{child.label.charAt(0)};
+                mid.children = new Node[]{child};
+                node.children[slot] = mid;
+                nodeCount++;
+                child = mid;
+            }
+            child.dirty = true;
+            node = child;
+            i += common;
+        }
+        node.own = withItem(node.own, item);
+    }
+
+    private void remove(String key, Item item) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            int slot = Arrays.binarySearch(node.firsts, key.charAt(i));
+            if (slot < 0) {
+                return;
+            }
+            Node child = node.children[slot];
+            if (!key.startsWith(child.label, i)) {
+                return;
+            }
+            i += child.label.length();
+            node = child;
+            path.add(node);
+        }
+        node.own = withoutItem(node.own, item);
+
+        // Prune nodes left without entries or children; the rest is recomputed
+        for (int p = path.size() - 1; p > 0; p--) {
+            Node current = path.get(p);
+            if (current.own.length == 0 && current.children.length == 0) {
+                removeChild(path.get(p - 1), current);
+            } else {
+                current.dirty = true;
+            }
+        }
+        root.dirty = true;
+    }
+
+    /**
+     * Rebuild the top-k of dirty nodes, children first
+     */
+    private void recompute(Node node) {
+        if (!node.dirty) {
+            return;
+        }
+        if (node.children.length == 0 && node.own.length == 1) {
+            // Most leaves hold one entry; share the array
+            node.top = node.own;
+            node.dirty = false;
+            return;
+        }
+        List<Item> candidates = new ArrayList<>(node.own.length + node.children.length * topK);
+        candidates.addAll(Arrays.asList(node.own));
+        for (Node child : node.children) {
+            recompute(child);
+            candidates.addAll(Arrays.asList(child.top));
+        }
+        candidates.sort(RANKING);
+
+        List<Item> top = new ArrayList<>(Math.min(topK, candidates.size()));
+        Set<String> hanzi = new HashSet<>();
+        for (Item item : candidates) {
+            if (hanzi.add(item.hanzi)) {
+                top.add(item);
+                if (top.size() == topK) {
+                    break;
+                }
+            }
+        }
+        node.top = top.toArray(NO_ITEMS);
+        node.dirty = false;
+    }
+
+    private void addChild(Node node, int slot, Node child) {
+        int n = node.firsts.length;
+        char[] firsts = new char[n + 1];
+        Node[] children = new Node[n + 1];
+        System.arraycopy(node.firsts, 0, firsts, 0, slot);
+        System.arraycopy(node.children, 0, children, 0, slot);
+        firsts[slot] = child.label.charAt(0);
+        children[slot] = child;
+        System.arraycopy(node.firsts, slot, firsts, slot + 1, n - slot);
+        System.arraycopy(node.children, slot, children, slot + 1, n - slot);
+        node.firsts = firsts;
+        node.children = children;
+        nodeCount++;
+    }
+
+    private void removeChild(Node node, Node child) {
+        int slot = Arrays.binarySearch(node.firsts, child.label.charAt(0));
+        int n = node.firsts.length;
+        char[] firsts = new char[n - 1];
+        Node[] children = new Node[n - 1];
+        System.arraycopy(node.firsts, 0, firsts, 0, slot);
+        System.arraycopy(node.children, 0, children, 0, slot);
+        System.arraycopy(node.firsts, slot + 1, firsts, slot, n - slot - 1);
+        System.arraycopy(node.children, slot + 1, children, slot, n - slot - 1);
+        node.firsts = firsts;
+        node.children = children;
+        nodeCount--;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static Item[] withItem(Item[] items, Item item) {
+        for (Item existing : items) {
+            if (existing == item) {
+                return items;
+            }
+        }
+        Item[] result = Arrays.copyOf(items, items.length + 1);
+        result[items.length] = item;
+        return result;
+    }
+
+    private static Item[] withoutItem(Item[] items, Item item) {
+        for (int i = 0; i < items.length; i++) {
+            if (items[i] == item) {
+                Item[] result = new Item[items.length - 1];
+                System.arraycopy(items, 0, result, 0, i);
+                System.arraycopy(items, i + 1, result, i, items.length - i - 1);
+                return result;
+            }
+        }
+        return items;
+    }
+}
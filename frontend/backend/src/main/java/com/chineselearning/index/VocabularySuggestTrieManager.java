@@ -0,0 +1,179 @@
+package com.chineselearning.index;
+
+import com.chineselearning.event.VocabularyChangedEvent;
+import com.chineselearning.repository.VocabularyRepository;
+import com.chineselearning.search.text.SearchTextNormalizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Owns the {@link VocabularySuggestTrie} behind vocabulary type-ahead
+ *
+ * - Full build on startup and on full-refresh events (new trie swapped in atomically)
+ * - Incremental upsert/remove for events that carry the changed ids (imports,
+ *   backfills); only the top-k lists on the changed key paths are recomputed
+ *
+ * Keys per entry: hanzi, tone-free pinyin, the folded meaning and each of its
+ * comma/semicolon separated senses, so "ni", "nihao", "xin chao" and "chao"
+ * all reach 你好.
+ *
+ * @author Senior Backend Architect
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VocabularySuggestTrieManager {
+
+    private static final int MAX_KEY_LENGTH = 50;
+    private static final int MAX_MEANING_KEYS = 6;
+
+    private final VocabularyRepository vocabularyRepository;
+
+    private final AtomicReference<VocabularySuggestTrie> current = new AtomicReference<>();
+    private volatile long lastBuildTimeMs;
+
+    @Value("${app.vocabulary.suggest-trie.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.vocabulary.suggest-trie.top-k:20}")
+    private int topK;
+
+    /**
+     * Current trie, or null while the first build is still running
+     */
+    public VocabularySuggestTrie current() {
+        return enabled ? current.get() : null;
+    }
+
+    /**
+     * Hanzi suggestions for prefix, or null if the trie is not available
+     */
+    public List<String> suggest(String prefix, int limit) {
+        VocabularySuggestTrie trie = current();
+        if (trie == null) {
+            return null;
+        }
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        // Folded for hanzi and meanings, compact for pinyin typed with spaces ("ni hao")
+        Set<String> prefixes = new LinkedHashSet<>();
+        prefixes.add(SearchTextNormalizer.foldVietnamese(prefix));
+        prefixes.add(SearchTextNormalizer.compact(prefix));
+        return trie.suggest(prefixes, limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Async
+    public void buildOnStartup() {
+        if (!enabled) {
+            log.info("Vocabulary suggest trie disabled");
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Error building vocabulary suggest trie", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Async
+    public void onVocabularyChanged(VocabularyChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (event.isFullRefresh() || current.get() == null) {
+                rebuild();
+            } else {
+                applyChanges(event.getIds());
+            }
+        } catch (Exception e) {
+            log.error("Error updating vocabulary suggest trie", e);
+        }
+    }
+
+    public synchronized void rebuild() {
+        long startTime = System.currentTimeMillis();
+
+        List<VocabularySuggestTrie.Item> items = new ArrayList<>();
+        for (VocabularyRepository.SuggestRow row : vocabularyRepository.findAllSuggestRows()) {
+            items.add(toItem(row));
+        }
+        VocabularySuggestTrie trie = new VocabularySuggestTrie(topK);
+        trie.update(items, List.of());
+        current.set(trie);
+
+        lastBuildTimeMs = System.currentTimeMillis() - startTime;
+        log.info("Vocabulary suggest trie built: {} entries in {} ms", trie.size(), lastBuildTimeMs);
+    }
+
+    private synchronized void applyChanges(Set<Long> ids) {
+        VocabularySuggestTrie trie = current.get();
+        List<VocabularySuggestTrie.Item> items = new ArrayList<>();
+        Set<Long> missing = new HashSet<>(ids);
+        for (VocabularyRepository.SuggestRow row : vocabularyRepository.findSuggestRowsByIdIn(ids)) {
+            items.add(toItem(row));
+            missing.remove(row.getId());
+        }
+        trie.update(items, missing);
+
+        log.debug("Vocabulary suggest trie updated: {} upserted, {} removed", items.size(), missing.size());
+    }
+
+    /**
+     * Rows not yet backfilled get the normalized forms computed here
+     */
+    private static VocabularySuggestTrie.Item toItem(VocabularyRepository.SuggestRow row) {
+        List<String> keys = new ArrayList<>();
+        addKey(keys, SearchTextNormalizer.foldVietnamese(row.getHanzi()));
+        addKey(keys, row.getPinyinPlain() != null
+                ? row.getPinyinPlain() : SearchTextNormalizer.pinyinPlain(row.getPinyin()));
+
+        String meaning = row.getMeaningFolded() != null
+                ? row.getMeaningFolded() : SearchTextNormalizer.foldVietnamese(row.getMeaning());
+        if (meaning != null) {
+            addKey(keys, meaning);
+            String[] senses = meaning.split("[,;/]");
+            for (int i = 0; i < senses.length && i < MAX_MEANING_KEYS; i++) {
+                addKey(keys, senses[i].trim());
+            }
+        }
+        return new VocabularySuggestTrie.Item(row.getId(), row.getHanzi(), row.getFrequencyRank(),
+                row.getHskLevel(), keys);
+    }
+
+    private static void addKey(List<String> keys, String key) {
+        if (key != null && !key.isBlank()) {
+            keys.add(key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key);
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        VocabularySuggestTrie trie = current();
+        stats.put("enabled", enabled);
+        stats.put("ready", trie != null);
+        stats.put("last_build_time_ms", lastBuildTimeMs);
+        if (trie != null) {
+            stats.putAll(trie.getStatistics());
+        }
+        return stats;
+    }
+}
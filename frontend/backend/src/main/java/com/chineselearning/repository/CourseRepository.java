@@ -2,9 +2,14 @@ package com.chineselearning.repository;
 
 import com.chineselearning.domain.Course;
 import com.chineselearning.domain.Course.Difficulty;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,5 +21,24 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     List<Course> findByDifficulty(Difficulty difficulty);
 
     Optional<Course> findByLevelAndTextbookId(String level, Long textbookId);
-}
 
+    /**
+     * Next chunk in id order with its textbook; keyset cursor for the Elasticsearch reindex
+     */
+    @Query("SELECT c FROM Course c LEFT JOIN FETCH c.textbook WHERE c.id > :afterId ORDER BY c.id")
+    List<Course> findChunkAfter(@Param("afterId") Long afterId, Pageable limit);
+
+    /**
+     * Next chunk of rows changed after (after, afterId) in (updated_at, id) order, with textbooks
+     *
+     * Stays JPQL for the fetch join, so no row-value comparison: updatedAt >= :after
+     * is the range start on idx_courses_updated_at_id, the OR only drops rows at
+     * exactly :after that were already read.
+     */
+    @Query("SELECT c FROM Course c LEFT JOIN FETCH c.textbook WHERE c.updatedAt >= :after " +
+            "AND (c.updatedAt > :after OR c.id > :afterId) ORDER BY c.updatedAt ASC, c.id ASC")
+    List<Course> findChangedAfter(@Param("after") LocalDateTime after, @Param("afterId") Long afterId, Pageable limit);
+
+    @Query("SELECT c FROM Course c LEFT JOIN FETCH c.textbook WHERE c.id IN :ids")
+    List<Course> findAllWithTextbookByIdIn(@Param("ids") Collection<Long> ids);
+}
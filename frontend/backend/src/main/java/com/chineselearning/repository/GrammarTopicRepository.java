@@ -2,9 +2,13 @@ package com.chineselearning.repository;
 
 import com.chineselearning.domain.GrammarTopic;
 import com.chineselearning.domain.GrammarTopic.Level;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -13,5 +17,30 @@ public interface GrammarTopicRepository extends JpaRepository<GrammarTopic, Long
     List<GrammarTopic> findByLevel(Level level);
 
     List<GrammarTopic> findByTitleContainingIgnoreCase(String title);
-}
 
+    /**
+     * Keyset pagination on (title, id); no COUNT query
+     */
+    @Query("SELECT g FROM GrammarTopic g ORDER BY g.title ASC, g.id ASC")
+    List<GrammarTopic> findFirstKeysetPage(Pageable limit);
+
+    /**
+     * Native row-value seek on idx_grammar_topics_title_id (V3), as findChangedAfter
+     */
+    @Query(value = "SELECT * FROM grammar_topics g WHERE (g.title, g.id) > (:title, :id) " +
+            "ORDER BY g.title, g.id", nativeQuery = true)
+    List<GrammarTopic> findKeysetPageAfter(@Param("title") String title, @Param("id") Long id, Pageable limit);
+
+    /**
+     * Next chunk in id order; keyset cursor for the Elasticsearch reindex
+     */
+    List<GrammarTopic> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable limit);
+
+    /**
+     * Next chunk of rows changed after (after, afterId) in (updated_at, id) order;
+     * row-value seek on idx_grammar_topics_updated_at_id
+     */
+    @Query(value = "SELECT * FROM grammar_topics g WHERE (g.updated_at, g.id) > (:after, :afterId) " +
+            "ORDER BY g.updated_at, g.id", nativeQuery = true)
+    List<GrammarTopic> findChangedAfter(@Param("after") LocalDateTime after, @Param("afterId") Long afterId, Pageable limit);
+}
@@ -1,7 +1,10 @@
 package com.chineselearning.repository;
 
 import com.chineselearning.domain.Radical;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -20,5 +23,19 @@ public interface RadicalRepository extends JpaRepository<Radical, Long> {
     List<Radical> findByStrokes(Integer strokes);
 
     Radical findTopByOrderByFrequencyRankAsc();
+
+    /**
+     * Keyset pagination on (strokes, id); no COUNT query
+     */
+    @Query("SELECT r FROM Radical r ORDER BY r.strokes ASC, r.id ASC")
+    List<Radical> findFirstKeysetPage(Pageable limit);
+
+    /**
+     * Native row-value seek: a single range condition on idx_radicals_strokes_id (V3),
+     * the equivalent OR form is an index scan with a filter over every earlier row
+     */
+    @Query(value = "SELECT * FROM radicals r WHERE (r.strokes, r.id) > (:strokes, :id) " +
+            "ORDER BY r.strokes, r.id", nativeQuery = true)
+    List<Radical> findKeysetPageAfter(@Param("strokes") Integer strokes, @Param("id") Long id, Pageable limit);
 }
 
@@ -0,0 +1,30 @@
+package com.chineselearning.repository;
+
+import com.chineselearning.domain.SearchOutboxEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SearchOutboxRepository extends JpaRepository<SearchOutboxEntry, Long> {
+
+    /**
+     * Oldest pending entries, row-locked for the calling transaction; entries
+     * locked by another instance are skipped instead of waited for
+     */
+    @Query(value = "SELECT * FROM search_outbox ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<SearchOutboxEntry> lockNextBatch(@Param("limit") int limit);
+
+    @Query("SELECT COUNT(e) AS pending, MIN(e.createdAt) AS oldest FROM SearchOutboxEntry e")
+    Backlog fetchBacklog();
+
+    interface Backlog {
+        long getPending();
+
+        LocalDateTime getOldest();
+    }
+}
@@ -0,0 +1,9 @@
+package com.chineselearning.repository;
+
+import com.chineselearning.domain.SearchSyncWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SearchSyncWatermarkRepository extends JpaRepository<SearchSyncWatermark, String> {
+}
@@ -2,7 +2,10 @@ package com.chineselearning.repository;
 
 import com.chineselearning.domain.Textbook;
 import com.chineselearning.domain.Textbook.VersionType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -18,5 +21,20 @@ public interface TextbookRepository extends JpaRepository<Textbook, Long> {
     List<Textbook> findByVersion(VersionType version);
 
     List<Textbook> findByPublicationYear(Integer publicationYear);
+
+    /**
+     * Keyset pagination on (publication_year DESC, id ASC); no COUNT query
+     */
+    @Query("SELECT t FROM Textbook t ORDER BY t.publicationYear DESC, t.id ASC")
+    List<Textbook> findFirstKeysetPage(Pageable limit);
+
+    /**
+     * Mixed DESC/ASC order has no row-value form: publicationYear <= :year is the range
+     * start on idx_textbooks_year_id (V3), the OR only drops rows of :year already read
+     */
+    @Query("SELECT t FROM Textbook t WHERE t.publicationYear <= :year " +
+            "AND (t.publicationYear < :year OR t.id > :id) " +
+            "ORDER BY t.publicationYear DESC, t.id ASC")
+    List<Textbook> findKeysetPageAfter(@Param("year") Integer year, @Param("id") Long id, Pageable limit);
 }
 
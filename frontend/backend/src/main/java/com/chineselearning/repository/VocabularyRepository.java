@@ -2,15 +2,22 @@ package com.chineselearning.repository;
 
 import com.chineselearning.domain.Vocabulary;
 import com.chineselearning.domain.Vocabulary.VariantType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for Vocabulary entity
@@ -30,17 +37,186 @@ public interface VocabularyRepository extends JpaRepository<Vocabulary, Long>, J
             VariantType variant, String search, Pageable pageable
     );
 
-    @Query("SELECT v FROM Vocabulary v WHERE " +
-            "v.variant = :variant AND " +
-            "(v.hanzi LIKE %:search% OR v.pinyin LIKE %:search% OR v.meaning LIKE %:search%)")
-    Page<Vocabulary> findByVariantAndSearch(
-            @Param("variant") VariantType variant,
-            @Param("search") String search,
-            Pageable pageable
-    );
-
     Page<Vocabulary> findByHskLevel(Integer hskLevel, Pageable pageable);
 
     Optional<Vocabulary> findByHanzi(String hanzi);
+
+    /**
+     * Next chunk, in id order after afterId, of rows written before the normalized search columns existed
+     */
+    @Query("SELECT v.id AS id, v.hanzi AS hanzi, v.pinyin AS pinyin, v.meaning AS meaning, " +
+            "v.pinyinPlain AS pinyinPlain, v.pinyinNumeric AS pinyinNumeric, v.meaningFolded AS meaningFolded " +
+            "FROM Vocabulary v WHERE v.pinyinPlain IS NULL AND v.id > :afterId ORDER BY v.id")
+    List<SearchRow> findUnnormalizedAfter(@Param("afterId") Long afterId, Pageable limit);
+
+    /**
+     * Whether the pg_trgm extension (V4 migration) is installed, i.e. similarity() exists
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')", nativeQuery = true)
+    boolean isTrigramExtensionInstalled();
+
+    /**
+     * Cheap change detector for in-memory copies of the table
+     */
+    @Query("SELECT COUNT(v) AS total, MAX(v.id) AS maxId, MAX(v.updatedAt) AS lastUpdated FROM Vocabulary v")
+    Fingerprint fetchFingerprint();
+
+    /**
+     * All (vocab_id, tag) pairs in one query, instead of one lazy load per entity
+     */
+    @Query("SELECT v.id AS vocabId, t AS tag FROM Vocabulary v JOIN v.tags t")
+    List<TagRow> findAllTagRows();
+
+    /**
+     * Tags of one chunk of vocabulary ids
+     */
+    @Query("SELECT v.id AS vocabId, t AS tag FROM Vocabulary v JOIN v.tags t WHERE v.id IN :ids")
+    List<TagRow> findTagRowsByVocabIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Next chunk in id order; keyset cursor for the Elasticsearch reindex
+     */
+    List<Vocabulary> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable limit);
+
+    /**
+     * Next chunk of rows changed after (after, afterId) in (updated_at, id) order;
+     * change feed for the incremental Elasticsearch sync. Native because HQL cannot
+     * compare row values: the row comparison is a single range condition on
+     * idx_vocabulary_updated_at_id (V7), the equivalent OR form is not.
+     */
+    @Query(value = "SELECT * FROM vocabulary v WHERE (v.updated_at, v.id) > (:after, :afterId) " +
+            "ORDER BY v.updated_at, v.id", nativeQuery = true)
+    List<Vocabulary> findChangedAfter(@Param("after") LocalDateTime after, @Param("afterId") Long afterId, Pageable limit);
+
+    /**
+     * Only the columns the in-memory search index needs
+     */
+    @Query("SELECT v.id AS id, v.hanzi AS hanzi, v.pinyin AS pinyin, v.meaning AS meaning, " +
+            "v.pinyinPlain AS pinyinPlain, v.pinyinNumeric AS pinyinNumeric, v.meaningFolded AS meaningFolded FROM Vocabulary v")
+    List<SearchRow> findAllSearchRows();
+
+    @Query("SELECT v.id AS id, v.hanzi AS hanzi, v.pinyin AS pinyin, v.meaning AS meaning, " +
+            "v.pinyinPlain AS pinyinPlain, v.pinyinNumeric AS pinyinNumeric, v.meaningFolded AS meaningFolded FROM Vocabulary v WHERE v.id IN :ids")
+    List<SearchRow> findSearchRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Columns the segmenter dictionary needs
+     */
+    @Query("SELECT v.id AS id, v.hanzi AS hanzi, v.pinyin AS pinyin, v.meaning AS meaning, " +
+            "v.frequencyRank AS frequencyRank FROM Vocabulary v")
+    List<DictionaryRow> findAllDictionaryRows();
+
+    /**
+     * Columns the type-ahead trie needs
+     */
+    @Query("SELECT v.id AS id, v.hanzi AS hanzi, v.pinyin AS pinyin, v.pinyinPlain AS pinyinPlain, v.meaning AS meaning, " +
+            "v.meaningFolded AS meaningFolded, v.hskLevel AS hskLevel, v.frequencyRank AS frequencyRank FROM Vocabulary v")
+    List<SuggestRow> findAllSuggestRows();
+
+    @Query("SELECT v.id AS id, v.hanzi AS hanzi, v.pinyin AS pinyin, v.pinyinPlain AS pinyinPlain, v.meaning AS meaning, " +
+            "v.meaningFolded AS meaningFolded, v.hskLevel AS hskLevel, v.frequencyRank AS frequencyRank FROM Vocabulary v WHERE v.id IN :ids")
+    List<SuggestRow> findSuggestRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Whole table as a forward-only server-side cursor, for the NDJSON export.
+     * Scalar projection, so rows are never attached to the persistence context.
+     * Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT v.id AS id, v.hanzi AS hanzi, v.pinyin AS pinyin, v.meaning AS meaning, v.example AS example, " +
+            "v.variant AS variant, v.hskLevel AS hskLevel, v.frequencyRank AS frequencyRank " +
+            "FROM Vocabulary v ORDER BY v.id")
+    Stream<ExportRow> streamAllExportRows();
+
+    /**
+     * Tags in vocab id order, merged with {@link #streamAllExportRows()} row by row
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT v.id AS vocabId, t AS tag FROM Vocabulary v JOIN v.tags t ORDER BY v.id")
+    Stream<TagRow> streamAllTagRows();
+
+    interface Fingerprint {
+        long getTotal();
+
+        Long getMaxId();
+
+        LocalDateTime getLastUpdated();
+    }
+
+    interface SearchRow {
+        Long getId();
+
+        String getHanzi();
+
+        String getPinyin();
+
+        String getMeaning();
+
+        String getPinyinPlain();
+
+        String getPinyinNumeric();
+
+        String getMeaningFolded();
+    }
+
+    interface DictionaryRow {
+        Long getId();
+
+        String getHanzi();
+
+        String getPinyin();
+
+        String getMeaning();
+
+        Integer getFrequencyRank();
+    }
+
+    interface SuggestRow {
+        Long getId();
+
+        String getHanzi();
+
+        String getPinyin();
+
+        String getPinyinPlain();
+
+        String getMeaning();
+
+        String getMeaningFolded();
+
+        Integer getHskLevel();
+
+        Integer getFrequencyRank();
+    }
+
+    interface ExportRow {
+        Long getId();
+
+        String getHanzi();
+
+        String getPinyin();
+
+        String getMeaning();
+
+        String getExample();
+
+        VariantType getVariant();
+
+        Integer getHskLevel();
+
+        Integer getFrequencyRank();
+    }
+
+    interface TagRow {
+        Long getVocabId();
+
+        String getTag();
+    }
 }
 
@@ -1,20 +1,24 @@
 package com.chineselearning.search.document;
 
 import com.chineselearning.domain.Course.Difficulty;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.CompletionField;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.core.suggest.Completion;
 
 import java.time.LocalDateTime;
 
 /**
  * Elasticsearch Document for Courses
  * Optimized for course discovery
+ * indexName is an alias; the index behind it is built from elasticsearch/course-settings.json
  * 
  * @author Senior Backend Architect
  */
@@ -22,7 +26,7 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Document(indexName = "courses")
+@Document(indexName = "courses", createIndex = false)
 public class CourseDocument {
 
     @Id
@@ -34,6 +38,10 @@ public class CourseDocument {
     @Field(type = FieldType.Text, analyzer = "standard")
     private String title;
 
+    @JsonIgnore
+    @CompletionField(analyzer = "suggest_analyzer", maxInputLength = 100)
+    private Completion titleSuggest;
+
     @Field(type = FieldType.Text, analyzer = "standard")
     private String description;
 
@@ -1,13 +1,16 @@
 package com.chineselearning.search.document;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.CompletionField;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.core.suggest.Completion;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -15,6 +18,7 @@ import java.util.List;
 /**
  * Elasticsearch Document for Grammar Topics
  * Optimized for grammar pattern search
+ * indexName is an alias; the index behind it is built from elasticsearch/grammar-topic-settings.json
  * 
  * @author Senior Backend Architect
  */
@@ -22,19 +26,23 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Document(indexName = "grammar_topics")
+@Document(indexName = "grammar_topics", createIndex = false)
 public class GrammarTopicDocument {
 
     @Id
     private Long id;
 
-    @Field(type = FieldType.Text, analyzer = "standard")
+    @Field(type = FieldType.Text, analyzer = "cjk_index_analyzer", searchAnalyzer = "cjk_search_analyzer")
     private String title;
 
-    @Field(type = FieldType.Text, analyzer = "standard")
+    @JsonIgnore
+    @CompletionField(analyzer = "suggest_analyzer", maxInputLength = 100)
+    private Completion titleSuggest;
+
+    @Field(type = FieldType.Text, analyzer = "cjk_index_analyzer", searchAnalyzer = "cjk_search_analyzer")
     private String description;
 
-    @Field(type = FieldType.Text, analyzer = "standard")
+    @Field(type = FieldType.Text, analyzer = "cjk_index_analyzer", searchAnalyzer = "cjk_search_analyzer")
     private String content;
 
     @Field(type = FieldType.Keyword)
@@ -46,7 +54,7 @@ public class GrammarTopicDocument {
     @Field(type = FieldType.Date)
     private LocalDateTime updatedAt;
 
-    @Field(type = FieldType.Text, analyzer = "standard")
+    @Field(type = FieldType.Text, analyzer = "cjk_index_analyzer", searchAnalyzer = "cjk_search_analyzer")
     private String searchText;
 
     public void buildSearchText() {
@@ -1,13 +1,16 @@
 package com.chineselearning.search.document;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.CompletionField;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.core.suggest.Completion;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -15,6 +18,7 @@ import java.util.List;
 /**
  * Elasticsearch Document for Vocabulary
  * Optimized for full-text search and fuzzy matching
+ * indexName is an alias; the index behind it is built from elasticsearch/vocabulary-settings.json
  * 
  * @author Senior Backend Architect
  */
@@ -22,24 +26,42 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Document(indexName = "vocabularies")
+@Document(indexName = "vocabularies", createIndex = false)
 public class VocabularyDocument {
 
     @Id
     private Long id;
 
-    @Field(type = FieldType.Text, analyzer = "standard")
+    @Field(type = FieldType.Text, analyzer = "cjk_index_analyzer", searchAnalyzer = "cjk_search_analyzer")
     private String hanzi;
 
-    @Field(type = FieldType.Text, analyzer = "standard")
+    @Field(type = FieldType.Text, analyzer = "pinyin_analyzer")
     private String pinyin;
 
-    @Field(type = FieldType.Text, analyzer = "standard")
+    @Field(type = FieldType.Text, analyzer = "vietnamese_analyzer")
     private String meaning;  // Vietnamese: nghia
 
-    @Field(type = FieldType.Text, analyzer = "standard")
+    @Field(type = FieldType.Text, analyzer = "cjk_index_analyzer", searchAnalyzer = "cjk_search_analyzer")
     private String example;  // Vietnamese: viDu
 
+    // Normalized forms, computed at write time (see SearchTextNormalizer)
+    @Field(type = FieldType.Keyword)
+    private String pinyinPlain;     // nihao
+
+    @Field(type = FieldType.Keyword)
+    private String pinyinNumeric;   // ni3hao3
+
+    @Field(type = FieldType.Keyword)
+    private String pinyinInitials;  // nh
+
+    @Field(type = FieldType.Text, analyzer = "vietnamese_analyzer")
+    private String meaningFolded;   // xin chao
+
+    // Type-ahead on hanzi and tone-free pinyin, weighted by frequency; index-time only, not in responses
+    @JsonIgnore
+    @CompletionField(analyzer = "suggest_analyzer", maxInputLength = 50)
+    private Completion suggest;
+
     @Field(type = FieldType.Keyword)
     private String variant;
 
@@ -59,7 +81,7 @@ public class VocabularyDocument {
     private LocalDateTime updatedAt;
 
     // Composite field for multi-field search
-    @Field(type = FieldType.Text, analyzer = "standard")
+    @Field(type = FieldType.Text, analyzer = "cjk_index_analyzer", searchAnalyzer = "cjk_search_analyzer")
     private String searchText;
 
     /**
@@ -0,0 +1,39 @@
+package com.chineselearning.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merged result of one query over vocabulary, grammar topics and courses
+ *
+ * @author Senior Backend Architect
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FederatedSearchResponse {
+
+    private List<Hit> results;
+    private Map<String, Long> totalHits;   // per type, only for types that answered
+    private List<String> timedOut;
+    private List<String> failed;
+    private boolean partial;
+    private Long searchTimeMs;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Hit {
+        private String type;     // vocabulary, grammar, course
+        private int rank;        // position in its own result list, from 1
+        private double score;    // fused rank score, comparable across types
+        private Object document;
+    }
+}
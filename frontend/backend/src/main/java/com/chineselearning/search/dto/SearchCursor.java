@@ -0,0 +1,103 @@
+package com.chineselearning.search.dto;
+
+import com.chineselearning.exception.custom.InvalidRequestException;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque continuation token for search_after pagination
+ *
+ * Carries the point-in-time id, the sort values of the last hit, the page
+ * number and the total counted on the first page, plus a hash of the query so
+ * a token cannot be replayed against a different search. Clients must treat
+ * the value as opaque.
+ *
+ * @author Senior Backend Architect
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SearchCursor {
+
+    private static final String SEPARATOR = "\u001f";
+
+    private final String pointInTimeId;
+    private final int page;
+    private final long totalHits;
+    private final String queryHash;
+    private final List<Object> searchAfter;
+
+    public static String encode(String pointInTimeId, int page, long totalHits, String queryHash,
+                                List<Object> searchAfter) {
+        StringBuilder payload = new StringBuilder()
+                .append(pointInTimeId).append(SEPARATOR)
+                .append(page).append(SEPARATOR)
+                .append(totalHits).append(SEPARATOR)
+                .append(queryHash);
+        for (Object value : searchAfter) {
+            payload.append(SEPARATOR).append(encodeValue(value));
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return decoded cursor, or null for an empty cursor (first page)
+     */
+    public static SearchCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String payload = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = payload.split(SEPARATOR, -1);
+            List<Object> searchAfter = new ArrayList<>(parts.length - 4);
+            for (int i = 4; i < parts.length; i++) {
+                searchAfter.add(decodeValue(parts[i]));
+            }
+            return new SearchCursor(parts[0], Integer.parseInt(parts[1]), Long.parseLong(parts[2]), parts[3],
+                    searchAfter);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidRequestException("Invalid cursor", "cursor", cursor);
+        }
+    }
+
+    /**
+     * Sort values keep their JSON type: search_after compares a long id with a long
+     */
+    private static String encodeValue(Object value) {
+        if (value == null) {
+            return "n:";
+        } else if (value instanceof Long || value instanceof Integer) {
+            return "l:" + value;
+        } else if (value instanceof Number) {
+            return "d:" + ((Number) value).doubleValue();
+        } else if (value instanceof Boolean) {
+            return "b:" + value;
+        }
+        return "s:" + value;
+    }
+
+    private static Object decodeValue(String encoded) {
+        String value = encoded.substring(2);
+        switch (encoded.charAt(0)) {
+            case 'n':
+                return null;
+            case 'l':
+                return Long.parseLong(value);
+            case 'd':
+                return Double.parseDouble(value);
+            case 'b':
+                return Boolean.parseBoolean(value);
+            case 's':
+                return value;
+            default:
+                throw new IllegalArgumentException("Unknown sort value type");
+        }
+    }
+}
@@ -6,6 +6,12 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
 /**
  * Universal Search Request DTO
  * Supports advanced search with multiple filters
@@ -41,5 +47,78 @@ public class SearchRequest {
     // Search options
     private Boolean fuzzySearch = true;
     private Float minScore;
-}
+    private Boolean facets;  // also return hit counts per facet value (see SearchResponse.facets)
+
+    // Cursor mode: "" for the first page, then the previous response's nextCursor.
+    // Pages follow search_after on a point-in-time, so page is ignored.
+    private String cursor;
+
+    /**
+     * Copy with defaults filled in, text trimmed and the query lower-cased the way
+     * the standard analyzer does it, so requests that must return the same page
+     * (scores included) are equal. Keyword values (variant, levels) keep their case.
+     */
+    public SearchRequest canonical() {
+        String[] sortedTags = null;
+        if (tags != null && tags.length > 0) {
+            sortedTags = Arrays.stream(tags).map(SearchRequest::trim).sorted().toArray(String[]::new);
+        }
+        String sort = trim(sortBy);
+        return SearchRequest.builder()
+                .query(query != null ? lowerCase(query.trim()) : null)
+                .page(page != null ? page : 0)
+                .size(size != null ? size : 20)
+                .sortBy(sort)
+                .sortDirection(sort != null && "DESC".equalsIgnoreCase(trim(sortDirection)) ? "DESC" : "ASC")
+                .variant(trim(variant))
+                .tags(sortedTags)
+                .hskLevel(hskLevel)
+                .grammarLevel(trim(grammarLevel))
+                .difficulty(difficulty)
+                .courseLevel(trim(courseLevel))
+                .textbookId(textbookId)
+                .fuzzySearch(fuzzySearch == null || fuzzySearch)
+                .minScore(minScore)
+                .facets(Boolean.TRUE.equals(facets))
+                .cursor(cursor != null ? cursor.trim() : null)
+                .build();
+    }
 
+    /**
+     * SHA-256 of the canonical form, the search result cache key; cursor-mode
+     * requests are never cached, so the cursor is not part of it
+     */
+    public String canonicalHash() {
+        SearchRequest c = canonical();
+        String form = String.join("\u001f",
+                String.valueOf(c.query), String.valueOf(c.page), String.valueOf(c.size),
+                String.valueOf(c.sortBy), c.sortDirection, String.valueOf(c.variant),
+                c.tags != null ? String.join("\u001e", c.tags) : "null", String.valueOf(c.hskLevel),
+                String.valueOf(c.grammarLevel), String.valueOf(c.difficulty), String.valueOf(c.courseLevel),
+                String.valueOf(c.textbookId), String.valueOf(c.fuzzySearch), String.valueOf(c.minScore),
+                String.valueOf(c.facets));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(form.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String trim(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * Per code point, like Lucene's LowerCaseFilter (no locale rules)
+     */
+    private static String lowerCase(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        text.codePoints().map(Character::toLowerCase).forEach(sb::appendCodePoint);
+        return sb.toString();
+    }
+}
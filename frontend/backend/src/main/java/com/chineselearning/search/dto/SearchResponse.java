@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Universal Search Response DTO
@@ -27,6 +28,17 @@ public class SearchResponse<T> {
     private Long searchTimeMs;
     private Float maxScore;
 
+    /**
+     * Facet field -> value -> hit count, only when the request asked for facets.
+     * Each facet is counted under every filter except its own.
+     */
+    private Map<String, Map<String, Long>> facets;
+
+    /**
+     * Cursor mode only: token for the next page, null on the last page
+     */
+    private String nextCursor;
+
     public static <T> SearchResponse<T> of(
             List<T> results,
             Long totalHits,
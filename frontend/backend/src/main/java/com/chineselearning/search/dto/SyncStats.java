@@ -0,0 +1,30 @@
+package com.chineselearning.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Totals of one PostgreSQL -> Elasticsearch reindex run
+ *
+ * @author Senior Backend Architect
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncStats {
+
+    private String entity;
+    private String index;
+    private long indexed;
+    private long failed;
+    private long retries;
+    private int bulkRequests;
+    private long durationMs;
+    private long docsPerSecond;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,157 @@
+package com.chineselearning.search.lucene;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.custom.CustomAnalyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.util.ClasspathResourceLoader;
+import org.apache.lucene.util.ResourceLoader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Lucene analyzers built from the "analysis" section of an index settings file
+ *
+ * The same elasticsearch/*-settings.json that defines the Elasticsearch index
+ * defines the embedded one, so both engines tokenize identically. Only the
+ * components those files use are translated: standard, keyword and pattern
+ * tokenizers; lowercase, asciifolding, cjk_width and cjk_bigram filters; and
+ * mapping char filters.
+ *
+ * @author Senior Backend Architect
+ */
+final class LuceneAnalyzers {
+
+    static final String STANDARD = "standard";
+
+    // Elasticsearch component type -> Lucene SPI name
+    private static final Map<String, String> COMPONENTS = Map.of(
+            "standard", "standard",
+            "keyword", "keyword",
+            "pattern", "pattern",
+            "lowercase", "lowercase",
+            "asciifolding", "asciiFolding",
+            "cjk_width", "cjkWidth",
+            "cjk_bigram", "cjkBigram",
+            "mapping", "mapping"
+    );
+
+    private LuceneAnalyzers() {
+    }
+
+    /**
+     * Analyzer name -> analyzer, including the built-in "standard"
+     */
+    static Map<String, Analyzer> fromSettings(JsonNode analysis) {
+        Map<String, String> mappingFiles = new HashMap<>();
+        ResourceLoader loader = new MappingResourceLoader(mappingFiles);
+
+        Map<String, Analyzer> analyzers = new HashMap<>();
+        // Elasticsearch's standard analyzer has no stop words, neither has Lucene's by default
+        analyzers.put(STANDARD, new StandardAnalyzer());
+
+        Iterator<Map.Entry<String, JsonNode>> definitions = analysis.path("analyzer").fields();
+        while (definitions.hasNext()) {
+            Map.Entry<String, JsonNode> definition = definitions.next();
+            JsonNode spec = definition.getValue();
+            try {
+                CustomAnalyzer.Builder builder = CustomAnalyzer.builder(loader);
+                for (JsonNode charFilter : spec.path("char_filter")) {
+                    String name = charFilter.asText();
+                    Map<String, String> params = params(analysis.path("char_filter").path(name));
+                    mappingFiles.put(name, mappingFile(analysis.path("char_filter").path(name)));
+                    params.put("mapping", name);
+                    builder.addCharFilter(component(analysis.path("char_filter"), name), params);
+                }
+                String tokenizer = spec.path("tokenizer").asText();
+                builder.withTokenizer(component(analysis.path("tokenizer"), tokenizer),
+                        params(analysis.path("tokenizer").path(tokenizer)));
+                for (JsonNode filter : spec.path("filter")) {
+                    String name = filter.asText();
+                    builder.addTokenFilter(component(analysis.path("filter"), name),
+                            params(analysis.path("filter").path(name)));
+                }
+                analyzers.put(definition.getKey(), builder.build());
+            } catch (IOException | IllegalArgumentException e) {
+                throw new IllegalStateException("Cannot build analyzer " + definition.getKey(), e);
+            }
+        }
+        return analyzers;
+    }
+
+    /**
+     * Lucene name of a component, by its custom definition's type or as a built-in
+     */
+    private static String component(JsonNode definitions, String name) {
+        JsonNode definition = definitions.path(name);
+        String type = definition.isMissingNode() ? name : definition.path("type").asText();
+        String component = COMPONENTS.get(type);
+        if (component == null) {
+            throw new IllegalArgumentException("Unsupported analysis component " + type);
+        }
+        return component;
+    }
+
+    /**
+     * Factory parameters of a custom component definition
+     */
+    private static Map<String, String> params(JsonNode definition) {
+        Map<String, String> params = new HashMap<>();
+        if (definition.has("pattern")) {
+            String flags = definition.path("flags").asText("");
+            params.put("pattern", (flags.contains("CASE_INSENSITIVE") ? "(?i)" : "") + definition.get("pattern").asText());
+        }
+        if (definition.has("group")) {
+            params.put("group", definition.get("group").asText());
+        }
+        if (definition.has("output_unigrams")) {
+            params.put("outputUnigrams", definition.get("output_unigrams").asText());
+        }
+        return params;
+    }
+
+    /**
+     * Elasticsearch "a => b" mappings in the quoted form MappingCharFilterFactory reads
+     */
+    private static String mappingFile(JsonNode definition) {
+        StringBuilder file = new StringBuilder();
+        for (JsonNode mapping : definition.path("mappings")) {
+            String[] sides = mapping.asText().split("=>", 2);
+            file.append('"').append(sides[0].trim()).append("\" => \"").append(sides[1].trim()).append("\"\n");
+        }
+        return file.toString();
+    }
+
+    /**
+     * Serves the generated mapping files; classes come from the classpath as usual
+     */
+    private static final class MappingResourceLoader implements ResourceLoader {
+
+        private final Map<String, String> files;
+        private final ResourceLoader classpath = new ClasspathResourceLoader(LuceneAnalyzers.class);
+
+        private MappingResourceLoader(Map<String, String> files) {
+            this.files = files;
+        }
+
+        @Override
+        public InputStream openResource(String resource) throws IOException {
+            String file = files.get(resource);
+            if (file == null) {
+                throw new IOException("No mapping " + resource);
+            }
+            return new ByteArrayInputStream(file.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public <T> Class<? extends T> findClass(String cname, Class<T> expectedType) {
+            return classpath.findClass(cname, expectedType);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.chineselearning.search.lucene;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One embedded index: an MMapDirectory on local disk, its single writer and
+ * a near-real-time SearcherManager over that writer
+ *
+ * Writes become searchable on refresh() (the reopen is incremental, only new
+ * segments are loaded) and durable on commit().
+ *
+ * The index is reference counted: it starts with one reference, held by
+ * whoever opened it, and its files are removed when the last one is released.
+ * A replaced version therefore stays readable for searches that still use it.
+ *
+ * @author Senior Backend Architect
+ */
+final class LuceneIndex implements Closeable {
+
+    private final String name;
+    private final Path path;
+    private final LuceneSchema schema;
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final AtomicInteger refs = new AtomicInteger(1);
+
+    private LuceneIndex(String name, Path path, LuceneSchema schema, Directory directory, IndexWriter writer,
+                        SearcherManager searcherManager) {
+        this.name = name;
+        this.path = path;
+        this.schema = schema;
+        this.directory = directory;
+        this.writer = writer;
+        this.searcherManager = searcherManager;
+    }
+
+    /**
+     * Open the index at path; create discards whatever is there. A created index has
+     * no commit until commit(), so an interrupted load is never mistaken for a complete one.
+     */
+    static LuceneIndex open(String name, Path path, LuceneSchema schema, boolean create) throws IOException {
+        Directory directory = new MMapDirectory(path);
+        IndexWriterConfig config = new IndexWriterConfig(schema.indexAnalyzer())
+                .setOpenMode(create ? IndexWriterConfig.OpenMode.CREATE : IndexWriterConfig.OpenMode.APPEND);
+        IndexWriter writer = new IndexWriter(directory, config);
+        return new LuceneIndex(name, path, schema, directory, writer, new SearcherManager(writer, null));
+    }
+
+    String name() {
+        return name;
+    }
+
+    LuceneSchema schema() {
+        return schema;
+    }
+
+    void update(String id, Document document) throws IOException {
+        writer.updateDocument(new Term(LuceneSchema.ID, id), document);
+    }
+
+    void delete(String id) throws IOException {
+        writer.deleteDocuments(new Term(LuceneSchema.ID, id));
+    }
+
+    void commit() throws IOException {
+        writer.commit();
+    }
+
+    void refresh() throws IOException {
+        searcherManager.maybeRefreshBlocking();
+    }
+
+    /**
+     * Merge down to one segment, as the Elasticsearch rebuild does after a bulk load
+     */
+    void forceMerge() throws IOException {
+        writer.forceMerge(1);
+    }
+
+    IndexSearcher acquire() throws IOException {
+        return searcherManager.acquire();
+    }
+
+    void release(IndexSearcher searcher) throws IOException {
+        searcherManager.release(searcher);
+    }
+
+    /**
+     * Take a reference; false once the last reference was released and the index dropped
+     */
+    boolean tryIncRef() {
+        int count;
+        do {
+            count = refs.get();
+            if (count <= 0) {
+                return false;
+            }
+        } while (!refs.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    /**
+     * Release a reference; releasing the last one drops the index
+     */
+    void decRef() throws IOException {
+        if (refs.decrementAndGet() == 0) {
+            drop();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            searcherManager.close();
+            writer.close();
+        } finally {
+            directory.close();
+        }
+    }
+
+    /**
+     * Close and remove the index files
+     */
+    void drop() throws IOException {
+        try {
+            writer.rollback();
+            searcherManager.close();
+        } finally {
+            directory.close();
+            FileSystemUtils.deleteRecursively(path);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.chineselearning.search.lucene;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.MultiMatchQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.DisjunctionMaxQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.WildcardQuery;
+import org.apache.lucene.util.BytesRef;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Elasticsearch query DSL -> Lucene query, for the embedded engine
+ *
+ * Covers what SearchQueryBuilder and the field searches produce: bool,
+ * multi_match (best_fields), match, term, terms, prefix, wildcard and
+ * match_all. Text is analyzed with each field's search analyzer; fuzziness
+ * follows Elasticsearch (AUTO: 0 edits up to 2 chars, 1 up to 5, else 2,
+ * 50 expansions, transpositions on).
+ *
+ * @author Senior Backend Architect
+ */
+final class LuceneQueries {
+
+    private static final int MAX_EXPANSIONS = 50;
+
+    private LuceneQueries() {
+    }
+
+    static Query translate(co.elastic.clients.elasticsearch._types.query_dsl.Query query, LuceneSchema schema) {
+        if (query == null || query.isMatchAll()) {
+            return new MatchAllDocsQuery();
+        } else if (query.isBool()) {
+            return bool(query.bool(), schema);
+        } else if (query.isMultiMatch()) {
+            return multiMatch(query.multiMatch(), schema);
+        } else if (query.isMatch()) {
+            return match(schema, query.match().field(), text(query.match().query()),
+                    query.match().operator(), query.match().fuzziness(), 1.0f);
+        } else if (query.isTerm()) {
+            return exact(schema, query.term().field(), text(query.term().value()));
+        } else if (query.isTerms()) {
+            List<String> values = new ArrayList<>();
+            for (FieldValue value : query.terms().terms().value()) {
+                values.add(text(value));
+            }
+            return exact(schema, query.terms().field(), values);
+        } else if (query.isPrefix()) {
+            return new PrefixQuery(new Term(query.prefix().field(), query.prefix().value()));
+        } else if (query.isWildcard()) {
+            String pattern = query.wildcard().value() != null ? query.wildcard().value() : query.wildcard().wildcard();
+            return new WildcardQuery(new Term(query.wildcard().field(), pattern));
+        }
+        throw new IllegalArgumentException("Query type not supported by the embedded engine: " + query._kind());
+    }
+
+    private static Query bool(BoolQuery bool, LuceneSchema schema) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for (co.elastic.clients.elasticsearch._types.query_dsl.Query clause : bool.must()) {
+            builder.add(translate(clause, schema), BooleanClause.Occur.MUST);
+        }
+        for (co.elastic.clients.elasticsearch._types.query_dsl.Query clause : bool.should()) {
+            builder.add(translate(clause, schema), BooleanClause.Occur.SHOULD);
+        }
+        for (co.elastic.clients.elasticsearch._types.query_dsl.Query clause : bool.filter()) {
+            builder.add(translate(clause, schema), BooleanClause.Occur.FILTER);
+        }
+        for (co.elastic.clients.elasticsearch._types.query_dsl.Query clause : bool.mustNot()) {
+            builder.add(translate(clause, schema), BooleanClause.Occur.MUST_NOT);
+        }
+        if (bool.must().isEmpty() && bool.should().isEmpty() && bool.filter().isEmpty()) {
+            // Only must_not: everything else matches, as in Elasticsearch
+            builder.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+        }
+        if (bool.minimumShouldMatch() != null) {
+            builder.setMinimumNumberShouldMatch(Integer.parseInt(bool.minimumShouldMatch()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * best_fields: the best matching field scores the document ("title^3" boosts title)
+     */
+    private static Query multiMatch(MultiMatchQuery multiMatch, LuceneSchema schema) {
+        List<Query> perField = new ArrayList<>();
+        for (String field : multiMatch.fields()) {
+            int caret = field.indexOf('^');
+            String name = caret < 0 ? field : field.substring(0, caret);
+            float boost = caret < 0 ? 1.0f : Float.parseFloat(field.substring(caret + 1));
+            perField.add(match(schema, name, multiMatch.query(), multiMatch.operator(), multiMatch.fuzziness(), boost));
+        }
+        float tieBreaker = multiMatch.tieBreaker() != null ? multiMatch.tieBreaker().floatValue() : 0.0f;
+        return new DisjunctionMaxQuery(perField, tieBreaker);
+    }
+
+    private static Query match(LuceneSchema schema, String field, String text, Operator operator,
+                               String fuzziness, float boost) {
+        LuceneSchema.FieldSpec spec = schema.field(field);
+        if (spec == null) {
+            return new MatchNoDocsQuery("no field " + field);
+        }
+        if (spec.type != LuceneSchema.Type.TEXT) {
+            return boost(exact(schema, field, text), boost);
+        }
+        List<String> terms = LuceneSchema.analyze(spec.searchAnalyzer, field, text);
+        if (terms.isEmpty()) {
+            return new MatchNoDocsQuery("no terms");
+        }
+        BooleanClause.Occur occur = operator == Operator.And ? BooleanClause.Occur.MUST : BooleanClause.Occur.SHOULD;
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for (String term : terms) {
+            int edits = edits(fuzziness, term);
+            Query termQuery = edits > 0
+                    ? new FuzzyQuery(new Term(field, term), edits, 0, MAX_EXPANSIONS, true)
+                    : new TermQuery(new Term(field, term));
+            builder.add(termQuery, occur);
+        }
+        Query query = terms.size() == 1 ? builder.build().clauses().get(0).getQuery() : builder.build();
+        return boost(query, boost);
+    }
+
+    private static Query exact(LuceneSchema schema, String field, String value) {
+        return exact(schema, field, List.of(value));
+    }
+
+    /**
+     * Matches any of values exactly: long points for numbers and dates, terms otherwise
+     */
+    private static Query exact(LuceneSchema schema, String field, List<String> values) {
+        LuceneSchema.FieldSpec spec = schema.field(field);
+        if (spec != null && (spec.type == LuceneSchema.Type.NUMBER || spec.type == LuceneSchema.Type.DATE)) {
+            long[] numbers = new long[values.size()];
+            for (int i = 0; i < numbers.length; i++) {
+                try {
+                    numbers[i] = Long.parseLong(values.get(i));
+                } catch (NumberFormatException e) {
+                    return new MatchNoDocsQuery("not a number: " + values.get(i));
+                }
+            }
+            return numbers.length == 1 ? LongPoint.newExactQuery(field, numbers[0]) : LongPoint.newSetQuery(field, numbers);
+        }
+        if (values.size() == 1) {
+            return new TermQuery(new Term(field, values.get(0)));
+        }
+        List<BytesRef> terms = new ArrayList<>();
+        for (String value : values) {
+            terms.add(new BytesRef(value));
+        }
+        return new TermInSetQuery(field, terms);
+    }
+
+    private static int edits(String fuzziness, String term) {
+        if (fuzziness == null) {
+            return 0;
+        }
+        if ("AUTO".equalsIgnoreCase(fuzziness)) {
+            int length = term.codePointCount(0, term.length());
+            return length <= 2 ? 0 : length <= 5 ? 1 : 2;
+        }
+        try {
+            return Math.min(Integer.parseInt(fuzziness), 2);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static Query boost(Query query, float boost) {
+        return boost == 1.0f ? query : new BoostQuery(query, boost);
+    }
+
+    private static String text(FieldValue value) {
+        if (value.isString()) {
+            return value.stringValue();
+        } else if (value.isLong()) {
+            return String.valueOf(value.longValue());
+        } else if (value.isDouble()) {
+            return String.valueOf(value.doubleValue());
+        } else if (value.isBoolean()) {
+            return String.valueOf(value.booleanValue());
+        }
+        return String.valueOf(value._get());
+    }
+}
@@ -0,0 +1,267 @@
+package com.chineselearning.search.lucene;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.elasticsearch.core.suggest.Completion;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Field layout of one embedded index, read from its settings file's "mappings"
+ *
+ * - text: analyzed with the mapping's analyzer, queried with its search_analyzer
+ * - keyword: exact term plus sorted-set doc values (sorting, facets)
+ * - integer / long / date: long point plus sorted-numeric doc values
+ * - completion: folded inputs as exact terms, the raw inputs and the weight
+ *
+ * Every document also keeps its JSON as the stored _source field, which is
+ * what search hits are read back from.
+ *
+ * @author Senior Backend Architect
+ */
+final class LuceneSchema {
+
+    static final String ID = "_id";
+    static final String SOURCE = "_source";
+    static final String INPUT_SUFFIX = ".input";
+    static final String WEIGHT_SUFFIX = ".weight";
+
+    enum Type {
+        TEXT, KEYWORD, NUMBER, DATE, COMPLETION
+    }
+
+    static final class FieldSpec {
+        final Type type;
+        final Analyzer searchAnalyzer;
+
+        private FieldSpec(Type type, Analyzer searchAnalyzer) {
+            this.type = type;
+            this.searchAnalyzer = searchAnalyzer;
+        }
+    }
+
+    private final Map<String, FieldSpec> fields = new HashMap<>();
+    private final Analyzer indexAnalyzer;
+
+    private LuceneSchema(Map<String, FieldSpec> fields, Analyzer indexAnalyzer) {
+        this.fields.putAll(fields);
+        this.indexAnalyzer = indexAnalyzer;
+    }
+
+    /**
+     * Schema for a settings file ({"settings": {"analysis": ...}, "mappings": {"properties": ...}})
+     */
+    static LuceneSchema fromSettings(JsonNode file) {
+        Map<String, Analyzer> analyzers = LuceneAnalyzers.fromSettings(file.path("settings").path("analysis"));
+        Map<String, FieldSpec> fields = new HashMap<>();
+        Map<String, Analyzer> indexAnalyzers = new HashMap<>();
+
+        Iterator<Map.Entry<String, JsonNode>> properties = file.path("mappings").path("properties").fields();
+        while (properties.hasNext()) {
+            Map.Entry<String, JsonNode> property = properties.next();
+            String name = property.getKey();
+            JsonNode mapping = property.getValue();
+            String type = mapping.path("type").asText();
+            switch (type) {
+                case "text": {
+                    Analyzer index = analyzer(analyzers, mapping.path("analyzer").asText(LuceneAnalyzers.STANDARD));
+                    Analyzer search = mapping.has("search_analyzer")
+                            ? analyzer(analyzers, mapping.get("search_analyzer").asText())
+                            : index;
+                    indexAnalyzers.put(name, index);
+                    fields.put(name, new FieldSpec(Type.TEXT, search));
+                    if (mapping.path("fields").has("keyword")) {
+                        fields.put(name + ".keyword", new FieldSpec(Type.KEYWORD, null));
+                    }
+                    break;
+                }
+                case "keyword":
+                    fields.put(name, new FieldSpec(Type.KEYWORD, null));
+                    break;
+                case "integer":
+                case "long":
+                    fields.put(name, new FieldSpec(Type.NUMBER, null));
+                    break;
+                case "date":
+                    fields.put(name, new FieldSpec(Type.DATE, null));
+                    break;
+                case "completion":
+                    fields.put(name, new FieldSpec(Type.COMPLETION,
+                            analyzer(analyzers, mapping.path("analyzer").asText(LuceneAnalyzers.STANDARD))));
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported field type " + type + " for " + name);
+            }
+        }
+        Analyzer indexAnalyzer = new PerFieldAnalyzerWrapper(analyzers.get(LuceneAnalyzers.STANDARD), indexAnalyzers);
+        return new LuceneSchema(fields, indexAnalyzer);
+    }
+
+    private static Analyzer analyzer(Map<String, Analyzer> analyzers, String name) {
+        Analyzer analyzer = analyzers.get(name);
+        if (analyzer == null) {
+            throw new IllegalStateException("Unknown analyzer " + name);
+        }
+        return analyzer;
+    }
+
+    /**
+     * @return the field's spec, or null when the mapping has no such field
+     */
+    FieldSpec field(String name) {
+        return fields.get(name);
+    }
+
+    Analyzer indexAnalyzer() {
+        return indexAnalyzer;
+    }
+
+    /**
+     * Lucene document for source (the JSON of bean); completion inputs are read from bean itself
+     */
+    Document document(String id, ObjectNode source, Object bean) {
+        Document document = new Document();
+        document.add(new StringField(ID, id, Field.Store.YES));
+        document.add(new StoredField(SOURCE, source.toString().getBytes(StandardCharsets.UTF_8)));
+
+        for (Map.Entry<String, FieldSpec> entry : fields.entrySet()) {
+            String name = entry.getKey();
+            FieldSpec spec = entry.getValue();
+            if (spec.type == Type.COMPLETION) {
+                addCompletion(document, name, spec, bean);
+                continue;
+            }
+            for (JsonNode value : values(source, name)) {
+                addValue(document, name, spec, value);
+            }
+        }
+        return document;
+    }
+
+    private static void addValue(Document document, String name, FieldSpec spec, JsonNode value) {
+        switch (spec.type) {
+            case TEXT:
+                document.add(new TextField(name, value.asText(), Field.Store.NO));
+                break;
+            case KEYWORD:
+                document.add(new StringField(name, value.asText(), Field.Store.NO));
+                document.add(new SortedSetDocValuesField(name, new BytesRef(value.asText())));
+                break;
+            case NUMBER:
+            case DATE: {
+                Long number = spec.type == Type.DATE ? epochMillis(value) : Long.valueOf(value.asLong());
+                if (number != null) {
+                    document.add(new LongPoint(name, number));
+                    document.add(new SortedNumericDocValuesField(name, number));
+                }
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    private static void addCompletion(Document document, String name, FieldSpec spec, Object bean) {
+        Object value = PropertyAccessorFactory.forDirectFieldAccess(bean).getPropertyValue(name);
+        if (!(value instanceof Completion) || ((Completion) value).getInput() == null) {
+            return;
+        }
+        Completion completion = (Completion) value;
+        for (String input : completion.getInput()) {
+            if (input == null || input.isBlank()) {
+                continue;
+            }
+            for (String folded : analyze(spec.searchAnalyzer, name, input)) {
+                document.add(new StringField(name, folded, Field.Store.NO));
+            }
+            document.add(new StoredField(name + INPUT_SUFFIX, input));
+        }
+        document.add(new NumericDocValuesField(name + WEIGHT_SUFFIX,
+                completion.getWeight() != null ? completion.getWeight() : 0));
+    }
+
+    /**
+     * Values of a (possibly dotted keyword sub-) field; arrays give one value per element
+     */
+    private static List<JsonNode> values(ObjectNode source, String name) {
+        String property = name.endsWith(".keyword") ? name.substring(0, name.length() - ".keyword".length()) : name;
+        JsonNode node = source.get(property);
+        List<JsonNode> values = new ArrayList<>();
+        if (node == null || node.isNull()) {
+            return values;
+        }
+        if (node.isArray()) {
+            for (JsonNode element : node) {
+                if (!element.isNull()) {
+                    values.add(element);
+                }
+            }
+        } else {
+            values.add(node);
+        }
+        return values;
+    }
+
+    /**
+     * Epoch millis of an ISO date(-time) or a number; null when neither
+     */
+    static Long epochMillis(JsonNode value) {
+        if (value.isNumber()) {
+            return value.asLong();
+        }
+        String text = value.asText();
+        try {
+            return LocalDateTime.parse(text).toInstant(ZoneOffset.UTC).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            try {
+                return OffsetDateTime.parse(text).toInstant().toEpochMilli();
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Terms of text as analyzer produces them for field
+     */
+    static List<String> analyze(Analyzer analyzer, String field, String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(field, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,801 @@
+package com.chineselearning.search.lucene;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.LongTermsBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import com.chineselearning.exception.custom.InvalidRequestException;
+import com.chineselearning.search.service.SearchIndexManager;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.FilterCollector;
+import org.apache.lucene.search.FilterLeafCollector;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.LeafCollector;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Scorable;
+import org.apache.lucene.search.ScoreCachingWrappingScorer;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSortField;
+import org.apache.lucene.search.SortedSetSortField;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopFieldCollector;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.SearchHitsImpl;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.SourceFilter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Embedded Lucene search engine (app.search.engine=lucene)
+ *
+ * For single-node deployments that do not want to run an Elasticsearch
+ * cluster: each index lives in a memory-mapped directory under
+ * app.search.lucene.path and is searched in-process. Schema and analyzers come
+ * from the same elasticsearch/*-settings.json files, documents from the same
+ * DataSyncService mapping, and queries are the same NativeQuery objects
+ * (SearchQueryBuilder), translated clause by clause. Results are returned as
+ * Spring Data SearchHits, so scores, min_score, _source filtering, post_filter,
+ * facet aggregations and search_after behave as they do against Elasticsearch.
+ *
+ * Full rebuilds go to a new directory that replaces the live one when the
+ * load is complete, like the alias swap in {@link SearchIndexManager}.
+ * Writes through the alias while the load runs go to the live index and are
+ * replayed into the new one at the swap. The replaced version is dropped once
+ * the searches still running on it release it.
+ * Cursor pages search the current index; there is no point-in-time.
+ *
+ * @author Senior Backend Architect
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LuceneSearchEngine {
+
+    public static final String ENGINE = "lucene";
+
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
+    private static final int DEFAULT_SIZE = 10;
+    private static final int DEFAULT_TERMS_SIZE = 10;
+
+    private final ObjectMapper objectMapper;
+
+    // Alias -> index searched and written; version name -> index being rebuilt
+    private final Map<String, LuceneIndex> live = new ConcurrentHashMap<>();
+    private final Map<String, LuceneIndex> building = new ConcurrentHashMap<>();
+    private final Map<String, LuceneSchema> schemas = new ConcurrentHashMap<>();
+    // Alias writes hold the read lock, the swap at the end of a rebuild the write lock
+    private final Map<String, ReadWriteLock> swapLocks = new ConcurrentHashMap<>();
+    // Alias -> writes made through it while a rebuild of it is loading
+    private final Map<String, Queue<IndexWrite>> lateWrites = new ConcurrentHashMap<>();
+
+    @Value("${app.search.engine:elasticsearch}")
+    private String engine;
+
+    @Value("${app.search.lucene.path:data/search-index}")
+    private String path;
+
+    private Path root;
+
+    public boolean isEnabled() {
+        return ENGINE.equalsIgnoreCase(engine);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+        root = Paths.get(path).toAbsolutePath();
+        Files.createDirectories(root);
+        for (String alias : SearchIndexManager.ALIASES) {
+            schemas.put(alias, LuceneSchema.fromSettings(readSettingsFile(alias)));
+            live.put(alias, openLatest(alias));
+            swapLocks.put(alias, new ReentrantReadWriteLock());
+        }
+        log.info("Embedded Lucene search engine at {}", root);
+    }
+
+    @PreDestroy
+    public void close() {
+        for (LuceneIndex index : live.values()) {
+            try {
+                index.close();
+            } catch (IOException e) {
+                log.warn("Could not close embedded index {}: {}", index.name(), e.getMessage());
+            }
+        }
+        live.clear();
+    }
+
+    /**
+     * Newest complete version of alias; older versions and interrupted rebuilds are removed
+     */
+    private LuceneIndex openLatest(String alias) throws IOException {
+        List<Path> versions;
+        try (Stream<Path> entries = Files.list(root)) {
+            versions = entries
+                    .filter(Files::isDirectory)
+                    .filter(dir -> dir.getFileName().toString().matches(alias + "_\\d+"))
+                    .sorted(Comparator.comparing((Path dir) -> dir.getFileName().toString()).reversed())
+                    .collect(Collectors.toList());
+        }
+        LuceneIndex opened = null;
+        for (Path version : versions) {
+            boolean complete;
+            try (Directory directory = new MMapDirectory(version)) {
+                complete = DirectoryReader.indexExists(directory);
+            }
+            if (opened == null && complete) {
+                opened = LuceneIndex.open(version.getFileName().toString(), version, schemas.get(alias), false);
+            } else {
+                FileSystemUtils.deleteRecursively(version);
+            }
+        }
+        if (opened == null) {
+            String name = versionName(alias);
+            opened = LuceneIndex.open(name, root.resolve(name), schemas.get(alias), true);
+            opened.commit();
+        }
+        log.info("Embedded index {} opened from {}", alias, opened.name());
+        return opened;
+    }
+
+    /**
+     * Build a new version of alias with loader, then make it the live one
+     *
+     * @param loader fills the given (not yet searchable) index and returns its result
+     */
+    public <T> T rebuild(String alias, Function<String, T> loader) {
+        String name = versionName(alias);
+        LuceneIndex index;
+        try {
+            index = LuceneIndex.open(name, root.resolve(name), schemas.get(alias), true);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not create embedded index " + name, e);
+        }
+        lateWrites.put(alias, new ConcurrentLinkedQueue<>());
+        building.put(name, index);
+        try {
+            T result = loader.apply(name);
+            index.forceMerge();
+            LuceneIndex previous;
+            Lock swap = swapLock(alias).writeLock();
+            swap.lock();
+            try {
+                // The loader may have read rows older than these writes; apply them on top
+                Queue<IndexWrite> writes = lateWrites.remove(alias);
+                for (IndexWrite write : writes) {
+                    write.apply(index);
+                }
+                index.commit();
+                index.refresh();
+                previous = live.put(alias, index);
+                log.info("Embedded index {} now served from {}{}, {} writes replayed", alias, name,
+                        previous == null ? "" : " (was " + previous.name() + ")", writes.size());
+            } finally {
+                swap.unlock();
+            }
+            if (previous != null) {
+                release(previous);
+            }
+            return result;
+        } catch (IOException e) {
+            dropQuietly(index);
+            throw new DataAccessResourceFailureException("Rebuild of embedded index " + alias + " failed", e);
+        } catch (RuntimeException e) {
+            log.error("Rebuild of embedded index {} failed, dropping {}", alias, name);
+            dropQuietly(index);
+            throw e;
+        } finally {
+            building.remove(name);
+            lateWrites.remove(alias);
+        }
+    }
+
+    /**
+     * Add or replace documents (IndexQuery id + object) in index, an alias or a version being rebuilt
+     */
+    public void index(String index, List<IndexQuery> queries) {
+        try {
+            write(index, target -> {
+                for (IndexQuery query : queries) {
+                    Object document = query.getObject();
+                    ObjectNode source = objectMapper.valueToTree(document);
+                    target.update(query.getId(), target.schema().document(query.getId(), source, document));
+                }
+            });
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Write to embedded index " + index + " failed", e);
+        }
+    }
+
+    public void save(String index, Object id, Object document) {
+        index(index, List.of(new IndexQueryBuilder().withId(String.valueOf(id)).withObject(document).build()));
+    }
+
+    public void delete(String index, Collection<?> ids) {
+        try {
+            write(index, target -> {
+                for (Object id : ids) {
+                    target.delete(String.valueOf(id));
+                }
+            });
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Delete from embedded index " + index + " failed", e);
+        }
+    }
+
+    /**
+     * Make the latest writes searchable
+     */
+    public void refresh(String index) {
+        LuceneIndex target = acquire(index);
+        try {
+            target.refresh();
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Refresh of embedded index " + index + " failed", e);
+        } finally {
+            release(target);
+        }
+    }
+
+    /**
+     * Run query on index, with the semantics ElasticsearchOperations.search would give it
+     */
+    public <T> SearchHits<T> search(NativeQuery query, Class<T> type, String index) {
+        LuceneIndex target = acquire(index);
+        try {
+            IndexSearcher searcher = target.acquire();
+            try {
+                return search(searcher, target.schema(), query, type, index);
+            } finally {
+                target.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Search on embedded index " + index + " failed", e);
+        } finally {
+            release(target);
+        }
+    }
+
+    private <T> SearchHits<T> search(IndexSearcher searcher, LuceneSchema schema, NativeQuery query,
+                                     Class<T> type, String index) throws IOException {
+        Query main = LuceneQueries.translate(query.getQuery(), schema);
+        Query hitsQuery = query.getFilter() == null ? main : new BooleanQuery.Builder()
+                .add(main, BooleanClause.Occur.MUST)
+                .add(LuceneQueries.translate(query.getFilter(), schema), BooleanClause.Occur.FILTER)
+                .build();
+
+        Sort sort = sort(query.getSort(), schema);
+        float minScore = query.getMinScore();
+        boolean scores = sort.needsScores() || query.getTrackScores() || minScore > 0;
+        Pageable pageable = query.getPageable();
+        int size = pageable.isPaged() ? pageable.getPageSize() : DEFAULT_SIZE;
+        FieldDoc after = searchAfter(query.getSearchAfter(), sort);
+        int from = after != null || pageable.isUnpaged() ? 0 : (int) pageable.getOffset();
+
+        TopFieldCollector top = TopFieldCollector.create(sort, Math.max(1, from + size), after, Integer.MAX_VALUE);
+        HitCounter counter = new HitCounter(top, scores, minScore);
+        searcher.search(hitsQuery, counter);
+        TopDocs docs = top.topDocs(from, size);
+        if (sort.needsScores() || query.getTrackScores()) {
+            // Sorted hits carry no score of their own; score just this page
+            TopFieldCollector.populateScores(docs.scoreDocs, searcher, hitsQuery);
+        }
+
+        StoredFields storedFields = searcher.storedFields();
+        List<SearchHit<T>> hits = new ArrayList<>(docs.scoreDocs.length);
+        for (ScoreDoc scoreDoc : docs.scoreDocs) {
+            Document document = storedFields.document(scoreDoc.doc);
+            T content = read(document, query.getSourceFilter(), type);
+            hits.add(new SearchHit<>(index, document.get(LuceneSchema.ID), null, scoreDoc.score,
+                    sortValues(scoreDoc), Map.of(), Map.of(), null, null, List.of(), content));
+        }
+
+        ElasticsearchAggregations aggregations = query.getAggregations().isEmpty()
+                ? null
+                : new ElasticsearchAggregations(aggregates(searcher, schema, main, query.getAggregations()));
+        return new SearchHitsImpl<>(counter.totalHits, TotalHitsRelation.EQUAL_TO, counter.maxScore, null, null,
+                hits, aggregations, null);
+    }
+
+    /**
+     * Distinct values of sourceField (or the matched inputs when null) for the documents
+     * whose completion field has an input starting with prefix, highest weight first
+     */
+    public List<String> suggest(String index, String field, String prefix, int limit, String sourceField) {
+        if (prefix == null || prefix.isBlank() || limit <= 0) {
+            return List.of();
+        }
+        LuceneSchema schema = live(index).schema();
+        LuceneSchema.FieldSpec spec = schema.field(field);
+        if (spec == null || spec.type != LuceneSchema.Type.COMPLETION) {
+            throw new IllegalArgumentException(field + " is not a completion field of " + index);
+        }
+        List<String> folded = LuceneSchema.analyze(spec.searchAnalyzer, field, prefix.trim());
+        if (folded.isEmpty()) {
+            return List.of();
+        }
+        String foldedPrefix = folded.get(0);
+
+        Set<String> values = new LinkedHashSet<>();
+        LuceneIndex target = acquire(index);
+        try {
+            IndexSearcher searcher = target.acquire();
+            try {
+                Sort byWeight = new Sort(new SortField(field + LuceneSchema.WEIGHT_SUFFIX, SortField.Type.LONG, true));
+                TopDocs docs = searcher.search(new PrefixQuery(new Term(field, foldedPrefix)), limit * 2, byWeight);
+                StoredFields storedFields = searcher.storedFields();
+                for (ScoreDoc scoreDoc : docs.scoreDocs) {
+                    Document document = storedFields.document(scoreDoc.doc);
+                    if (sourceField != null) {
+                        JsonNode value = source(document).get(sourceField);
+                        if (value != null && !value.isNull()) {
+                            values.add(value.asText());
+                        }
+                    } else {
+                        for (String input : document.getValues(field + LuceneSchema.INPUT_SUFFIX)) {
+                            List<String> inputTerms = LuceneSchema.analyze(spec.searchAnalyzer, field, input);
+                            if (!inputTerms.isEmpty() && inputTerms.get(0).startsWith(foldedPrefix)) {
+                                values.add(input);
+                            }
+                        }
+                    }
+                    if (values.size() >= limit) {
+                        break;
+                    }
+                }
+            } finally {
+                target.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Suggest on embedded index " + index + " failed", e);
+        } finally {
+            release(target);
+        }
+        return values.stream().limit(limit).collect(Collectors.toList());
+    }
+
+    private LuceneIndex live(String index) {
+        LuceneIndex target = live.get(index);
+        if (target == null) {
+            throw new IllegalStateException("No embedded index " + index
+                    + (isEnabled() ? "" : " (app.search.engine is not " + ENGINE + ")"));
+        }
+        return target;
+    }
+
+    /**
+     * The live index of alias, referenced until release(); a version replaced meanwhile is skipped
+     */
+    private LuceneIndex acquire(String alias) {
+        while (true) {
+            LuceneIndex target = live(alias);
+            if (target.tryIncRef()) {
+                return target;
+            }
+        }
+    }
+
+    private void release(LuceneIndex index) {
+        try {
+            index.decRef();
+        } catch (IOException e) {
+            log.warn("Could not remove embedded index {}: {}", index.name(), e.getMessage());
+        }
+    }
+
+    private ReadWriteLock swapLock(String alias) {
+        live(alias);
+        return swapLocks.get(alias);
+    }
+
+    /**
+     * Apply write to index, a version being rebuilt (committed once at the end) or an alias.
+     * Alias writes are committed and refreshed per call, and kept for replay while a rebuild loads.
+     */
+    private void write(String index, IndexWrite write) throws IOException {
+        LuceneIndex version = building.get(index);
+        if (version != null) {
+            write.apply(version);
+            return;
+        }
+        Lock lock = swapLock(index).readLock();
+        lock.lock();
+        try {
+            LuceneIndex target = live(index);
+            write.apply(target);
+            target.commit();
+            target.refresh();
+            Queue<IndexWrite> pending = lateWrites.get(index);
+            if (pending != null) {
+                pending.add(write);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String versionName(String alias) {
+        return alias + "_" + LocalDateTime.now().format(VERSION_FORMAT);
+    }
+
+    private void dropQuietly(LuceneIndex index) {
+        try {
+            index.drop();
+        } catch (IOException e) {
+            log.warn("Could not remove embedded index {}: {}", index.name(), e.getMessage());
+        }
+    }
+
+    private ObjectNode readSettingsFile(String alias) {
+        String file = SearchIndexManager.settingsFile(alias);
+        try (InputStream in = new ClassPathResource(file).getInputStream()) {
+            return (ObjectNode) objectMapper.readTree(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read " + file, e);
+        }
+    }
+
+    private ObjectNode source(Document document) throws IOException {
+        BytesRef bytes = document.getBinaryValue(LuceneSchema.SOURCE);
+        return (ObjectNode) objectMapper.readTree(bytes.bytes, bytes.offset, bytes.length);
+    }
+
+    /**
+     * The stored _source, cut down to sourceFilter, as type
+     */
+    private <T> T read(Document document, SourceFilter sourceFilter, Class<T> type) throws IOException {
+        ObjectNode source = source(document);
+        if (sourceFilter != null) {
+            String[] includes = sourceFilter.getIncludes();
+            if (includes != null && includes.length > 0 && !Arrays.asList(includes).contains("*")) {
+                source.retain(includes);
+            }
+            if (sourceFilter.getExcludes() != null) {
+                source.remove(Arrays.asList(sourceFilter.getExcludes()));
+            }
+        }
+        return objectMapper.readerFor(type)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readValue(source);
+    }
+
+    /**
+     * Lucene sort for a Spring Data sort; missing values go last, as in Elasticsearch
+     */
+    private static Sort sort(org.springframework.data.domain.Sort sort, LuceneSchema schema) {
+        if (sort == null || sort.isUnsorted()) {
+            return Sort.RELEVANCE;
+        }
+        List<SortField> fields = new ArrayList<>();
+        for (org.springframework.data.domain.Sort.Order order : sort) {
+            String name = order.getProperty();
+            boolean descending = order.isDescending();
+            if ("_score".equals(name)) {
+                // Natural score order is descending
+                fields.add(new SortField(null, SortField.Type.SCORE, !descending));
+                continue;
+            }
+            LuceneSchema.FieldSpec spec = schema.field(name);
+            if (spec != null && spec.type == LuceneSchema.Type.KEYWORD) {
+                SortField field = new SortedSetSortField(name, descending);
+                field.setMissingValue(descending ? SortField.STRING_FIRST : SortField.STRING_LAST);
+                fields.add(field);
+            } else if (spec != null && (spec.type == LuceneSchema.Type.NUMBER || spec.type == LuceneSchema.Type.DATE)) {
+                SortField field = new SortedNumericSortField(name, SortField.Type.LONG, descending);
+                field.setMissingValue(descending ? Long.MIN_VALUE : Long.MAX_VALUE);
+                fields.add(field);
+            } else {
+                throw new InvalidRequestException("Cannot sort by " + name, "sortBy", name);
+            }
+        }
+        return new Sort(fields.toArray(new SortField[0]));
+    }
+
+    /**
+     * search_after values (as carried in a cursor) in the types the sort fields compare
+     */
+    private static FieldDoc searchAfter(List<Object> values, Sort sort) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        SortField[] fields = sort.getSort();
+        if (values.size() != fields.length) {
+            throw new IllegalArgumentException("search_after has " + values.size() + " values for "
+                    + fields.length + " sort fields");
+        }
+        Object[] after = new Object[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            Object value = values.get(i);
+            if (value == null) {
+                after[i] = null;
+            } else if (fields[i].getType() == SortField.Type.SCORE) {
+                after[i] = ((Number) value).floatValue();
+            } else if (fields[i] instanceof SortedSetSortField) {
+                after[i] = new BytesRef(value.toString());
+            } else {
+                after[i] = ((Number) value).longValue();
+            }
+        }
+        return new FieldDoc(Integer.MAX_VALUE, Float.NaN, after);
+    }
+
+    private static Object[] sortValues(ScoreDoc scoreDoc) {
+        if (!(scoreDoc instanceof FieldDoc)) {
+            return new Object[0];
+        }
+        Object[] fields = ((FieldDoc) scoreDoc).fields;
+        Object[] values = new Object[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            values[i] = fields[i] instanceof BytesRef ? ((BytesRef) fields[i]).utf8ToString() : fields[i];
+        }
+        return values;
+    }
+
+    private Map<String, Aggregate> aggregates(IndexSearcher searcher, LuceneSchema schema, Query scope,
+                                              Map<String, Aggregation> aggregations) throws IOException {
+        Map<String, Aggregate> aggregates = new LinkedHashMap<>();
+        for (Map.Entry<String, Aggregation> aggregation : aggregations.entrySet()) {
+            aggregates.put(aggregation.getKey(), aggregate(searcher, schema, scope, aggregation.getValue()));
+        }
+        return aggregates;
+    }
+
+    /**
+     * filter (with sub-aggregations) and terms, the shapes SearchQueryBuilder asks for
+     */
+    private Aggregate aggregate(IndexSearcher searcher, LuceneSchema schema, Query scope,
+                                Aggregation aggregation) throws IOException {
+        if (aggregation.isFilter()) {
+            Query filtered = new BooleanQuery.Builder()
+                    .add(scope, BooleanClause.Occur.FILTER)
+                    .add(LuceneQueries.translate(aggregation.filter(), schema), BooleanClause.Occur.FILTER)
+                    .build();
+            long docCount = searcher.count(filtered);
+            Map<String, Aggregate> subAggregates = aggregates(searcher, schema, filtered, aggregation.aggregations());
+            return Aggregate.of(a -> a.filter(f -> f.docCount(docCount).aggregations(subAggregates)));
+        } else if (aggregation.isTerms()) {
+            String field = aggregation.terms().field();
+            int size = aggregation.terms().size() != null ? aggregation.terms().size() : DEFAULT_TERMS_SIZE;
+            LuceneSchema.FieldSpec spec = schema.field(field);
+            boolean numeric = spec != null
+                    && (spec.type == LuceneSchema.Type.NUMBER || spec.type == LuceneSchema.Type.DATE);
+            return terms(searcher, scope, field, size, numeric);
+        }
+        throw new IllegalArgumentException("Aggregation type not supported by the embedded engine: "
+                + aggregation._kind());
+    }
+
+    /**
+     * Top size values by document count (ties by key), like a terms aggregation on one shard
+     */
+    private static Aggregate terms(IndexSearcher searcher, Query scope, String field, int size,
+                                   boolean numeric) throws IOException {
+        ValueCounter counter = new ValueCounter(field, numeric);
+        searcher.search(scope, counter);
+        Map<Object, Long> counts = counter.counts();
+
+        Comparator<Map.Entry<Object, Long>> byKey = numeric
+                ? Comparator.comparing(entry -> (Long) entry.getKey())
+                : Comparator.comparing(entry -> (String) entry.getKey());
+        List<Map.Entry<Object, Long>> ordered = counts.entrySet().stream()
+                .sorted(Comparator.<Map.Entry<Object, Long>, Long>comparing(Map.Entry::getValue).reversed()
+                        .thenComparing(byKey))
+                .collect(Collectors.toList());
+        List<Map.Entry<Object, Long>> top = ordered.subList(0, Math.min(size, ordered.size()));
+        long other = ordered.subList(top.size(), ordered.size()).stream().mapToLong(Map.Entry::getValue).sum();
+
+        if (numeric) {
+            List<LongTermsBucket> buckets = top.stream()
+                    .map(entry -> LongTermsBucket.of(b -> b.key((Long) entry.getKey()).docCount(entry.getValue())))
+                    .collect(Collectors.toList());
+            return Aggregate.of(a -> a.lterms(t -> t
+                    .buckets(b -> b.array(buckets)).sumOtherDocCount(other).docCountErrorUpperBound(0L)));
+        }
+        List<StringTermsBucket> buckets = top.stream()
+                .map(entry -> StringTermsBucket.of(b -> b.key((String) entry.getKey()).docCount(entry.getValue())))
+                .collect(Collectors.toList());
+        return Aggregate.of(a -> a.sterms(t -> t
+                .buckets(b -> b.array(buckets)).sumOtherDocCount(other).docCountErrorUpperBound(0L)));
+    }
+
+    /**
+     * A write to one index, replayable against another version
+     */
+    @FunctionalInterface
+    private interface IndexWrite {
+        void apply(LuceneIndex index) throws IOException;
+    }
+
+    /**
+     * Counts matching documents and tracks their max score; with minScore, weaker hits are
+     * neither counted nor passed on (Lucene has no min_score of its own)
+     */
+    private static final class HitCounter extends FilterCollector {
+
+        private final boolean scores;
+        private final float minScore;
+        private long totalHits;
+        private float maxScore = Float.NaN;
+
+        private HitCounter(Collector in, boolean scores, float minScore) {
+            super(in);
+            this.scores = scores;
+            this.minScore = minScore;
+        }
+
+        @Override
+        public LeafCollector getLeafCollector(LeafReaderContext context) throws IOException {
+            return new FilterLeafCollector(super.getLeafCollector(context)) {
+                private Scorable scorer;
+
+                @Override
+                public void setScorer(Scorable scorer) throws IOException {
+                    this.scorer = scores ? ScoreCachingWrappingScorer.wrap(scorer) : scorer;
+                    super.setScorer(this.scorer);
+                }
+
+                @Override
+                public void collect(int doc) throws IOException {
+                    if (scores) {
+                        float score = scorer.score();
+                        if (score < minScore) {
+                            return;
+                        }
+                        if (!(score <= maxScore)) {
+                            maxScore = score;
+                        }
+                    }
+                    totalHits++;
+                    super.collect(doc);
+                }
+            };
+        }
+
+        @Override
+        public ScoreMode scoreMode() {
+            return scores ? ScoreMode.COMPLETE : in.scoreMode();
+        }
+    }
+
+    /**
+     * Documents per doc-values value of one field; keyword values are counted per segment ordinal
+     */
+    private static final class ValueCounter extends SimpleCollector {
+
+        private final String field;
+        private final boolean numeric;
+        private final Map<Object, Long> counts = new HashMap<>();
+        private SortedSetDocValues ordinals;
+        private long[] ordinalCounts;
+        private SortedNumericDocValues numbers;
+
+        private ValueCounter(String field, boolean numeric) {
+            this.field = field;
+            this.numeric = numeric;
+        }
+
+        @Override
+        protected void doSetNextReader(LeafReaderContext context) throws IOException {
+            flush();
+            if (numeric) {
+                numbers = DocValues.getSortedNumeric(context.reader(), field);
+            } else {
+                ordinals = DocValues.getSortedSet(context.reader(), field);
+                ordinalCounts = new long[(int) ordinals.getValueCount()];
+            }
+        }
+
+        @Override
+        public void collect(int doc) throws IOException {
+            if (numeric) {
+                if (numbers.advanceExact(doc)) {
+                    Set<Long> seen = new HashSet<>();
+                    for (int i = 0; i < numbers.docValueCount(); i++) {
+                        long value = numbers.nextValue();
+                        if (seen.add(value)) {
+                            counts.merge(value, 1L, Long::sum);
+                        }
+                    }
+                }
+            } else if (ordinals.advanceExact(doc)) {
+                for (int i = 0; i < ordinals.docValueCount(); i++) {
+                    ordinalCounts[(int) ordinals.nextOrd()]++;
+                }
+            }
+        }
+
+        private void flush() {
+            if (ordinalCounts == null) {
+                return;
+            }
+            try {
+                for (int ord = 0; ord < ordinalCounts.length; ord++) {
+                    if (ordinalCounts[ord] > 0) {
+                        counts.merge(ordinals.lookupOrd(ord).utf8ToString(), ordinalCounts[ord], Long::sum);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            ordinalCounts = null;
+        }
+
+        Map<Object, Long> counts() {
+            flush();
+            return counts;
+        }
+
+        @Override
+        public ScoreMode scoreMode() {
+            return ScoreMode.COMPLETE_NO_SCORES;
+        }
+    }
+}
@@ -19,30 +19,14 @@ import java.util.List;
 public interface CourseSearchRepository extends ElasticsearchRepository<CourseDocument, Long> {
 
     /**
-     * Full-text search courses
+     * Full-text search courses (fuzziness: AUTO or 0)
      */
-    @Query("{\"multi_match\": {\"query\": \"?0\", \"fields\": [\"title^3\", \"description^2\", \"textbookName\"], \"fuzziness\": \"AUTO\"}}")
-    Page<CourseDocument> searchAll(String query, Pageable pageable);
+    @Query("{\"multi_match\": {\"query\": \"?0\", \"fields\": [\"title^3\", \"description^2\", \"textbookName\"], \"fuzziness\": \"?1\"}}")
+    Page<CourseDocument> searchAll(String query, String fuzziness, Pageable pageable);
 
     /**
      * Find by difficulty
      */
     List<CourseDocument> findByDifficulty(Difficulty difficulty);
-
-    /**
-     * Find by level
-     */
-    List<CourseDocument> findByLevel(String level);
-
-    /**
-     * Find by textbook
-     */
-    List<CourseDocument> findByTextbookId(Long textbookId);
-
-    /**
-     * Advanced search with filters
-     */
-    @Query("{\"bool\": {\"must\": [{\"multi_match\": {\"query\": \"?0\", \"fields\": [\"title\", \"description\"]}}], \"filter\": [{\"term\": {\"difficulty\": \"?1\"}}]}}")
-    Page<CourseDocument> advancedSearch(String query, Difficulty difficulty, Pageable pageable);
 }
 
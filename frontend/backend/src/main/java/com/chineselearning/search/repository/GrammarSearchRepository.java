@@ -16,20 +16,10 @@ import org.springframework.stereotype.Repository;
 public interface GrammarSearchRepository extends ElasticsearchRepository<GrammarTopicDocument, Long> {
 
     /**
-     * Full-text search across grammar topics
+     * Full-text search across grammar topics (fuzziness: AUTO or 0)
      */
-    @Query("{\"multi_match\": {\"query\": \"?0\", \"fields\": [\"title^3\", \"description^2\", \"content\"], \"fuzziness\": \"AUTO\"}}")
-    Page<GrammarTopicDocument> searchAll(String query, Pageable pageable);
-
-    /**
-     * Search by content
-     */
-    Page<GrammarTopicDocument> findByContentContaining(String content, Pageable pageable);
-
-    /**
-     * Find by level
-     */
-    Page<GrammarTopicDocument> findByLevel(String level, Pageable pageable);
+    @Query("{\"multi_match\": {\"query\": \"?0\", \"fields\": [\"title^3\", \"description^2\", \"content\"], \"fuzziness\": \"?1\"}}")
+    Page<GrammarTopicDocument> searchAll(String query, String fuzziness, Pageable pageable);
 
     /**
      * Search by title
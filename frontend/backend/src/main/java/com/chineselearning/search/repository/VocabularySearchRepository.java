@@ -19,15 +19,10 @@ import java.util.List;
 public interface VocabularySearchRepository extends ElasticsearchRepository<VocabularyDocument, Long> {
 
     /**
-     * Full-text search across all fields
+     * Full-text search across all fields (fuzziness: AUTO or 0)
      */
-    @Query("{\"multi_match\": {\"query\": \"?0\", \"fields\": [\"hanzi^3\", \"pinyin^2\", \"meaning^2\", \"example\"], \"fuzziness\": \"AUTO\"}}")
-    Page<VocabularyDocument> searchByAllFields(String query, Pageable pageable);
-
-    /**
-     * Search by Hanzi with fuzzy matching
-     */
-    Page<VocabularyDocument> findByHanziContaining(String hanzi, Pageable pageable);
+    @Query("{\"multi_match\": {\"query\": \"?0\", \"fields\": [\"hanzi^3\", \"pinyin^2\", \"meaning^2\", \"meaningFolded\", \"example\"], \"fuzziness\": \"?1\"}}")
+    Page<VocabularyDocument> searchByAllFields(String query, String fuzziness, Pageable pageable);
 
     /**
      * Search by Pinyin
@@ -49,12 +44,6 @@ public interface VocabularySearchRepository extends ElasticsearchRepository<Voca
      */
     Page<VocabularyDocument> findByTagsContaining(String tag, Pageable pageable);
 
-    /**
-     * Advanced multi-criteria search
-     */
-    @Query("{\"bool\": {\"must\": [{\"multi_match\": {\"query\": \"?0\", \"fields\": [\"hanzi^3\", \"pinyin^2\", \"meaning^2\", \"example\"], \"fuzziness\": \"AUTO\"}}], \"filter\": [{\"term\": {\"variant\": \"?1\"}}]}}")
-    Page<VocabularyDocument> advancedSearch(String query, String variant, Pageable pageable);
-    
     /**
      * Find by HSK level
      */
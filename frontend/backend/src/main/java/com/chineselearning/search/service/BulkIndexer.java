@@ -0,0 +1,303 @@
+package com.chineselearning.search.service;
+
+import com.chineselearning.search.dto.SyncStats;
+import com.chineselearning.search.lucene.LuceneSearchEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.BulkOptions;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded, concurrent Elasticsearch _bulk indexing
+ *
+ * Each submitted chunk becomes one _bulk request. At most max-in-flight
+ * requests run at once (shared by all runs) and submit() blocks while they
+ * are busy, so a reader never gets more than one chunk ahead of the cluster.
+ *
+ * Items rejected with 429 or 5xx, and whole requests that fail on I/O, are
+ * retried with exponential backoff; other item failures (mapping errors,
+ * bad documents) would fail again, so they are counted and logged instead.
+ *
+ * With app.search.engine=lucene a chunk is written to the embedded index
+ * instead of sent as _bulk, under the same limits and retries.
+ *
+ * @author Senior Backend Architect
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BulkIndexer {
+
+    private static final int MAX_LOGGED_FAILURES = 10;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final MeterRegistry meterRegistry;
+    private final LuceneSearchEngine luceneSearchEngine;
+
+    @Value("${app.elasticsearch.sync.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.elasticsearch.sync.max-in-flight:2}")
+    private int maxInFlight;
+
+    @Value("${app.elasticsearch.sync.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${app.elasticsearch.sync.retry-backoff-ms:500}")
+    private long retryBackoffMs;
+
+    private Semaphore inFlight;
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        inFlight = new Semaphore(maxInFlight);
+        executor = Executors.newFixedThreadPool(maxInFlight, new CustomizableThreadFactory("es-bulk-"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public <T> Run<T> start(String entity, Class<T> documentClass, Function<T, Object> idOf) {
+        return start(entity, elasticsearchOperations.getIndexCoordinatesFor(documentClass), idOf);
+    }
+
+    /**
+     * Run against an explicit index, e.g. a new index that is not behind its alias yet
+     */
+    public <T> Run<T> start(String entity, IndexCoordinates index, Function<T, Object> idOf) {
+        return new Run<>(entity, index, idOf);
+    }
+
+    /**
+     * One reindex of one index; not thread-safe, feed it from a single reader
+     */
+    public final class Run<T> {
+
+        private final String entity;
+        private final IndexCoordinates index;
+        private final Function<T, Object> idOf;
+        private final long startTime = System.currentTimeMillis();
+        private final List<CompletableFuture<Void>> pending = new ArrayList<>();
+
+        private final AtomicLong indexed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong retries = new AtomicLong();
+        private final AtomicInteger bulkRequests = new AtomicInteger();
+        private final AtomicInteger loggedFailures = new AtomicInteger();
+        private final Set<String> failedIds = ConcurrentHashMap.newKeySet();
+        private final Timer bulkTimer;
+
+        private Run(String entity, IndexCoordinates index, Function<T, Object> idOf) {
+            this.entity = entity;
+            this.index = index;
+            this.idOf = idOf;
+            this.bulkTimer = meterRegistry.timer("search.sync.bulk", "entity", entity);
+        }
+
+        /**
+         * Queue a chunk as one _bulk request, blocking while max-in-flight requests are running
+         */
+        public void submit(List<T> documents) {
+            if (documents.isEmpty()) {
+                return;
+            }
+            List<IndexQuery> queries = new ArrayList<>(documents.size());
+            for (T document : documents) {
+                queries.add(new IndexQueryBuilder()
+                        .withId(String.valueOf(idOf.apply(document)))
+                        .withObject(document)
+                        .build());
+            }
+
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a bulk slot", e);
+            }
+            try {
+                pending.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        sendWithRetry(queries);
+                    } finally {
+                        inFlight.release();
+                    }
+                }, executor));
+            } catch (RuntimeException e) {
+                inFlight.release();
+                throw e;
+            }
+            pending.removeIf(CompletableFuture::isDone);
+        }
+
+        /**
+         * Wait for this run's requests and record the totals
+         */
+        public SyncStats finish() {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture<?>[]::new)).join();
+            pending.clear();
+
+            long durationMs = Math.max(1, System.currentTimeMillis() - startTime);
+            SyncStats stats = SyncStats.builder()
+                    .entity(entity)
+                    .index(index.getIndexName())
+                    .indexed(indexed.get())
+                    .failed(failed.get())
+                    .retries(retries.get())
+                    .bulkRequests(bulkRequests.get())
+                    .durationMs(durationMs)
+                    .docsPerSecond(indexed.get() * 1000 / durationMs)
+                    .finishedAt(LocalDateTime.now())
+                    .build();
+            log.info("{} sync completed: {} indexed, {} failed, {} retries, {} bulk requests in {} ms, {} docs/s",
+                    entity, stats.getIndexed(), stats.getFailed(), stats.getRetries(), stats.getBulkRequests(),
+                    durationMs, stats.getDocsPerSecond());
+            return stats;
+        }
+
+        /**
+         * Ids of the documents that were not indexed, after retries; complete once finish() returned
+         */
+        public Set<String> getFailedIds() {
+            return failedIds;
+        }
+
+        private void sendWithRetry(List<IndexQuery> queries) {
+            List<IndexQuery> remaining = queries;
+            for (int attempt = 0; ; attempt++) {
+                if (attempt > 0) {
+                    retries.addAndGet(remaining.size());
+                    meterRegistry.counter("search.sync.retries", "entity", entity).increment(remaining.size());
+                    if (!backoff(attempt)) {
+                        break;
+                    }
+                }
+
+                bulkRequests.incrementAndGet();
+                long start = System.nanoTime();
+                try {
+                    if (luceneSearchEngine.isEnabled()) {
+                        luceneSearchEngine.index(index.getIndexName(), remaining);
+                    } else {
+                        elasticsearchOperations.bulkIndex(remaining, BulkOptions.defaultOptions(), index);
+                    }
+                    count("indexed", remaining.size());
+                    return;
+                } catch (BulkFailureException e) {
+                    remaining = splitFailures(remaining, e.getFailedDocuments());
+                    if (remaining.isEmpty()) {
+                        return;
+                    }
+                } catch (RuntimeException e) {
+                    // Whole request failed (connection, timeout, cluster unavailable)
+                    logFailure("bulk request of " + remaining.size() + " documents", e.getMessage());
+                } finally {
+                    bulkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+
+                if (attempt >= maxRetries) {
+                    break;
+                }
+            }
+            count("failed", remaining.size());
+            for (IndexQuery query : remaining) {
+                failedIds.add(query.getId());
+            }
+        }
+
+        /**
+         * Counts the items that made it and the permanent failures; returns the retryable ones
+         */
+        private List<IndexQuery> splitFailures(List<IndexQuery> sent, Map<String, BulkFailureException.FailureDetails> failures) {
+            List<IndexQuery> retryable = new ArrayList<>();
+            int permanent = 0;
+            for (IndexQuery query : sent) {
+                BulkFailureException.FailureDetails failure = failures.get(query.getId());
+                if (failure == null) {
+                    continue;
+                }
+                if (isRetryable(failure.status())) {
+                    retryable.add(query);
+                } else {
+                    permanent++;
+                    failedIds.add(query.getId());
+                    logFailure("document " + query.getId(), failure.errorMessage());
+                }
+            }
+            count("indexed", sent.size() - retryable.size() - permanent);
+            count("failed", permanent);
+            return retryable;
+        }
+
+        private boolean isRetryable(Integer status) {
+            return status == null || status == 429 || status >= 500;
+        }
+
+        /**
+         * Exponential backoff with jitter; false if interrupted
+         */
+        private boolean backoff(int attempt) {
+            long delay = retryBackoffMs << Math.min(attempt - 1, 10);
+            delay += ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+            try {
+                Thread.sleep(delay);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private void count(String outcome, long documents) {
+            if (documents <= 0) {
+                return;
+            }
+            if ("indexed".equals(outcome)) {
+                indexed.addAndGet(documents);
+            } else {
+                failed.addAndGet(documents);
+            }
+            meterRegistry.counter("search.sync.documents", "entity", entity, "outcome", outcome).increment(documents);
+        }
+
+        private void logFailure(String what, String reason) {
+            if (loggedFailures.incrementAndGet() <= MAX_LOGGED_FAILURES) {
+                log.warn("{} sync: {} failed: {}", entity, what, reason);
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.chineselearning.search.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.CompletionSuggestOption;
+import co.elastic.clients.elasticsearch.core.search.Suggestion;
+import com.chineselearning.search.lucene.LuceneSearchEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Type-ahead over completion fields
+ *
+ * Completion suggesters answer from an in-memory FST per segment, ordered by
+ * the weight stored at index time, so a prefix lookup costs about the same as a
+ * term lookup and never scores or loads whole documents. Requests go straight
+ * to the Java client, which (unlike the Spring Data query builders) can send
+ * "_source": false. The embedded engine answers with a prefix query over the
+ * folded inputs, ordered by the same weight.
+ *
+ * @author Senior Backend Architect
+ */
+@Component
+@RequiredArgsConstructor
+public class CompletionSuggester {
+
+    private static final String SUGGESTION = "s";
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final LuceneSearchEngine luceneSearchEngine;
+
+    /**
+     * Matched inputs of field, best weight first; no _source is fetched
+     */
+    public List<String> suggest(String index, String field, String prefix, int limit) {
+        return suggest(index, field, prefix, limit, null);
+    }
+
+    /**
+     * Values of sourceField for the documents whose field input starts with prefix,
+     * best weight first, without duplicates. Only sourceField is read from _source.
+     */
+    @SuppressWarnings("rawtypes")
+    public List<String> suggest(String index, String field, String prefix, int limit, String sourceField) {
+        if (prefix == null || prefix.isBlank() || limit <= 0) {
+            return List.of();
+        }
+        if (luceneSearchEngine.isEnabled()) {
+            return luceneSearchEngine.suggest(index, field, prefix, limit, sourceField);
+        }
+        // Several inputs of one document (or documents sharing a value) can match
+        int size = sourceField != null ? limit * 2 : limit;
+
+        SearchResponse<Map> response;
+        try {
+            response = elasticsearchClient.search(s -> s
+                    .index(index)
+                    .size(0)
+                    .source(src -> sourceField != null
+                            ? src.filter(f -> f.includes(sourceField))
+                            : src.fetch(false))
+                    .suggest(sg -> sg.suggesters(SUGGESTION, fs -> fs
+                            .prefix(prefix.trim())
+                            .completion(c -> c.field(field).size(size).skipDuplicates(true)))),
+                    Map.class);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Suggest request to " + index + " failed", e);
+        }
+
+        Set<String> values = new LinkedHashSet<>();
+        List<Suggestion<Map>> suggestions = response.suggest().getOrDefault(SUGGESTION, List.of());
+        for (Suggestion<Map> suggestion : suggestions) {
+            if (!suggestion.isCompletion()) continue;
+            for (CompletionSuggestOption<Map> option : suggestion.completion().options()) {
+                Object value = sourceField != null && option.source() != null
+                        ? option.source().get(sourceField)
+                        : option.text();
+                if (value != null) {
+                    values.add(value.toString());
+                }
+                if (values.size() >= limit) {
+                    return new ArrayList<>(values);
+                }
+            }
+        }
+        return new ArrayList<>(values);
+    }
+}
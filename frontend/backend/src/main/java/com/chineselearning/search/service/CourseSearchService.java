@@ -3,17 +3,16 @@ package com.chineselearning.search.service;
 import com.chineselearning.search.document.CourseDocument;
 import com.chineselearning.search.dto.SearchRequest;
 import com.chineselearning.search.dto.SearchResponse;
-import com.chineselearning.search.repository.CourseSearchRepository;
 import com.chineselearning.search.service.interfaces.SearchService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.query.SourceFilter;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Course Search Service Implementation
@@ -26,41 +25,37 @@ import java.util.stream.Collectors;
 @Slf4j
 public class CourseSearchService implements SearchService<CourseDocument> {
 
-    private final CourseSearchRepository courseSearchRepository;
+    private static final SourceFilter LIST_SOURCE =
+            new FetchSourceFilter(null, new String[]{"searchText", "titleSuggest"});
+
+    // Courses per textbook or level are few; the list endpoints are not paged
+    private static final int MAX_LIST_SIZE = 1000;
+
+    private final CompletionSuggester completionSuggester;
+    private final SearchResultCache searchResultCache;
+    private final ScoredSearcher scoredSearcher;
+    private final PointInTimeSearcher pointInTimeSearcher;
 
     @Override
     public SearchResponse<CourseDocument> search(SearchRequest request) {
-        long startTime = System.currentTimeMillis();
+        if (request.getCursor() != null) {
+            SearchRequest canonical = request.canonical();
+            return pointInTimeSearcher.search(SearchIndexManager.COURSES, CourseDocument.class,
+                    canonical, SearchQueryBuilder.course(canonical), LIST_SOURCE);
+        }
+        return searchResultCache.get(SearchIndexManager.COURSES, request, this::executeSearch);
+    }
+
+    /**
+     * Live Elasticsearch query; request is already canonical (see SearchResultCache)
+     */
+    private SearchResponse<CourseDocument> executeSearch(SearchRequest request) {
         log.info("Course search started: query={}, difficulty={}, level={}",
                 request.getQuery(), request.getDifficulty(), request.getCourseLevel());
 
         Pageable pageable = PageRequest.of(request.getPage(), request.getSize());
-        Page<CourseDocument> searchResults;
-
-        if (request.getQuery() != null && request.getDifficulty() != null) {
-            // Advanced search with filters
-            searchResults = courseSearchRepository.advancedSearch(
-                    request.getQuery(),
-                    request.getDifficulty(),
-                    pageable
-            );
-        } else if (request.getQuery() != null) {
-            // Simple full-text search
-            searchResults = courseSearchRepository.searchAll(request.getQuery(), pageable);
-        } else {
-            searchResults = courseSearchRepository.findAll(pageable);
-        }
-
-        long searchTime = System.currentTimeMillis() - startTime;
-
-        return SearchResponse.of(
-                searchResults.getContent(),
-                searchResults.getTotalElements(),
-                request.getPage(),
-                request.getSize(),
-                searchTime,
-                0.0f
-        );
+        return scoredSearcher.search(SearchIndexManager.COURSES, CourseDocument.class,
+                SearchQueryBuilder.course(request), pageable, request.getMinScore(), LIST_SOURCE);
     }
 
     @Override
@@ -75,32 +70,36 @@ public class CourseSearchService implements SearchService<CourseDocument> {
 
     @Override
     public SearchResponse<CourseDocument> fuzzySearch(String keyword, int page, int size) {
-        return simpleSearch(keyword, page, size);
+        SearchRequest request = SearchRequest.builder()
+                .query(keyword)
+                .page(page)
+                .size(size)
+                .fuzzySearch(true)
+                .build();
+        return search(request);
     }
 
     @Override
     public List<String> getSuggestions(String prefix, int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        Page<CourseDocument> results = courseSearchRepository.searchAll(prefix, pageable);
-
-        return results.stream()
-                .map(CourseDocument::getTitle)
-                .limit(limit)
-                .collect(Collectors.toList());
+        // Completion field on title; the matched title is the suggestion, no _source needed
+        return completionSuggester.suggest(SearchIndexManager.COURSES, "titleSuggest", prefix, limit);
     }
 
     /**
      * Find courses by textbook
      */
     public List<CourseDocument> findByTextbook(Long textbookId) {
-        return courseSearchRepository.findByTextbookId(textbookId);
+        return scoredSearcher.search(SearchIndexManager.COURSES, CourseDocument.class,
+                SearchQueryBuilder.exactly("textbookId", textbookId), PageRequest.of(0, MAX_LIST_SIZE), null,
+                LIST_SOURCE).getResults();
     }
 
     /**
      * Find courses by level
      */
     public List<CourseDocument> findByLevel(String level) {
-        return courseSearchRepository.findByLevel(level);
+        return scoredSearcher.search(SearchIndexManager.COURSES, CourseDocument.class,
+                SearchQueryBuilder.exactly("level", level), PageRequest.of(0, MAX_LIST_SIZE), null,
+                LIST_SOURCE).getResults();
     }
 }
-
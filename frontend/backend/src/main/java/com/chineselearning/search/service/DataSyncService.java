@@ -2,33 +2,58 @@ package com.chineselearning.search.service;
 
 import com.chineselearning.domain.Course;
 import com.chineselearning.domain.GrammarTopic;
+import com.chineselearning.domain.SearchSyncWatermark;
 import com.chineselearning.domain.Vocabulary;
 import com.chineselearning.repository.CourseRepository;
 import com.chineselearning.repository.GrammarTopicRepository;
+import com.chineselearning.repository.SearchSyncWatermarkRepository;
 import com.chineselearning.repository.VocabularyRepository;
 import com.chineselearning.search.document.CourseDocument;
 import com.chineselearning.search.document.GrammarTopicDocument;
 import com.chineselearning.search.document.VocabularyDocument;
+import com.chineselearning.search.dto.SyncStats;
+import com.chineselearning.search.lucene.LuceneSearchEngine;
 import com.chineselearning.search.repository.CourseSearchRepository;
 import com.chineselearning.search.repository.GrammarSearchRepository;
 import com.chineselearning.search.repository.VocabularySearchRepository;
+import com.chineselearning.search.text.SearchTextNormalizer;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+import org.springframework.data.elasticsearch.core.suggest.Completion;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Arrays;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Data Synchronization Service
- * Syncs data from PostgreSQL to Elasticsearch
- * Runs on application startup and scheduled intervals
+ * Syncs data from PostgreSQL to Elasticsearch (or the embedded Lucene engine)
+ * Full reindex on startup and nightly; in between, an incremental sync picks up
+ * rows by updated_at every few seconds
  * 
  * @author Senior Backend Architect
  */
@@ -37,6 +62,19 @@ import java.util.stream.Collectors;
 @Slf4j
 public class DataSyncService {
 
+    public static final String VOCABULARY = "vocabulary";
+    public static final String GRAMMAR = "grammar";
+    public static final String COURSES = "courses";
+
+    private static final int MAX_FAILED_PERCENT = 1;
+    private static final int MAX_SUGGEST_WEIGHT = 1_000_000;
+
+    private static final Map<String, String> INDEXES = Map.of(
+            VOCABULARY, SearchIndexManager.VOCABULARIES,
+            GRAMMAR, SearchIndexManager.GRAMMAR_TOPICS,
+            COURSES, SearchIndexManager.COURSES
+    );
+
     private final VocabularyRepository vocabularyRepository;
     private final GrammarTopicRepository grammarTopicRepository;
     private final CourseRepository courseRepository;
@@ -45,6 +83,23 @@ public class DataSyncService {
     private final GrammarSearchRepository grammarSearchRepository;
     private final CourseSearchRepository courseSearchRepository;
 
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final BulkIndexer bulkIndexer;
+    private final SearchIndexManager searchIndexManager;
+    private final SearchResultCache searchResultCache;
+    private final LuceneSearchEngine luceneSearchEngine;
+    private final EntityManager entityManager;
+
+    private final SearchSyncWatermarkRepository watermarkRepository;
+
+    private final Map<String, SyncStats> lastRuns = new ConcurrentHashMap<>();
+
+    @Value("${app.elasticsearch.sync.incremental-enabled:true}")
+    private boolean incrementalEnabled;
+
+    @Value("${app.elasticsearch.sync.incremental-overlap-ms:5000}")
+    private long incrementalOverlapMs;
+
     /**
      * Initial sync on application startup
      */
@@ -61,9 +116,10 @@ public class DataSyncService {
     }
 
     /**
-     * Scheduled sync every 30 minutes (configurable)
+     * Full reindex as a safety net (nightly by default); day-to-day freshness
+     * comes from {@link #scheduledIncrementalSync()}
      */
-    @Scheduled(cron = "${app.elasticsearch.sync.cron:0 */30 * * * *}")
+    @Scheduled(cron = "${app.elasticsearch.sync.cron:0 0 3 * * *}")
     @Async
     public void scheduledSync() {
         log.info("=== Starting scheduled data sync ===");
@@ -75,10 +131,25 @@ public class DataSyncService {
         }
     }
 
+    /**
+     * Incremental sync every few seconds; fixed delay, so ticks never overlap
+     */
+    @Scheduled(fixedDelayString = "${app.elasticsearch.sync.incremental-interval-ms:5000}",
+            initialDelayString = "${app.elasticsearch.sync.incremental-interval-ms:5000}")
+    public void scheduledIncrementalSync() {
+        if (!incrementalEnabled) {
+            return;
+        }
+        try {
+            syncChanges();
+        } catch (Exception e) {
+            log.error("Error during incremental sync", e);
+        }
+    }
+
     /**
      * Sync all entities
      */
-    @Transactional(readOnly = true)
     public void syncAllData() {
         syncVocabulary();
         syncGrammarTopics();
@@ -86,66 +157,338 @@ public class DataSyncService {
     }
 
     /**
-     * Sync vocabulary data
+     * Index rows changed since the last incremental run of each entity
      */
-    @Transactional(readOnly = true)
-    public void syncVocabulary() {
-        log.info("Syncing vocabulary data...");
-        long startTime = System.currentTimeMillis();
+    public void syncChanges() {
+        syncChanges(VOCABULARY, VocabularyDocument.class, VocabularyDocument::getId,
+                vocabularyRepository::findChangedAfter, Vocabulary::getUpdatedAt, Vocabulary::getId,
+                this::toVocabularyDocuments);
+        syncChanges(GRAMMAR, GrammarTopicDocument.class, GrammarTopicDocument::getId,
+                grammarTopicRepository::findChangedAfter, GrammarTopic::getUpdatedAt, GrammarTopic::getId,
+                topics -> topics.stream().map(this::mapToGrammarDocument).collect(Collectors.toList()));
+        syncChanges(COURSES, CourseDocument.class, CourseDocument::getId,
+                courseRepository::findChangedAfter, Course::getUpdatedAt, Course::getId,
+                courses -> courses.stream().map(this::mapToCourseDocument).collect(Collectors.toList()));
+    }
 
-        List<Vocabulary> vocabularies = vocabularyRepository.findAll();
-        log.info("Found {} vocabulary items to sync", vocabularies.size());
+    /**
+     * Apply per-entity changes from the search outbox: upserted rows are read
+     * back from the database and indexed in one bulk request, deletes (and
+     * upserted rows that no longer exist) are removed by id
+     *
+     * A failed delete request throws; documents the index rejected (after
+     * retries) are returned instead, so the caller can keep just those entries.
+     *
+     * @return ids whose upsert did not reach the index
+     */
+    public Set<Long> applyChanges(String entity, Set<Long> upsertIds, Set<Long> deleteIds) {
+        Set<Long> deletes = new HashSet<>(deleteIds);
+        Set<Long> failed;
+        if (VOCABULARY.equals(entity)) {
+            List<Vocabulary> rows = upsertIds.isEmpty() ? List.of() : vocabularyRepository.findAllById(upsertIds);
+            deletes.addAll(missingIds(upsertIds, rows, Vocabulary::getId));
+            failed = index(entity, VocabularyDocument.class, VocabularyDocument::getId, toVocabularyDocuments(rows));
+            if (!deletes.isEmpty()) {
+                delete(SearchIndexManager.VOCABULARIES, vocabularySearchRepository, deletes);
+            }
+        } else if (GRAMMAR.equals(entity)) {
+            List<GrammarTopic> rows = upsertIds.isEmpty() ? List.of() : grammarTopicRepository.findAllById(upsertIds);
+            deletes.addAll(missingIds(upsertIds, rows, GrammarTopic::getId));
+            failed = index(entity, GrammarTopicDocument.class, GrammarTopicDocument::getId,
+                    rows.stream().map(this::mapToGrammarDocument).collect(Collectors.toList()));
+            if (!deletes.isEmpty()) {
+                delete(SearchIndexManager.GRAMMAR_TOPICS, grammarSearchRepository, deletes);
+            }
+        } else if (COURSES.equals(entity)) {
+            List<Course> rows = upsertIds.isEmpty() ? List.of() : courseRepository.findAllWithTextbookByIdIn(upsertIds);
+            deletes.addAll(missingIds(upsertIds, rows, Course::getId));
+            failed = index(entity, CourseDocument.class, CourseDocument::getId,
+                    rows.stream().map(this::mapToCourseDocument).collect(Collectors.toList()));
+            if (!deletes.isEmpty()) {
+                delete(SearchIndexManager.COURSES, courseSearchRepository, deletes);
+            }
+        } else {
+            log.warn("Ignoring search changes for unknown entity: {}", entity);
+            return Set.of();
+        }
+        if (!upsertIds.isEmpty() || !deletes.isEmpty()) {
+            searchResultCache.invalidate(INDEXES.get(entity));
+        }
+        return failed;
+    }
 
-        List<VocabularyDocument> documents = vocabularies.stream()
-                .map(this::mapToVocabularyDocument)
-                .collect(Collectors.toList());
+    /**
+     * Totals of the last run per entity, for the admin sync endpoint
+     */
+    public Map<String, SyncStats> getLastRunStats() {
+        return new TreeMap<>(lastRuns);
+    }
 
-        vocabularySearchRepository.saveAll(documents);
+    /*
+     * Full reindex: chunks are read with a keyset cursor (id > last id), so no
+     * transaction or connection stays open while Elasticsearch applies backpressure,
+     * and the persistence context is cleared after each chunk to keep the heap flat.
+     * Each run fills a fresh index that replaces the live one behind its alias
+     * (see SearchIndexManager), and resets the incremental watermark to its start time.
+     * Writes made while a run loads are recorded by SearchIndexManager and replayed
+     * into the new index before it goes live.
+     */
 
-        long duration = System.currentTimeMillis() - startTime;
-        log.info("Vocabulary sync completed: {} items in {} ms", documents.size(), duration);
+    /**
+     * Sync vocabulary data
+     */
+    public SyncStats syncVocabulary() {
+        log.info("Syncing vocabulary data...");
+        LocalDateTime startedAt = LocalDateTime.now();
+        SyncStats stats = searchIndexManager.rebuild(SearchIndexManager.VOCABULARIES, this::loadVocabulary,
+                (index, ids) -> replay(VOCABULARY, index, ids));
+        return recordFullRun(stats, startedAt);
     }
 
     /**
      * Sync grammar topics
      */
-    @Transactional(readOnly = true)
-    public void syncGrammarTopics() {
+    public SyncStats syncGrammarTopics() {
         log.info("Syncing grammar topics...");
-        long startTime = System.currentTimeMillis();
+        LocalDateTime startedAt = LocalDateTime.now();
+        SyncStats stats = searchIndexManager.rebuild(SearchIndexManager.GRAMMAR_TOPICS, this::loadGrammarTopics,
+                (index, ids) -> replay(GRAMMAR, index, ids));
+        return recordFullRun(stats, startedAt);
+    }
 
-        List<GrammarTopic> topics = grammarTopicRepository.findAll();
-        log.info("Found {} grammar topics to sync", topics.size());
+    /**
+     * Sync courses
+     */
+    public SyncStats syncCourses() {
+        log.info("Syncing courses...");
+        LocalDateTime startedAt = LocalDateTime.now();
+        SyncStats stats = searchIndexManager.rebuild(SearchIndexManager.COURSES, this::loadCourses,
+                (index, ids) -> replay(COURSES, index, ids));
+        return recordFullRun(stats, startedAt);
+    }
 
-        List<GrammarTopicDocument> documents = topics.stream()
-                .map(this::mapToGrammarDocument)
-                .collect(Collectors.toList());
+    private SyncStats loadVocabulary(IndexCoordinates index) {
+        BulkIndexer.Run<VocabularyDocument> run = bulkIndexer.start(VOCABULARY, index, VocabularyDocument::getId);
 
-        grammarSearchRepository.saveAll(documents);
+        Pageable chunk = PageRequest.ofSize(bulkIndexer.getChunkSize());
+        List<Vocabulary> vocabularies = vocabularyRepository.findByIdGreaterThanOrderByIdAsc(0L, chunk);
+        while (!vocabularies.isEmpty()) {
+            Long lastId = vocabularies.get(vocabularies.size() - 1).getId();
+            List<VocabularyDocument> documents = toVocabularyDocuments(vocabularies);
+            entityManager.clear();
+            run.submit(documents);
 
-        long duration = System.currentTimeMillis() - startTime;
-        log.info("Grammar sync completed: {} items in {} ms", documents.size(), duration);
+            vocabularies = vocabularyRepository.findByIdGreaterThanOrderByIdAsc(lastId, chunk);
+        }
+        return checkLoaded(run.finish());
+    }
+
+    private SyncStats loadGrammarTopics(IndexCoordinates index) {
+        BulkIndexer.Run<GrammarTopicDocument> run = bulkIndexer.start(GRAMMAR, index, GrammarTopicDocument::getId);
+
+        Pageable chunk = PageRequest.ofSize(bulkIndexer.getChunkSize());
+        List<GrammarTopic> topics = grammarTopicRepository.findByIdGreaterThanOrderByIdAsc(0L, chunk);
+        while (!topics.isEmpty()) {
+            Long lastId = topics.get(topics.size() - 1).getId();
+            List<GrammarTopicDocument> documents = topics.stream()
+                    .map(this::mapToGrammarDocument)
+                    .collect(Collectors.toList());
+            entityManager.clear();
+            run.submit(documents);
+
+            topics = grammarTopicRepository.findByIdGreaterThanOrderByIdAsc(lastId, chunk);
+        }
+        return checkLoaded(run.finish());
+    }
+
+    private SyncStats loadCourses(IndexCoordinates index) {
+        BulkIndexer.Run<CourseDocument> run = bulkIndexer.start(COURSES, index, CourseDocument::getId);
+
+        Pageable chunk = PageRequest.ofSize(bulkIndexer.getChunkSize());
+        List<Course> courses = courseRepository.findChunkAfter(0L, chunk);
+        while (!courses.isEmpty()) {
+            Long lastId = courses.get(courses.size() - 1).getId();
+            List<CourseDocument> documents = courses.stream()
+                    .map(this::mapToCourseDocument)
+                    .collect(Collectors.toList());
+            entityManager.clear();
+            run.submit(documents);
+
+            courses = courseRepository.findChunkAfter(lastId, chunk);
+        }
+        return checkLoaded(run.finish());
     }
 
     /**
-     * Sync courses
+     * Keeps a mostly-failed load from replacing the live index
      */
-    @Transactional(readOnly = true)
-    public void syncCourses() {
-        log.info("Syncing courses...");
-        long startTime = System.currentTimeMillis();
+    private SyncStats checkLoaded(SyncStats stats) {
+        if (stats.getFailed() * 100 > (stats.getIndexed() + stats.getFailed()) * MAX_FAILED_PERCENT) {
+            throw new IllegalStateException(stats.getEntity() + " rebuild failed for " + stats.getFailed()
+                    + " of " + (stats.getIndexed() + stats.getFailed()) + " documents, keeping the current index");
+        }
+        return stats;
+    }
 
-        List<Course> courses = courseRepository.findAll();
-        log.info("Found {} courses to sync", courses.size());
+    /**
+     * One incremental run: pages through rows with (updated_at, id) after the
+     * watermark, then moves the watermark up to the newest row seen, but never
+     * past now - overlap. Rows whose transaction commits after a later row was
+     * already seen are picked up on the next ticks, and no change is skipped
+     * as long as commits land within the overlap window.
+     */
+    private <E, D> void syncChanges(String entity, Class<D> documentClass, Function<D, Object> documentId,
+                                    ChangeQuery<E> query, Function<E, LocalDateTime> updatedAtOf,
+                                    Function<E, Long> idOf, Function<List<E>, List<D>> mapper) {
+        Optional<SearchSyncWatermark> stored = watermarkRepository.findById(entity);
+        if (stored.isEmpty()) {
+            // The full sync at startup sets the first watermark
+            log.debug("No {} watermark yet, skipping incremental sync", entity);
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime watermark = stored.get().getWatermark();
+
+        Pageable chunk = PageRequest.ofSize(bulkIndexer.getChunkSize());
+        List<E> rows = query.findChangedAfter(watermark, Long.MAX_VALUE, chunk);
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        BulkIndexer.Run<D> run = bulkIndexer.start(entity, documentClass, documentId);
+        LocalDateTime newest = watermark;
+        while (!rows.isEmpty()) {
+            E last = rows.get(rows.size() - 1);
+            newest = updatedAtOf.apply(last);
+            Long lastId = idOf.apply(last);
+            List<D> documents = mapper.apply(rows);
+            entityManager.clear();
+            searchIndexManager.recordChange(INDEXES.get(entity), idsOf(documents, documentId));
+            run.submit(documents);
+
+            rows = query.findChangedAfter(newest, lastId, chunk);
+        }
+        SyncStats stats = run.finish();
+        lastRuns.put(entity + "-incremental", stats);
+        searchResultCache.invalidate(INDEXES.get(entity));
+
+        // Failures are in the stats and metrics; the nightly full sync repairs them
+        LocalDateTime limit = startedAt.minus(Duration.ofMillis(incrementalOverlapMs));
+        LocalDateTime next = newest.isAfter(limit) ? limit : newest;
+        if (next.isAfter(watermark)) {
+            saveWatermark(entity, next);
+        }
+    }
+
+    private SyncStats recordFullRun(SyncStats stats, LocalDateTime startedAt) {
+        lastRuns.put(stats.getEntity(), stats);
+        searchResultCache.invalidate(INDEXES.get(stats.getEntity()));
+        // Everything changed before the run started is indexed now
+        saveWatermark(stats.getEntity(), startedAt.minus(Duration.ofMillis(incrementalOverlapMs)));
+        return stats;
+    }
+
+    private void saveWatermark(String entity, LocalDateTime watermark) {
+        watermarkRepository.save(SearchSyncWatermark.builder()
+                .entity(entity)
+                .watermark(watermark)
+                .build());
+    }
+
+    private List<VocabularyDocument> toVocabularyDocuments(List<Vocabulary> vocabularies) {
+        List<Long> ids = vocabularies.stream().map(Vocabulary::getId).collect(Collectors.toList());
 
-        List<CourseDocument> documents = courses.stream()
-                .map(this::mapToCourseDocument)
+        // Tags of the whole chunk in one query instead of initializing each lazy collection
+        Map<Long, List<String>> tagsById = new HashMap<>();
+        for (VocabularyRepository.TagRow row : vocabularyRepository.findTagRowsByVocabIdIn(ids)) {
+            tagsById.computeIfAbsent(row.getVocabId(), id -> new ArrayList<>(2)).add(row.getTag());
+        }
+
+        return vocabularies.stream()
+                .map(vocab -> mapToVocabularyDocument(vocab, tagsById.getOrDefault(vocab.getId(), List.of())))
                 .collect(Collectors.toList());
+    }
 
-        courseSearchRepository.saveAll(documents);
+    /**
+     * Write the current database state of ids into index, a rebuild not behind its alias yet:
+     * existing rows are indexed, missing ones deleted
+     */
+    private void replay(String entity, IndexCoordinates index, Set<Long> ids) {
+        if (VOCABULARY.equals(entity)) {
+            List<Vocabulary> rows = vocabularyRepository.findAllById(ids);
+            replay(entity, index, VocabularyDocument::getId, toVocabularyDocuments(rows),
+                    missingIds(ids, rows, Vocabulary::getId));
+        } else if (GRAMMAR.equals(entity)) {
+            List<GrammarTopic> rows = grammarTopicRepository.findAllById(ids);
+            replay(entity, index, GrammarTopicDocument::getId,
+                    rows.stream().map(this::mapToGrammarDocument).collect(Collectors.toList()),
+                    missingIds(ids, rows, GrammarTopic::getId));
+        } else if (COURSES.equals(entity)) {
+            List<Course> rows = courseRepository.findAllWithTextbookByIdIn(ids);
+            replay(entity, index, CourseDocument::getId,
+                    rows.stream().map(this::mapToCourseDocument).collect(Collectors.toList()),
+                    missingIds(ids, rows, Course::getId));
+        }
+    }
 
-        long duration = System.currentTimeMillis() - startTime;
-        log.info("Course sync completed: {} items in {} ms", documents.size(), duration);
+    private <D> void replay(String entity, IndexCoordinates index, Function<D, Object> documentId,
+                            List<D> documents, Set<Long> deletes) {
+        entityManager.clear();
+        BulkIndexer.Run<D> run = bulkIndexer.start(entity, index, documentId);
+        run.submit(documents);
+        SyncStats stats = run.finish();
+        if (stats.getFailed() > 0) {
+            throw new IllegalStateException(entity + " rebuild could not replay " + stats.getFailed()
+                    + " changes made while it was loading, keeping the current index");
+        }
+        for (Long id : deletes) {
+            elasticsearchOperations.delete(String.valueOf(id), index);
+        }
+    }
+
+    /**
+     * @return ids of the documents that could not be indexed
+     */
+    private <D> Set<Long> index(String entity, Class<D> documentClass, Function<D, Object> documentId,
+                                List<D> documents) {
+        if (documents.isEmpty()) {
+            return Set.of();
+        }
+        searchIndexManager.recordChange(INDEXES.get(entity), idsOf(documents, documentId));
+        entityManager.clear();
+        BulkIndexer.Run<D> run = bulkIndexer.start(entity, documentClass, documentId);
+        run.submit(documents);
+        run.finish();
+
+        Set<Long> failed = new HashSet<>();
+        for (String id : run.getFailedIds()) {
+            failed.add(Long.valueOf(id));
+        }
+        return failed;
+    }
+
+    private static <D> List<Long> idsOf(List<D> documents, Function<D, Object> documentId) {
+        List<Long> ids = new ArrayList<>(documents.size());
+        for (D document : documents) {
+            ids.add((Long) documentId.apply(document));
+        }
+        return ids;
+    }
+
+    private static <E> Set<Long> missingIds(Set<Long> ids, List<E> rows, Function<E, Long> idOf) {
+        Set<Long> missing = new HashSet<>(ids);
+        for (E row : rows) {
+            missing.remove(idOf.apply(row));
+        }
+        return missing;
+    }
+
+    /**
+     * The (updated_at, id) seek query of one entity
+     */
+    @FunctionalInterface
+    private interface ChangeQuery<E> {
+        List<E> findChangedAfter(LocalDateTime after, Long afterId, Pageable limit);
     }
 
     /**
@@ -153,7 +496,8 @@ public class DataSyncService {
      */
     public void syncVocabularyItem(Vocabulary vocabulary) {
         VocabularyDocument document = mapToVocabularyDocument(vocabulary);
-        vocabularySearchRepository.save(document);
+        save(SearchIndexManager.VOCABULARIES, vocabularySearchRepository, document.getId(), document);
+        searchResultCache.invalidate(SearchIndexManager.VOCABULARIES);
         log.debug("Synced vocabulary item: {}", vocabulary.getId());
     }
 
@@ -162,7 +506,8 @@ public class DataSyncService {
      */
     public void syncGrammarTopic(GrammarTopic topic) {
         GrammarTopicDocument document = mapToGrammarDocument(topic);
-        grammarSearchRepository.save(document);
+        save(SearchIndexManager.GRAMMAR_TOPICS, grammarSearchRepository, document.getId(), document);
+        searchResultCache.invalidate(SearchIndexManager.GRAMMAR_TOPICS);
         log.debug("Synced grammar topic: {}", topic.getId());
     }
 
@@ -171,39 +516,77 @@ public class DataSyncService {
      */
     public void syncCourse(Course course) {
         CourseDocument document = mapToCourseDocument(course);
-        courseSearchRepository.save(document);
+        save(SearchIndexManager.COURSES, courseSearchRepository, document.getId(), document);
+        searchResultCache.invalidate(SearchIndexManager.COURSES);
         log.debug("Synced course: {}", course.getId());
     }
 
     /**
-     * Delete from Elasticsearch
+     * Delete from the search index
      */
     public void deleteVocabulary(Long id) {
-        vocabularySearchRepository.deleteById(id);
-        log.debug("Deleted vocabulary from ES: {}", id);
+        delete(SearchIndexManager.VOCABULARIES, vocabularySearchRepository, List.of(id));
+        searchResultCache.invalidate(SearchIndexManager.VOCABULARIES);
+        log.debug("Deleted vocabulary from the search index: {}", id);
     }
 
     public void deleteGrammarTopic(Long id) {
-        grammarSearchRepository.deleteById(id);
-        log.debug("Deleted grammar topic from ES: {}", id);
+        delete(SearchIndexManager.GRAMMAR_TOPICS, grammarSearchRepository, List.of(id));
+        searchResultCache.invalidate(SearchIndexManager.GRAMMAR_TOPICS);
+        log.debug("Deleted grammar topic from the search index: {}", id);
     }
 
     public void deleteCourse(Long id) {
-        courseSearchRepository.deleteById(id);
-        log.debug("Deleted course from ES: {}", id);
+        delete(SearchIndexManager.COURSES, courseSearchRepository, List.of(id));
+        searchResultCache.invalidate(SearchIndexManager.COURSES);
+        log.debug("Deleted course from the search index: {}", id);
+    }
+
+    /**
+     * Single-document writes go through the repository, or to the embedded engine when it is enabled
+     */
+    private <D> void save(String alias, ElasticsearchRepository<D, Long> repository, Long id, D document) {
+        searchIndexManager.recordChange(alias, List.of(id));
+        if (luceneSearchEngine.isEnabled()) {
+            luceneSearchEngine.save(alias, id, document);
+        } else {
+            repository.save(document);
+        }
+    }
+
+    private void delete(String alias, ElasticsearchRepository<?, Long> repository, Collection<Long> ids) {
+        searchIndexManager.recordChange(alias, ids);
+        if (luceneSearchEngine.isEnabled()) {
+            luceneSearchEngine.delete(alias, ids);
+        } else {
+            repository.deleteAllById(ids);
+        }
     }
 
     // ========== Mapping Methods ==========
 
     private VocabularyDocument mapToVocabularyDocument(Vocabulary vocab) {
+        return mapToVocabularyDocument(vocab, vocab.getTags() != null ? new ArrayList<>(vocab.getTags()) : List.of());
+    }
+
+    private VocabularyDocument mapToVocabularyDocument(Vocabulary vocab, List<String> tags) {
+        if (vocab.getPinyinPlain() == null) {
+            // Row not backfilled yet; during a full sync the chunk is cleared before anything can flush it
+            vocab.normalizeSearchFields();
+        }
         VocabularyDocument doc = VocabularyDocument.builder()
                 .id(vocab.getId())
                 .hanzi(vocab.getHanzi())
                 .pinyin(vocab.getPinyin())
                 .meaning(vocab.getMeaning())  // Changed from getNghia()
                 .example(vocab.getExample())  // Changed from getViDu()
+                .pinyinPlain(vocab.getPinyinPlain())
+                .pinyinNumeric(vocab.getPinyinNumeric())
+                .pinyinInitials(vocab.getPinyinInitials())
+                .meaningFolded(vocab.getMeaningFolded())
+                .suggest(vocabularySuggest(vocab))
                 .variant(vocab.getVariant() != null ? vocab.getVariant().name() : null)
-                .tags(vocab.getTags() != null ? new java.util.ArrayList<>(vocab.getTags()) : List.of())
+                .tags(tags)
                 .hskLevel(vocab.getHskLevel())
                 .frequencyRank(vocab.getFrequencyRank())
                 .createdAt(vocab.getCreatedAt())
@@ -214,10 +597,29 @@ public class DataSyncService {
         return doc;
     }
 
+    /**
+     * Inputs: hanzi, "nihao" and "ni hao"; more frequent words (lower rank) weigh more
+     */
+    private static Completion vocabularySuggest(Vocabulary vocab) {
+        Set<String> inputs = new LinkedHashSet<>();
+        if (vocab.getHanzi() != null) inputs.add(vocab.getHanzi());
+        if (vocab.getPinyinPlain() != null && !vocab.getPinyinPlain().isEmpty()) inputs.add(vocab.getPinyinPlain());
+        if (vocab.getPinyin() != null) inputs.add(SearchTextNormalizer.foldVietnamese(vocab.getPinyin()));
+        inputs.remove("");
+        if (inputs.isEmpty()) {
+            return null;
+        }
+        Completion completion = new Completion(inputs.toArray(new String[0]));
+        Integer rank = vocab.getFrequencyRank();
+        completion.setWeight(rank != null && rank > 0 ? Math.max(1, MAX_SUGGEST_WEIGHT - rank) : 1);
+        return completion;
+    }
+
     private GrammarTopicDocument mapToGrammarDocument(GrammarTopic topic) {
         GrammarTopicDocument doc = GrammarTopicDocument.builder()
                 .id(topic.getId())
                 .title(topic.getTitle())
+                .titleSuggest(topic.getTitle() != null ? new Completion(new String[]{topic.getTitle()}) : null)
                 .description(topic.getDescription())
                 .content(topic.getContent())
                 .level(topic.getLevel() != null ? topic.getLevel().name() : null)
@@ -234,6 +636,7 @@ public class DataSyncService {
                 .id(course.getId())
                 .level(course.getLevel())
                 .title(course.getTitle())
+                .titleSuggest(course.getTitle() != null ? new Completion(new String[]{course.getTitle()}) : null)
                 .description(course.getDescription())
                 .difficulty(course.getDifficulty())
                 .textbookId(course.getTextbook() != null ? course.getTextbook().getId() : null)
@@ -0,0 +1,186 @@
+package com.chineselearning.search.service;
+
+import com.chineselearning.exception.custom.InvalidRequestException;
+import com.chineselearning.search.dto.FederatedSearchResponse;
+import com.chineselearning.search.dto.SearchRequest;
+import com.chineselearning.search.dto.SearchResponse;
+import com.chineselearning.search.service.interfaces.SearchService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * One query over vocabulary, grammar topics and courses at once
+ *
+ * The three searches run in parallel on a bounded pool, so the latency is the
+ * slowest index rather than the sum. Each index has its own deadline; an index
+ * that misses it (or fails, or finds the pool full) is left out and the
+ * response is marked partial instead of failing.
+ *
+ * Relevance scores of different indexes are not comparable, so results are
+ * merged by reciprocal rank fusion: a hit at rank r in its own list scores
+ * 1 / (RRF_K + r), and the top hits of every type interleave.
+ *
+ * @author Senior Backend Architect
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FederatedSearchService {
+
+    public static final String VOCABULARY = "vocabulary";
+    public static final String GRAMMAR = "grammar";
+    public static final String COURSE = "course";
+
+    private static final int RRF_K = 60;
+    // Each index is asked for size hits and all of them are merged in memory
+    private static final int MAX_SIZE = 50;
+
+    private final VocabularySearchService vocabularySearchService;
+    private final GrammarSearchService grammarSearchService;
+    private final CourseSearchService courseSearchService;
+
+    @Value("${app.search.federated.threads:8}")
+    private int threads;
+
+    @Value("${app.search.federated.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.search.federated.timeout-ms:800}")
+    private long timeoutMs;
+
+    @Value("${app.search.federated.vocabulary-timeout-ms:${app.search.federated.timeout-ms:800}}")
+    private long vocabularyTimeoutMs;
+
+    @Value("${app.search.federated.grammar-timeout-ms:${app.search.federated.timeout-ms:800}}")
+    private long grammarTimeoutMs;
+
+    @Value("${app.search.federated.course-timeout-ms:${app.search.federated.timeout-ms:800}}")
+    private long courseTimeoutMs;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("search-fanout-"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Top size hits of each type for the query, merged into one ranked list
+     */
+    public FederatedSearchResponse search(String query, int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new InvalidRequestException("Size must be between 1 and " + MAX_SIZE, "size", size);
+        }
+        long startTime = System.currentTimeMillis();
+        SearchRequest request = SearchRequest.builder()
+                .query(query)
+                .page(0)
+                .size(size)
+                .build();
+
+        Map<String, Future<SearchResponse<?>>> futures = new LinkedHashMap<>();
+        List<String> failed = new ArrayList<>();
+        submit(futures, failed, VOCABULARY, vocabularySearchService, request);
+        submit(futures, failed, GRAMMAR, grammarSearchService, request);
+        submit(futures, failed, COURSE, courseSearchService, request);
+
+        List<FederatedSearchResponse.Hit> hits = new ArrayList<>();
+        Map<String, Long> totals = new LinkedHashMap<>();
+        List<String> timedOut = new ArrayList<>();
+        for (Map.Entry<String, Future<SearchResponse<?>>> entry : futures.entrySet()) {
+            String type = entry.getKey();
+            Future<SearchResponse<?>> future = entry.getValue();
+            // Deadlines count from the start, not from when this future is reached
+            long remaining = startTime + timeoutOf(type) - System.currentTimeMillis();
+            try {
+                SearchResponse<?> response = future.get(Math.max(0, remaining), TimeUnit.MILLISECONDS);
+                totals.put(type, response.getTotalHits());
+                addHits(hits, type, response);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                timedOut.add(type);
+                log.warn("Federated search: {} timed out after {} ms", type, timeoutOf(type));
+            } catch (ExecutionException e) {
+                failed.add(type);
+                log.warn("Federated search: {} failed: {}", type, e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                failed.add(type);
+            }
+        }
+
+        hits.sort(Comparator.comparingDouble(FederatedSearchResponse.Hit::getScore).reversed());
+
+        return FederatedSearchResponse.builder()
+                .results(hits)
+                .totalHits(totals)
+                .timedOut(timedOut)
+                .failed(failed)
+                .partial(!timedOut.isEmpty() || !failed.isEmpty())
+                .searchTimeMs(System.currentTimeMillis() - startTime)
+                .build();
+    }
+
+    private void submit(Map<String, Future<SearchResponse<?>>> futures, List<String> failed,
+                        String type, SearchService<?> service, SearchRequest request) {
+        try {
+            futures.put(type, executor.submit(() -> service.search(request)));
+        } catch (RejectedExecutionException e) {
+            // Pool and queue are full: answer with the other types rather than queue without bound
+            failed.add(type);
+            log.warn("Federated search: {} rejected, search pool saturated", type);
+        }
+    }
+
+    private static void addHits(List<FederatedSearchResponse.Hit> hits, String type, SearchResponse<?> response) {
+        if (response.getResults() == null) {
+            return;
+        }
+        int rank = 0;
+        for (Object document : response.getResults()) {
+            rank++;
+            hits.add(FederatedSearchResponse.Hit.builder()
+                    .type(type)
+                    .rank(rank)
+                    .score(1.0 / (RRF_K + rank))
+                    .document(document)
+                    .build());
+        }
+    }
+
+    private long timeoutOf(String type) {
+        if (VOCABULARY.equals(type)) {
+            return vocabularyTimeoutMs;
+        } else if (GRAMMAR.equals(type)) {
+            return grammarTimeoutMs;
+        } else if (COURSE.equals(type)) {
+            return courseTimeoutMs;
+        }
+        return timeoutMs;
+    }
+}
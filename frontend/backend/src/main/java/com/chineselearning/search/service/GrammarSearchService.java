@@ -3,17 +3,16 @@ package com.chineselearning.search.service;
 import com.chineselearning.search.document.GrammarTopicDocument;
 import com.chineselearning.search.dto.SearchRequest;
 import com.chineselearning.search.dto.SearchResponse;
-import com.chineselearning.search.repository.GrammarSearchRepository;
 import com.chineselearning.search.service.interfaces.SearchService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.query.SourceFilter;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Grammar Topic Search Service Implementation
@@ -26,32 +25,34 @@ import java.util.stream.Collectors;
 @Slf4j
 public class GrammarSearchService implements SearchService<GrammarTopicDocument> {
 
-    private final GrammarSearchRepository grammarSearchRepository;
+    // Lists show title, description and level; the full explanation is for the detail page
+    private static final SourceFilter LIST_SOURCE =
+            new FetchSourceFilter(null, new String[]{"searchText", "titleSuggest", "content"});
+
+    private final CompletionSuggester completionSuggester;
+    private final SearchResultCache searchResultCache;
+    private final ScoredSearcher scoredSearcher;
+    private final PointInTimeSearcher pointInTimeSearcher;
 
     @Override
     public SearchResponse<GrammarTopicDocument> search(SearchRequest request) {
-        long startTime = System.currentTimeMillis();
-        log.info("Grammar search started: query={}", request.getQuery());
-
-        Pageable pageable = PageRequest.of(request.getPage(), request.getSize());
-        Page<GrammarTopicDocument> searchResults;
-
-        if (request.getQuery() != null && !request.getQuery().isEmpty()) {
-            searchResults = grammarSearchRepository.searchAll(request.getQuery(), pageable);
-        } else {
-            searchResults = grammarSearchRepository.findAll(pageable);
+        if (request.getCursor() != null) {
+            SearchRequest canonical = request.canonical();
+            return pointInTimeSearcher.search(SearchIndexManager.GRAMMAR_TOPICS, GrammarTopicDocument.class,
+                    canonical, SearchQueryBuilder.grammar(canonical), LIST_SOURCE);
         }
+        return searchResultCache.get(SearchIndexManager.GRAMMAR_TOPICS, request, this::executeSearch);
+    }
 
-        long searchTime = System.currentTimeMillis() - startTime;
+    /**
+     * Live Elasticsearch query; request is already canonical (see SearchResultCache)
+     */
+    private SearchResponse<GrammarTopicDocument> executeSearch(SearchRequest request) {
+        log.info("Grammar search started: query={}", request.getQuery());
 
-        return SearchResponse.of(
-                searchResults.getContent(),
-                searchResults.getTotalElements(),
-                request.getPage(),
-                request.getSize(),
-                searchTime,
-                0.0f
-        );
+        Pageable pageable = PageRequest.of(request.getPage(), request.getSize());
+        return scoredSearcher.search(SearchIndexManager.GRAMMAR_TOPICS, GrammarTopicDocument.class,
+                SearchQueryBuilder.grammar(request), pageable, request.getMinScore(), LIST_SOURCE);
     }
 
     @Override
@@ -66,63 +67,34 @@ public class GrammarSearchService implements SearchService<GrammarTopicDocument>
 
     @Override
     public SearchResponse<GrammarTopicDocument> fuzzySearch(String keyword, int page, int size) {
-        return simpleSearch(keyword, page, size);
+        SearchRequest request = SearchRequest.builder()
+                .query(keyword)
+                .page(page)
+                .size(size)
+                .fuzzySearch(true)
+                .build();
+        return search(request);
     }
 
     @Override
     public List<String> getSuggestions(String prefix, int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        Page<GrammarTopicDocument> results = grammarSearchRepository
-                .findByTitleContainingIgnoreCase(prefix, pageable);
-
-        return results.stream()
-                .map(GrammarTopicDocument::getTitle)
-                .limit(limit)
-                .collect(Collectors.toList());
+        // Completion field on title; the matched title is the suggestion, no _source needed
+        return completionSuggester.suggest(SearchIndexManager.GRAMMAR_TOPICS, "titleSuggest", prefix, limit);
     }
 
     /**
      * Search by content
      */
     public SearchResponse<GrammarTopicDocument> searchByContent(String content, int page, int size) {
-        long startTime = System.currentTimeMillis();
-
-        Pageable pageable = PageRequest.of(page, size);
-        Page<GrammarTopicDocument> results = grammarSearchRepository
-                .findByContentContaining(content, pageable);
-
-        long searchTime = System.currentTimeMillis() - startTime;
-
-        return SearchResponse.of(
-                results.getContent(),
-                results.getTotalElements(),
-                page,
-                size,
-                searchTime,
-                0.0f
-        );
+        return scoredSearcher.search(SearchIndexManager.GRAMMAR_TOPICS, GrammarTopicDocument.class,
+                SearchQueryBuilder.allWords("content", content), PageRequest.of(page, size), null, LIST_SOURCE);
     }
 
     /**
      * Find by level
      */
     public SearchResponse<GrammarTopicDocument> findByLevel(String level, int page, int size) {
-        long startTime = System.currentTimeMillis();
-
-        Pageable pageable = PageRequest.of(page, size);
-        Page<GrammarTopicDocument> results = grammarSearchRepository
-                .findByLevel(level, pageable);
-
-        long searchTime = System.currentTimeMillis() - startTime;
-
-        return SearchResponse.of(
-                results.getContent(),
-                results.getTotalElements(),
-                page,
-                size,
-                searchTime,
-                0.0f
-        );
+        return scoredSearcher.search(SearchIndexManager.GRAMMAR_TOPICS, GrammarTopicDocument.class,
+                SearchQueryBuilder.exactly("level", level), PageRequest.of(page, size), null, LIST_SOURCE);
     }
 }
-
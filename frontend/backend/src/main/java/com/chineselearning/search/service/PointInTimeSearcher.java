@@ -0,0 +1,175 @@
+package com.chineselearning.search.service;
+
+import com.chineselearning.exception.custom.InvalidRequestException;
+import com.chineselearning.search.dto.SearchCursor;
+import com.chineselearning.search.dto.SearchRequest;
+import com.chineselearning.search.dto.SearchResponse;
+import com.chineselearning.search.lucene.LuceneSearchEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query.PointInTime;
+import org.springframework.data.elasticsearch.core.query.SourceFilter;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Cursor-mode search: point-in-time + search_after
+ *
+ * from/size pagination re-collects every skipped hit on each page and stops at
+ * index.max_result_window (10,000). Here the first page opens a point-in-time
+ * (a frozen view of the index), and every following page asks for the hits
+ * after the sort values of the previous page's last hit, so page 1,000 costs
+ * the same as page 1 and never shifts when documents change meanwhile.
+ *
+ * Hits are sorted by (_score desc, id asc), or (sortBy, id asc) when a sort
+ * field is given; id makes the order total. The total is counted once, on the
+ * first page, and carried in the cursor. The point-in-time is closed after
+ * the last page, otherwise it expires keep-alive after the last request.
+ *
+ * @author Senior Backend Architect
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PointInTimeSearcher {
+
+    private static final String NO_POINT_IN_TIME = "-";
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final LuceneSearchEngine luceneSearchEngine;
+
+    @Value("${app.elasticsearch.cursor.keep-alive-ms:60000}")
+    private long keepAliveMs;
+
+    /**
+     * One page of the query from queryBuilder on index, continuing after request.getCursor()
+     */
+    public <T> SearchResponse<T> search(String index, Class<T> type, SearchRequest request,
+                                        NativeQueryBuilder queryBuilder, SourceFilter sourceFilter) {
+        long startTime = System.currentTimeMillis();
+        Sort sort = sortOf(request);
+        NativeQuery firstPage = queryBuilder.build();
+        // Query.toString() is the JSON body
+        String queryHash = hash(firstPage.getQuery() + "|" + firstPage.getFilter() + "|" + sort + "|"
+                + request.getMinScore());
+        int size = request.getSize();
+
+        SearchCursor cursor = SearchCursor.decode(request.getCursor());
+        if (cursor != null && !cursor.getQueryHash().equals(queryHash)) {
+            throw new InvalidRequestException("Cursor belongs to a different search", "cursor", request.getCursor());
+        }
+        Duration keepAlive = Duration.ofMillis(keepAliveMs);
+        String pointInTimeId = cursor != null
+                ? cursor.getPointInTimeId()
+                : openPointInTime(index, keepAlive);
+
+        // Facets are counted once, with the total, on the first page
+        NativeQuery query = cursor == null
+                ? firstPage
+                : NativeQuery.builder().withQuery(firstPage.getQuery()).withFilter(firstPage.getFilter()).build();
+        query.setPageable(PageRequest.of(0, size));
+        query.addSort(sort);
+        query.addSourceFilter(sourceFilter);
+        if (request.getMinScore() != null) {
+            query.setMinScore(request.getMinScore());
+        }
+        if (!luceneSearchEngine.isEnabled()) {
+            query.setPointInTime(new PointInTime(pointInTimeId, keepAlive));
+        }
+        if (cursor != null) {
+            query.setSearchAfter(cursor.getSearchAfter());
+            query.setTrackTotalHits(false);
+        } else {
+            query.setTrackTotalHits(true);
+        }
+
+        SearchHits<T> hits;
+        try {
+            hits = luceneSearchEngine.isEnabled()
+                    ? luceneSearchEngine.search(query, type, index)
+                    : elasticsearchOperations.search(query, type);
+        } catch (RuntimeException e) {
+            if (cursor == null) {
+                closeQuietly(pointInTimeId);
+                throw e;
+            }
+            log.warn("Cursor search on {} failed: {}", index, e.getMessage());
+            throw new InvalidRequestException("Cursor expired or invalid, start the search again",
+                    "cursor", request.getCursor());
+        }
+
+        // Elasticsearch may hand out a new id for the same point-in-time
+        String nextPointInTimeId = hits.getPointInTimeId() != null ? hits.getPointInTimeId() : pointInTimeId;
+        int page = cursor != null ? cursor.getPage() + 1 : 0;
+        long total = cursor != null ? cursor.getTotalHits() : hits.getTotalHits();
+
+        List<SearchHit<T>> pageHits = hits.getSearchHits();
+        String nextCursor = null;
+        if (pageHits.size() == size && (long) (page + 1) * size < total) {
+            SearchHit<T> last = pageHits.get(pageHits.size() - 1);
+            nextCursor = SearchCursor.encode(nextPointInTimeId, page, total, queryHash, last.getSortValues());
+        } else {
+            closeQuietly(nextPointInTimeId);
+        }
+
+        SearchResponse<T> response = ScoredSearcher.response(hits, total, page, size, startTime);
+        response.setNextCursor(nextCursor);
+        return response;
+    }
+
+    private static Sort sortOf(SearchRequest request) {
+        Sort tiebreak = Sort.by(Sort.Direction.ASC, "id");
+        if (request.getSortBy() != null) {
+            Sort.Direction direction = "DESC".equals(request.getSortDirection())
+                    ? Sort.Direction.DESC
+                    : Sort.Direction.ASC;
+            return Sort.by(direction, request.getSortBy()).and(tiebreak);
+        }
+        return Sort.by(Sort.Direction.DESC, "_score").and(tiebreak);
+    }
+
+    /**
+     * The embedded engine has no point-in-time; its cursor pages search the current index
+     */
+    private String openPointInTime(String index, Duration keepAlive) {
+        if (luceneSearchEngine.isEnabled()) {
+            return NO_POINT_IN_TIME;
+        }
+        return elasticsearchOperations.openPointInTime(IndexCoordinates.of(index), keepAlive);
+    }
+
+    private void closeQuietly(String pointInTimeId) {
+        if (NO_POINT_IN_TIME.equals(pointInTimeId)) {
+            return;
+        }
+        try {
+            elasticsearchOperations.closePointInTime(pointInTimeId);
+        } catch (Exception e) {
+            log.debug("Could not close point-in-time: {}", e.getMessage());
+        }
+    }
+
+    private static String hash(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.chineselearning.search.service;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.LongTermsBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import com.chineselearning.search.dto.SearchResponse;
+import com.chineselearning.search.lucene.LuceneSearchEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregation;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.SourceFilter;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Page-mode search through ElasticsearchOperations
+ *
+ * Unlike the repository Page methods this keeps the hit metadata, so the
+ * response carries the real max score, and it lets the caller cut off weak
+ * hits server side (min_score) and fetch only the _source fields a result
+ * list shows. Queries, and the facet aggregations read back here, come from
+ * {@link SearchQueryBuilder}. With app.search.engine=lucene the same query
+ * runs on the embedded {@link LuceneSearchEngine}.
+ *
+ * @author Senior Backend Architect
+ */
+@Component
+@RequiredArgsConstructor
+public class ScoredSearcher {
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final LuceneSearchEngine luceneSearchEngine;
+
+    /**
+     * One page of the query from queryBuilder on index; minScore may be null
+     */
+    public <T> SearchResponse<T> search(String index, Class<T> type, NativeQueryBuilder queryBuilder,
+                                        Pageable pageable, Float minScore, SourceFilter sourceFilter) {
+        long startTime = System.currentTimeMillis();
+
+        NativeQuery query = queryBuilder.build();
+        query.setPageable(pageable);
+        query.addSourceFilter(sourceFilter);
+        if (minScore != null) {
+            query.setMinScore(minScore);
+        }
+        if (pageable.getSort().isSorted()) {
+            // Scores are skipped when sorting by a field unless asked for
+            query.setTrackScores(true);
+        }
+
+        SearchHits<T> hits = luceneSearchEngine.isEnabled()
+                ? luceneSearchEngine.search(query, type, index)
+                : elasticsearchOperations.search(query, type, IndexCoordinates.of(index));
+        return response(hits, hits.getTotalHits(), pageable.getPageNumber(), pageable.getPageSize(), startTime);
+    }
+
+    /**
+     * Response for one page of hits, with the max score of the hits and their facet counts
+     */
+    static <T> SearchResponse<T> response(SearchHits<T> hits, long totalHits, int page, int size, long startTime) {
+        float maxScore = hits.getMaxScore();
+        SearchResponse<T> response = SearchResponse.of(
+                hits.getSearchHits().stream().map(SearchHit::getContent).collect(Collectors.toList()),
+                totalHits,
+                page,
+                size,
+                System.currentTimeMillis() - startTime,
+                Float.isNaN(maxScore) ? 0.0f : maxScore
+        );
+        if (hits.hasAggregations()) {
+            response.setFacets(facets((ElasticsearchAggregations) hits.getAggregations()));
+        }
+        return response;
+    }
+
+    /**
+     * Facet field -> value -> hit count, from the aggregations of SearchQueryBuilder
+     */
+    private static Map<String, Map<String, Long>> facets(ElasticsearchAggregations aggregations) {
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        for (ElasticsearchAggregation aggregation : aggregations.aggregations()) {
+            Aggregate values = aggregation.aggregation().getAggregate()
+                    .filter().aggregations().get(SearchQueryBuilder.FACET_VALUES);
+            Map<String, Long> counts = new LinkedHashMap<>();
+            if (values.isSterms()) {
+                for (StringTermsBucket bucket : values.sterms().buckets().array()) {
+                    counts.put(bucket.key().stringValue(), bucket.docCount());
+                }
+            } else if (values.isLterms()) {
+                for (LongTermsBucket bucket : values.lterms().buckets().array()) {
+                    counts.put(String.valueOf(bucket.key()), bucket.docCount());
+                }
+            }
+            facets.put(aggregation.aggregation().getName(), counts);
+        }
+        return facets;
+    }
+}
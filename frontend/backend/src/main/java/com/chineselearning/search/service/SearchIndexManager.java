@@ -0,0 +1,245 @@
+package com.chineselearning.search.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Time;
+import com.chineselearning.search.lucene.LuceneSearchEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Versioned Elasticsearch indexes behind stable aliases
+ *
+ * Searches and single-document writes use the alias names (vocabularies,
+ * grammar_topics, courses). A full rebuild creates a new index, e.g.
+ * vocabularies_20240101120000, from the settings file in
+ * resources/elasticsearch with refresh disabled and no replicas, bulk loads it,
+ * force-merges it to one segment, restores refresh_interval and replicas
+ * from the file and then moves the alias in one atomic _aliases call. Queries
+ * never see a half-built index; the previous index is deleted afterwards.
+ *
+ * Writes keep going to the alias (the old index) while the new one loads.
+ * Their ids are recorded through {@link #recordChange} and replayed from the
+ * database into the new index right before the swap, and once more right
+ * after it for writes that raced with the swap; deletes included, which the
+ * updated_at watermark of the incremental sync cannot see.
+ *
+ * A concrete index that still has the alias name (created before aliases were
+ * used, or auto-created by a write) is removed in the same _aliases call.
+ *
+ * With app.search.engine=lucene, rebuilds go to {@link LuceneSearchEngine}
+ * instead, which swaps whole index directories the same way.
+ *
+ * @author Senior Backend Architect
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexManager {
+
+    public static final String VOCABULARIES = "vocabularies";
+    public static final String GRAMMAR_TOPICS = "grammar_topics";
+    public static final String COURSES = "courses";
+    public static final List<String> ALIASES = List.of(VOCABULARIES, GRAMMAR_TOPICS, COURSES);
+
+    private static final Map<String, String> SETTINGS_FILES = Map.of(
+            VOCABULARIES, "elasticsearch/vocabulary-settings.json",
+            GRAMMAR_TOPICS, "elasticsearch/grammar-topic-settings.json",
+            COURSES, "elasticsearch/course-settings.json"
+    );
+
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchClient elasticsearchClient;
+    private final ObjectMapper objectMapper;
+    private final LuceneSearchEngine luceneSearchEngine;
+
+    private final Map<String, Object> rebuildLocks = new ConcurrentHashMap<>();
+
+    // Ids written through each alias while a rebuild of it is loading
+    private final Map<String, Set<Long>> changedDuringRebuild = new ConcurrentHashMap<>();
+
+    /**
+     * Note a write through alias; no-op unless a rebuild of alias is loading. Call before writing.
+     */
+    public void recordChange(String alias, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        changedDuringRebuild.computeIfPresent(alias, (a, changed) -> {
+            changed.addAll(ids);
+            return changed;
+        });
+    }
+
+    /**
+     * Build a new index for alias with loader, then switch the alias to it
+     *
+     * @param loader fills the given (not yet visible) index and returns its result
+     * @param replay writes the current database state of the given ids (upsert or delete) into the index
+     */
+    public <T> T rebuild(String alias, Function<IndexCoordinates, T> loader,
+                         BiConsumer<IndexCoordinates, Set<Long>> replay) {
+        // One rebuild per alias at a time (startup, nightly and manual syncs may overlap)
+        synchronized (rebuildLocks.computeIfAbsent(alias, a -> new Object())) {
+            if (luceneSearchEngine.isEnabled()) {
+                return luceneSearchEngine.rebuild(alias, name -> loader.apply(IndexCoordinates.of(name)));
+            }
+            ObjectNode file = readSettingsFile(alias);
+            ObjectNode settings = (ObjectNode) file.get("settings");
+            String refreshInterval = settings.path("refresh_interval").asText("1s");
+            String replicas = settings.path("number_of_replicas").asText("1");
+
+            String name = alias + "_" + LocalDateTime.now().format(VERSION_FORMAT);
+            IndexCoordinates index = IndexCoordinates.of(name);
+
+            // Bulk-load settings: no refreshes, no replica copies while writing
+            ObjectNode loadSettings = settings.deepCopy();
+            loadSettings.put("refresh_interval", "-1");
+            loadSettings.put("number_of_replicas", 0);
+            @SuppressWarnings("unchecked")
+            Map<String, Object> settingsMap = objectMapper.convertValue(loadSettings, Map.class);
+            Document mapping = Document.parse(file.get("mappings").toString());
+            elasticsearchOperations.indexOps(index).create(settingsMap, mapping);
+            log.info("Created index {} for alias {}", name, alias);
+
+            T result;
+            changedDuringRebuild.put(alias, new HashSet<>());
+            try {
+                result = loader.apply(index);
+                replayChanges(alias, index, replay);
+                finishBulkLoad(name, refreshInterval, replicas);
+                swapAlias(alias, name);
+            } catch (RuntimeException e) {
+                changedDuringRebuild.remove(alias);
+                log.error("Rebuild of {} failed, dropping {}", alias, name);
+                elasticsearchOperations.indexOps(index).delete();
+                throw e;
+            }
+            // Writes recorded after the first replay may have gone to the old index
+            try {
+                replayChanges(alias, index, replay);
+            } finally {
+                changedDuringRebuild.remove(alias);
+            }
+            return result;
+        }
+    }
+
+    private void replayChanges(String alias, IndexCoordinates index, BiConsumer<IndexCoordinates, Set<Long>> replay) {
+        Set<Long> ids = new HashSet<>();
+        changedDuringRebuild.computeIfPresent(alias, (a, changed) -> {
+            ids.addAll(changed);
+            changed.clear();
+            return changed;
+        });
+        if (!ids.isEmpty()) {
+            log.info("Replaying {} changes made to {} during the rebuild into {}", ids.size(), alias,
+                    index.getIndexName());
+            replay.accept(index, ids);
+        }
+    }
+
+    private void finishBulkLoad(String name, String refreshInterval, String replicas) {
+        try {
+            elasticsearchClient.indices().forcemerge(f -> f.index(name).maxNumSegments(1L));
+            elasticsearchClient.indices().putSettings(p -> p
+                    .index(name)
+                    .settings(s -> s
+                            .refreshInterval(Time.of(t -> t.time(refreshInterval)))
+                            .numberOfReplicas(replicas)));
+            elasticsearchClient.indices().refresh(r -> r.index(name));
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not finish bulk load of " + name, e);
+        }
+    }
+
+    /**
+     * Point alias at name only, dropping whatever it pointed at before
+     */
+    private void swapAlias(String alias, String name) {
+        IndexOperations aliasOps = elasticsearchOperations.indexOps(IndexCoordinates.of(alias));
+        List<String> previous = new ArrayList<>();
+        boolean legacyIndex = false;
+        try {
+            if (elasticsearchClient.indices().existsAlias(e -> e.name(alias)).value()) {
+                previous.addAll(aliasOps.getAliases(alias).keySet());
+            } else {
+                legacyIndex = aliasOps.exists();
+            }
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not read alias " + alias, e);
+        }
+
+        AliasActions actions = new AliasActions(new AliasAction.Add(AliasActionParameters.builder()
+                .withIndices(name)
+                .withAliases(alias)
+                .withIsWriteIndex(true)
+                .build()));
+        for (String old : previous) {
+            actions.add(new AliasAction.Remove(AliasActionParameters.builder()
+                    .withIndices(old)
+                    .withAliases(alias)
+                    .build()));
+        }
+        if (legacyIndex) {
+            actions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder()
+                    .withIndices(alias)
+                    .build()));
+        }
+        aliasOps.alias(actions);
+        log.info("Alias {} now points to {}{}", alias, name, previous.isEmpty() ? "" : " (was " + previous + ")");
+
+        for (String old : previous) {
+            if (!old.equals(name)) {
+                elasticsearchOperations.indexOps(IndexCoordinates.of(old)).delete();
+            }
+        }
+    }
+
+    /**
+     * Classpath location of the settings and mappings of alias
+     */
+    public static String settingsFile(String alias) {
+        String path = SETTINGS_FILES.get(alias);
+        if (path == null) {
+            throw new IllegalArgumentException("No index settings for " + alias);
+        }
+        return path;
+    }
+
+    private ObjectNode readSettingsFile(String alias) {
+        String path = settingsFile(alias);
+        try (InputStream in = new ClassPathResource(path).getInputStream()) {
+            return (ObjectNode) objectMapper.readTree(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read " + path, e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.chineselearning.search.service;
+
+import com.chineselearning.domain.SearchOutboxEntry;
+import com.chineselearning.domain.SearchOutboxEntry.Operation;
+import com.chineselearning.repository.SearchOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Records search index changes in the outbox table
+ *
+ * Must be called inside the transaction that writes the entity, so the change
+ * and its outbox entry commit or roll back together; {@link SearchOutboxIndexer}
+ * applies them to Elasticsearch afterwards.
+ *
+ * The bulk variants insert with one JDBC batch: IDENTITY ids disable Hibernate
+ * insert batching, and an import can touch many thousands of rows.
+ *
+ * @author Senior Backend Architect
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class SearchOutbox {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String INSERT_SQL =
+            "INSERT INTO search_outbox (entity, entity_id, operation, created_at) VALUES (?, ?, ?, ?)";
+
+    private final SearchOutboxRepository outboxRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public void upsert(String entity, Long id) {
+        outboxRepository.save(entry(entity, id, Operation.UPSERT));
+    }
+
+    public void upsertAll(String entity, Collection<Long> ids) {
+        insertAll(entity, ids, Operation.UPSERT);
+    }
+
+    public void delete(String entity, Long id) {
+        outboxRepository.save(entry(entity, id, Operation.DELETE));
+    }
+
+    public void deleteAll(String entity, Collection<Long> ids) {
+        insertAll(entity, ids, Operation.DELETE);
+    }
+
+    private void insertAll(String entity, Collection<Long> ids, Operation operation) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        // Pending JPA entries first, so outbox ids keep the order the changes were made in
+        outboxRepository.flush();
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, ids, BATCH_SIZE, (ps, id) -> {
+            ps.setString(1, entity);
+            ps.setLong(2, id);
+            ps.setString(3, operation.name());
+            ps.setTimestamp(4, createdAt);
+        });
+    }
+
+    private static SearchOutboxEntry entry(String entity, Long id, Operation operation) {
+        return SearchOutboxEntry.builder()
+                .entity(entity)
+                .entityId(id)
+                .operation(operation)
+                .build();
+    }
+}
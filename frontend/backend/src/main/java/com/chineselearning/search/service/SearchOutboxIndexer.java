@@ -0,0 +1,175 @@
+package com.chineselearning.search.service;
+
+import com.chineselearning.domain.SearchOutboxEntry;
+import com.chineselearning.repository.SearchOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the search outbox into Elasticsearch
+ *
+ * Each batch is locked with FOR UPDATE SKIP LOCKED, so several instances can
+ * drain in parallel without applying an entry twice. Entries for the same
+ * (entity, id) collapse to the last operation, and the remaining changes go
+ * out as one bulk request per entity. Entries are deleted in the same
+ * transaction once applied; if Elasticsearch is down the transaction rolls
+ * back and the batch is retried on the next poll. Documents rejected after
+ * the bulk retries keep their entries, so they are retried as well.
+ *
+ * Keep-up lag is published as gauges: search.outbox.pending (entries) and
+ * search.outbox.lag (age of the oldest pending entry).
+ *
+ * @author Senior Backend Architect
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SearchOutboxIndexer {
+
+    private final SearchOutboxRepository outboxRepository;
+    private final DataSyncService dataSyncService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMs = new AtomicLong();
+    private Counter appliedCounter;
+    private Counter coalescedCounter;
+    private Timer delayTimer;
+
+    @Value("${app.elasticsearch.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.elasticsearch.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.elasticsearch.outbox.max-batches-per-poll:20}")
+    private int maxBatchesPerPoll;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("search.outbox.pending", pending, AtomicLong::get)
+                .description("Outbox entries not yet applied to Elasticsearch")
+                .register(meterRegistry);
+        Gauge.builder("search.outbox.lag", lagMs, v -> v.get() / 1000.0)
+                .description("Age of the oldest pending outbox entry")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        appliedCounter = meterRegistry.counter("search.outbox.applied");
+        coalescedCounter = meterRegistry.counter("search.outbox.coalesced");
+        delayTimer = meterRegistry.timer("search.outbox.delay");
+    }
+
+    @Scheduled(fixedDelayString = "${app.elasticsearch.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            for (int i = 0; i < maxBatchesPerPoll; i++) {
+                Integer drained = transactionTemplate.execute(status -> drainBatch());
+                if (drained == null || drained < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error applying search outbox", e);
+        } finally {
+            updateBacklog();
+        }
+    }
+
+    /**
+     * Apply one batch; runs inside a transaction holding the row locks
+     *
+     * @return number of outbox entries consumed; fewer than locked when some failed, which ends the poll
+     */
+    private int drainBatch() {
+        List<SearchOutboxEntry> entries = outboxRepository.lockNextBatch(batchSize);
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        // Last operation per (entity, id) wins, in outbox order
+        Map<String, Map<Long, SearchOutboxEntry.Operation>> changes = new LinkedHashMap<>();
+        for (SearchOutboxEntry entry : entries) {
+            changes.computeIfAbsent(entry.getEntity(), e -> new LinkedHashMap<>())
+                    .put(entry.getEntityId(), entry.getOperation());
+        }
+
+        int distinct = 0;
+        Map<String, Set<Long>> failed = new HashMap<>();
+        for (Map.Entry<String, Map<Long, SearchOutboxEntry.Operation>> change : changes.entrySet()) {
+            Set<Long> upserts = new LinkedHashSet<>();
+            Set<Long> deletes = new LinkedHashSet<>();
+            for (Map.Entry<Long, SearchOutboxEntry.Operation> op : change.getValue().entrySet()) {
+                if (op.getValue() == SearchOutboxEntry.Operation.DELETE) {
+                    deletes.add(op.getKey());
+                } else {
+                    upserts.add(op.getKey());
+                }
+            }
+            Set<Long> notApplied = dataSyncService.applyChanges(change.getKey(), upserts, deletes);
+            if (!notApplied.isEmpty()) {
+                failed.put(change.getKey(), notApplied);
+            }
+            distinct += change.getValue().size() - notApplied.size();
+        }
+
+        // Only acknowledged changes leave the outbox; the rest stay for the next poll
+        List<Long> appliedIds = new ArrayList<>(entries.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (SearchOutboxEntry entry : entries) {
+            if (failed.getOrDefault(entry.getEntity(), Set.of()).contains(entry.getEntityId())) {
+                continue;
+            }
+            appliedIds.add(entry.getId());
+            if (entry.getCreatedAt() != null) {
+                delayTimer.record(Duration.between(entry.getCreatedAt(), now).toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+        outboxRepository.deleteAllByIdInBatch(appliedIds);
+
+        appliedCounter.increment(distinct);
+        coalescedCounter.increment(appliedIds.size() - distinct);
+        if (appliedIds.size() < entries.size()) {
+            log.warn("Kept {} search outbox entries whose documents were not indexed",
+                    entries.size() - appliedIds.size());
+        }
+        log.debug("Applied {} search outbox entries ({} distinct changes)", appliedIds.size(), distinct);
+        return appliedIds.size();
+    }
+
+    private void updateBacklog() {
+        try {
+            SearchOutboxRepository.Backlog backlog = outboxRepository.fetchBacklog();
+            pending.set(backlog.getPending());
+            lagMs.set(backlog.getOldest() != null
+                    ? Math.max(0, Duration.between(backlog.getOldest(), LocalDateTime.now()).toMillis())
+                    : 0);
+        } catch (Exception e) {
+            log.warn("Could not read search outbox backlog: {}", e.getMessage());
+        }
+    }
+}
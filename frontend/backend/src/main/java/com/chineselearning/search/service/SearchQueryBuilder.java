@@ -0,0 +1,218 @@
+package com.chineselearning.search.service;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.chineselearning.search.dto.SearchRequest;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Elasticsearch queries for a canonical {@link SearchRequest}
+ *
+ * The free-text query is the only scoring clause (must). Every structured
+ * field that is set becomes a filter clause: filters do not score, are cached
+ * by Elasticsearch as per-segment bitsets and are intersected before any
+ * scoring happens, so each extra filter narrows the work instead of being
+ * dropped. Without a free-text query the result is a filter-only bool query,
+ * or match_all when nothing is set.
+ *
+ * With request.facets the same request also counts hits per value of the
+ * index's facet fields. Filters on facet fields then move to post_filter, and
+ * each facet is counted under every filter except its own, so the counts are
+ * what selecting that value next would return.
+ *
+ * The single-field searches (hanzi, pinyin, meaning, level...) are built
+ * here too, so they run unchanged on either search engine.
+ *
+ * @author Senior Backend Architect
+ */
+public final class SearchQueryBuilder {
+
+    public static final String FACET_VALUES = "values";
+
+    private static final List<String> VOCABULARY_FIELDS =
+            List.of("hanzi^3", "pinyin^2", "meaning^2", "meaningFolded", "example");
+    private static final List<String> GRAMMAR_FIELDS = List.of("title^3", "description^2", "content");
+    private static final List<String> COURSE_FIELDS = List.of("title^3", "description^2", "textbookName");
+
+    // Facet field -> number of values returned
+    private static final Map<String, Integer> VOCABULARY_FACETS = orderedMap("hskLevel", 10, "variant", 5, "tags", 50);
+    private static final Map<String, Integer> GRAMMAR_FACETS = orderedMap("level", 10);
+    private static final Map<String, Integer> COURSE_FACETS = orderedMap("difficulty", 10);
+
+    private SearchQueryBuilder() {
+    }
+
+    /**
+     * Text over hanzi, pinyin and meaning; filters variant, hskLevel and tags (any of)
+     */
+    public static NativeQueryBuilder vocabulary(SearchRequest request) {
+        Map<String, Query> filters = new LinkedHashMap<>();
+        term(filters, "variant", request.getVariant());
+        term(filters, "hskLevel", request.getHskLevel());
+        terms(filters, "tags", request.getTags());
+        return build(request, VOCABULARY_FIELDS, filters, VOCABULARY_FACETS);
+    }
+
+    /**
+     * Text over title, description and content; filters grammarLevel
+     */
+    public static NativeQueryBuilder grammar(SearchRequest request) {
+        Map<String, Query> filters = new LinkedHashMap<>();
+        term(filters, "level", request.getGrammarLevel());
+        return build(request, GRAMMAR_FIELDS, filters, GRAMMAR_FACETS);
+    }
+
+    /**
+     * Text over title, description and textbook; filters difficulty, courseLevel and textbookId
+     */
+    public static NativeQueryBuilder course(SearchRequest request) {
+        Map<String, Query> filters = new LinkedHashMap<>();
+        term(filters, "difficulty", request.getDifficulty());
+        term(filters, "level", request.getCourseLevel());
+        term(filters, "textbookId", request.getTextbookId());
+        return build(request, COURSE_FIELDS, filters, COURSE_FACETS);
+    }
+
+    /**
+     * Vocabulary whose hanzi contains the given characters
+     */
+    public static NativeQueryBuilder hanziContaining(String hanzi) {
+        String pattern = "*" + hanzi.replaceAll("([*?\\\\])", "\\\\$1") + "*";
+        return NativeQuery.builder()
+                .withQuery(Query.of(q -> q.wildcard(w -> w.field("hanzi.keyword").value(pattern))));
+    }
+
+    /**
+     * Compacted pinyin ("nihao", "ni3hao3", "nh"): a prefix of the tone-free or numeric
+     * form, or exactly the initials
+     */
+    public static NativeQueryBuilder compactPinyin(String compactPinyin) {
+        return NativeQuery.builder().withQuery(Query.of(q -> q.bool(b -> b
+                .should(s -> s.prefix(p -> p.field("pinyinPlain").value(compactPinyin)))
+                .should(s -> s.prefix(p -> p.field("pinyinNumeric").value(compactPinyin)))
+                .should(s -> s.term(t -> t.field("pinyinInitials").value(compactPinyin)))
+                .minimumShouldMatch("1"))));
+    }
+
+    /**
+     * Every word of text in field
+     */
+    public static NativeQueryBuilder allWords(String field, String text) {
+        return NativeQuery.builder()
+                .withQuery(Query.of(q -> q.match(m -> m.field(field).query(text).operator(Operator.And))));
+    }
+
+    /**
+     * Exact value of a keyword or number field, as a filter
+     */
+    public static NativeQueryBuilder exactly(String field, Object value) {
+        Map<String, Query> filters = new LinkedHashMap<>();
+        term(filters, field, value);
+        return NativeQuery.builder().withQuery(bool(null, filters.values()));
+    }
+
+    private static NativeQueryBuilder build(SearchRequest request, List<String> fields,
+                                            Map<String, Query> filters, Map<String, Integer> facets) {
+        Query text = text(request, fields);
+        NativeQueryBuilder builder = NativeQuery.builder();
+        if (!Boolean.TRUE.equals(request.getFacets())) {
+            return builder.withQuery(bool(text, filters.values()));
+        }
+
+        List<Query> queryFilters = new ArrayList<>();
+        Map<String, Query> facetFilters = new LinkedHashMap<>();
+        for (Map.Entry<String, Query> filter : filters.entrySet()) {
+            if (facets.containsKey(filter.getKey())) {
+                facetFilters.put(filter.getKey(), filter.getValue());
+            } else {
+                queryFilters.add(filter.getValue());
+            }
+        }
+        builder.withQuery(bool(text, queryFilters));
+        if (!facetFilters.isEmpty()) {
+            builder.withFilter(bool(null, facetFilters.values()));
+        }
+        for (Map.Entry<String, Integer> facet : facets.entrySet()) {
+            List<Query> others = new ArrayList<>();
+            for (Map.Entry<String, Query> filter : facetFilters.entrySet()) {
+                if (!filter.getKey().equals(facet.getKey())) {
+                    others.add(filter.getValue());
+                }
+            }
+            Aggregation values = Aggregation.of(a -> a.terms(t -> t.field(facet.getKey()).size(facet.getValue())));
+            builder.withAggregation(facet.getKey(), Aggregation.of(a -> a
+                    .filter(bool(null, others))
+                    .aggregations(FACET_VALUES, values)));
+        }
+        return builder;
+    }
+
+    private static Query text(SearchRequest request, List<String> fields) {
+        if (request.getQuery() == null || request.getQuery().isEmpty()) {
+            return null;
+        }
+        String fuzziness = request.getFuzzySearch() == null || request.getFuzzySearch() ? "AUTO" : "0";
+        return Query.of(q -> q.multiMatch(mm -> mm
+                .query(request.getQuery())
+                .fields(fields)
+                .fuzziness(fuzziness)));
+    }
+
+    private static Query bool(Query text, Collection<Query> filters) {
+        if (text == null && filters.isEmpty()) {
+            return Query.of(q -> q.matchAll(m -> m));
+        }
+        return Query.of(q -> q.bool(b -> {
+            if (text != null) {
+                b.must(text);
+            }
+            if (!filters.isEmpty()) {
+                b.filter(new ArrayList<>(filters));
+            }
+            return b;
+        }));
+    }
+
+    private static void term(Map<String, Query> filters, String field, Object value) {
+        if (value == null) {
+            return;
+        }
+        FieldValue fieldValue = value instanceof Number
+                ? FieldValue.of(((Number) value).longValue())
+                : FieldValue.of(value.toString());
+        filters.put(field, Query.of(q -> q.term(t -> t.field(field).value(fieldValue))));
+    }
+
+    private static void terms(Map<String, Query> filters, String field, String[] values) {
+        if (values == null || values.length == 0) {
+            return;
+        }
+        List<FieldValue> fieldValues = Arrays.stream(values)
+                .filter(Objects::nonNull)
+                .map(FieldValue::of)
+                .collect(Collectors.toList());
+        if (!fieldValues.isEmpty()) {
+            filters.put(field, Query.of(q -> q.terms(t -> t.field(field).terms(v -> v.value(fieldValues)))));
+        }
+    }
+
+    private static Map<String, Integer> orderedMap(Object... entries) {
+        Map<String, Integer> map = new LinkedHashMap<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            map.put((String) entries[i], (Integer) entries[i + 1]);
+        }
+        return map;
+    }
+}
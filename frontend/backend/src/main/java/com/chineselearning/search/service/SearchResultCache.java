@@ -0,0 +1,136 @@
+package com.chineselearning.search.service;
+
+import com.chineselearning.cache.SingleFlight;
+import com.chineselearning.search.dto.SearchRequest;
+import com.chineselearning.search.dto.SearchResponse;
+import com.chineselearning.search.lucene.LuceneSearchEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * Redis cache of search result pages
+ *
+ * Entries are keyed by index, index generation and the hash of the canonical
+ * {@link SearchRequest}; on a miss the canonical request is what runs, so a
+ * cached page is exactly what a live query would return. Every write to an
+ * index (outbox flush, incremental or full sync) refreshes it and then bumps
+ * its generation in Redis, so all instances stop reading the older entries at
+ * once; those simply expire with the cache TTL.
+ *
+ * Concurrent identical requests (same index and canonical hash) are coalesced:
+ * one of them does the lookup and, on a miss, the search; the others share
+ * its result. This holds with the cache disabled or Redis down as well.
+ *
+ * If Redis is unavailable the search runs uncached.
+ *
+ * @author Senior Backend Architect
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SearchResultCache {
+
+    public static final String CACHE_NAME = "search-results";
+
+    private static final String GENERATION_KEY = "chinese-learning::search-generation::";
+
+    private final CacheManager cacheManager;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final LuceneSearchEngine luceneSearchEngine;
+    private final SingleFlight singleFlight;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.elasticsearch.result-cache.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Cached page for the request, or the result of search on the canonical request
+     */
+    public <T> SearchResponse<T> get(String index, SearchRequest request,
+                                     Function<SearchRequest, SearchResponse<T>> search) {
+        SearchRequest canonical = request.canonical();
+        String hash = canonical.canonicalHash();
+        return singleFlight.execute("search:" + index, hash, () -> lookup(index, canonical, hash, search));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> SearchResponse<T> lookup(String index, SearchRequest canonical, String hash,
+                                         Function<SearchRequest, SearchResponse<T>> search) {
+        if (!enabled) {
+            return search.apply(canonical);
+        }
+
+        long startTime = System.currentTimeMillis();
+        String key;
+        Cache cache;
+        SearchResponse<T> cached;
+        try {
+            key = index + ":" + generation(index) + ":" + hash;
+            cache = cacheManager.getCache(CACHE_NAME);
+            cached = cache != null ? cache.get(key, SearchResponse.class) : null;
+        } catch (Exception e) {
+            log.warn("Search result cache unavailable for {}: {}", index, e.getMessage());
+            count(index, "error");
+            return search.apply(canonical);
+        }
+
+        if (cached != null) {
+            count(index, "hit");
+            cached.setSearchTimeMs(System.currentTimeMillis() - startTime);
+            return cached;
+        }
+
+        count(index, "miss");
+        SearchResponse<T> response = search.apply(canonical);
+        if (cache != null) {
+            try {
+                cache.put(key, response);
+            } catch (Exception e) {
+                log.warn("Could not cache search result for {}: {}", index, e.getMessage());
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Make the latest writes to index searchable and retire its cached pages
+     */
+    public void invalidate(String index) {
+        try {
+            if (luceneSearchEngine.isEnabled()) {
+                luceneSearchEngine.refresh(index);
+            } else {
+                elasticsearchOperations.indexOps(IndexCoordinates.of(index)).refresh();
+            }
+        } catch (Exception e) {
+            log.warn("Could not refresh {} before invalidating its cached results: {}", index, e.getMessage());
+        }
+        try {
+            Long generation = stringRedisTemplate.opsForValue().increment(GENERATION_KEY + index);
+            log.debug("Search result generation of {} is now {}", index, generation);
+        } catch (Exception e) {
+            // Cached pages of this index stay visible until they expire
+            log.warn("Could not bump search result generation of {}: {}", index, e.getMessage());
+        }
+    }
+
+    private String generation(String index) {
+        String generation = stringRedisTemplate.opsForValue().get(GENERATION_KEY + index);
+        return generation != null ? generation : "0";
+    }
+
+    private void count(String index, String result) {
+        meterRegistry.counter("search.cache", "index", index, "result", result).increment();
+    }
+}
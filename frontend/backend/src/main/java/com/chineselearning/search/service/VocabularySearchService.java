@@ -1,25 +1,25 @@
 package com.chineselearning.search.service;
 
+import com.chineselearning.index.VocabularySuggestTrieManager;
 import com.chineselearning.search.document.VocabularyDocument;
 import com.chineselearning.search.dto.SearchRequest;
 import com.chineselearning.search.dto.SearchResponse;
-import com.chineselearning.search.repository.VocabularySearchRepository;
 import com.chineselearning.search.service.interfaces.SearchService;
+import com.chineselearning.search.text.SearchTextNormalizer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.query.SourceFilter;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Vocabulary Search Service Implementation
- * Implements advanced vocabulary search with Elasticsearch
+ * Implements advanced vocabulary search with Elasticsearch (or the embedded engine)
  * 
  * @author Senior Backend Architect
  */
@@ -28,60 +28,41 @@ import java.util.stream.Collectors;
 @Slf4j
 public class VocabularySearchService implements SearchService<VocabularyDocument> {
 
-    private final VocabularySearchRepository vocabularySearchRepository;
+    // Result lists never show these; searchText and suggest only exist to be searched
+    private static final SourceFilter LIST_SOURCE =
+            new FetchSourceFilter(null, new String[]{"searchText", "suggest", "example"});
+
+    private final CompletionSuggester completionSuggester;
+    private final SearchResultCache searchResultCache;
+    private final ScoredSearcher scoredSearcher;
+    private final PointInTimeSearcher pointInTimeSearcher;
+    private final VocabularySuggestTrieManager suggestTrieManager;
 
     @Override
     public SearchResponse<VocabularyDocument> search(SearchRequest request) {
-        long startTime = System.currentTimeMillis();
+        if (request.getCursor() != null) {
+            SearchRequest canonical = request.canonical();
+            return pointInTimeSearcher.search(SearchIndexManager.VOCABULARIES, VocabularyDocument.class,
+                    canonical, SearchQueryBuilder.vocabulary(canonical), LIST_SOURCE);
+        }
+        return searchResultCache.get(SearchIndexManager.VOCABULARIES, request, this::executeSearch);
+    }
+
+    /**
+     * Live Elasticsearch query; request is already canonical (see SearchResultCache)
+     */
+    private SearchResponse<VocabularyDocument> executeSearch(SearchRequest request) {
         log.info("Vocabulary search started: query={}, page={}, size={}", 
                 request.getQuery(), request.getPage(), request.getSize());
 
-        Pageable pageable = createPageable(request);
-        Page<VocabularyDocument> searchResults;
-
-        if (request.getVariant() != null && request.getQuery() != null) {
-            // Advanced search with filters
-            searchResults = vocabularySearchRepository.advancedSearch(
-                    request.getQuery(),
-                    request.getVariant(),
-                    pageable
-            );
-        } else if (request.getQuery() != null) {
-            // Full-text search
-            searchResults = vocabularySearchRepository.searchByAllFields(
-                    request.getQuery(),
-                    pageable
-            );
-        } else if (request.getVariant() != null) {
-            // Filter by variant type only
-            searchResults = vocabularySearchRepository.findByVariant(
-                    request.getVariant(),
-                    pageable
-            );
-        } else if (request.getHskLevel() != null) {
-            // Filter by HSK level
-            searchResults = vocabularySearchRepository.findByHskLevel(
-                    request.getHskLevel(),
-                    pageable
-            );
-        } else {
-            // Get all
-            searchResults = vocabularySearchRepository.findAll(pageable);
-        }
-
-        long searchTime = System.currentTimeMillis() - startTime;
+        SearchResponse<VocabularyDocument> response = scoredSearcher.search(SearchIndexManager.VOCABULARIES,
+                VocabularyDocument.class, SearchQueryBuilder.vocabulary(request), createPageable(request),
+                request.getMinScore(), LIST_SOURCE);
 
         log.info("Vocabulary search completed: {} results in {} ms", 
-                searchResults.getTotalElements(), searchTime);
-
-        return SearchResponse.of(
-                searchResults.getContent(),
-                searchResults.getTotalElements(),
-                request.getPage(),
-                request.getSize(),
-                searchTime,
-                0.0f // Elasticsearch score not directly available in Spring Data
-        );
+                response.getTotalHits(), response.getSearchTimeMs());
+
+        return response;
     }
 
     @Override
@@ -96,91 +77,53 @@ public class VocabularySearchService implements SearchService<VocabularyDocument
 
     @Override
     public SearchResponse<VocabularyDocument> fuzzySearch(String keyword, int page, int size) {
-        // Fuzzy search already enabled in searchByAllFields
-        return simpleSearch(keyword, page, size);
+        SearchRequest request = SearchRequest.builder()
+                .query(keyword)
+                .page(page)
+                .size(size)
+                .fuzzySearch(true)
+                .build();
+        return search(request);
     }
 
     @Override
     public List<String> getSuggestions(String prefix, int limit) {
         log.debug("Getting vocabulary suggestions for prefix: {}", prefix);
 
-        Pageable pageable = PageRequest.of(0, limit);
-
-        // Search hanzi that starts with prefix
-        Page<VocabularyDocument> results = vocabularySearchRepository
-                .findByHanziContaining(prefix, pageable);
+        // Served from memory; Elasticsearch only until the trie is built (or if it is disabled)
+        List<String> local = suggestTrieManager.suggest(prefix, limit);
+        if (local != null) {
+            return local;
+        }
 
-        return results.stream()
-                .map(VocabularyDocument::getHanzi)
-                .distinct()
-                .limit(limit)
-                .collect(Collectors.toList());
+        // Completion field over hanzi and tone-free pinyin; only hanzi is read from _source
+        return completionSuggester.suggest(SearchIndexManager.VOCABULARIES, "suggest", prefix, limit, "hanzi");
     }
 
     /**
      * Search by Hanzi specifically
      */
     public SearchResponse<VocabularyDocument> searchByHanzi(String hanzi, int page, int size) {
-        long startTime = System.currentTimeMillis();
-
-        Pageable pageable = PageRequest.of(page, size);
-        Page<VocabularyDocument> results = vocabularySearchRepository
-                .findByHanziContaining(hanzi, pageable);
-
-        long searchTime = System.currentTimeMillis() - startTime;
-
-        return SearchResponse.of(
-                results.getContent(),
-                results.getTotalElements(),
-                page,
-                size,
-                searchTime,
-                0.0f
-        );
+        return scoredSearcher.search(SearchIndexManager.VOCABULARIES, VocabularyDocument.class,
+                SearchQueryBuilder.hanziContaining(hanzi), PageRequest.of(page, size), null, LIST_SOURCE);
     }
 
     /**
-     * Search by Pinyin
+     * Search by Pinyin, with or without tones ("nǐ hǎo", "nihao", "ni3hao3", "nh")
      */
     public SearchResponse<VocabularyDocument> searchByPinyin(String pinyin, int page, int size) {
-        long startTime = System.currentTimeMillis();
-
-        Pageable pageable = PageRequest.of(page, size);
-        Page<VocabularyDocument> results = vocabularySearchRepository
-                .findByPinyinContainingIgnoreCase(pinyin, pageable);
-
-        long searchTime = System.currentTimeMillis() - startTime;
-
-        return SearchResponse.of(
-                results.getContent(),
-                results.getTotalElements(),
-                page,
-                size,
-                searchTime,
-                0.0f
-        );
+        return scoredSearcher.search(SearchIndexManager.VOCABULARIES, VocabularyDocument.class,
+                SearchQueryBuilder.compactPinyin(SearchTextNormalizer.compact(pinyin)), PageRequest.of(page, size),
+                null, LIST_SOURCE);
     }
 
     /**
-     * Search by Vietnamese meaning
+     * Search by Vietnamese meaning, with or without diacritics
      */
     public SearchResponse<VocabularyDocument> searchByMeaning(String meaning, int page, int size) {
-        long startTime = System.currentTimeMillis();
-
-        Pageable pageable = PageRequest.of(page, size);
-        Page<VocabularyDocument> results = vocabularySearchRepository
-                .findByMeaningContainingIgnoreCase(meaning, pageable);
-
-        long searchTime = System.currentTimeMillis() - startTime;
-
-        return SearchResponse.of(
-                results.getContent(),
-                results.getTotalElements(),
-                page,
-                size,
-                searchTime,
-                0.0f
-        );
+        return scoredSearcher.search(SearchIndexManager.VOCABULARIES, VocabularyDocument.class,
+                SearchQueryBuilder.allWords("meaningFolded", SearchTextNormalizer.foldVietnamese(meaning)),
+                PageRequest.of(page, size), null, LIST_SOURCE);
     }
 
     private Pageable createPageable(SearchRequest request) {
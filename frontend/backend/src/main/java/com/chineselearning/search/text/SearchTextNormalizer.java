@@ -0,0 +1,213 @@
+package com.chineselearning.search.text;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Normalized forms of pinyin and Vietnamese text used as search keys
+ *
+ * The same functions run at write time (stored columns / document fields) and
+ * on the query, so matching is a plain equality or prefix comparison.
+ *
+ * - pinyinPlain("nǐ hǎo")    = "nihao"
+ * - pinyinNumeric("nǐ hǎo")  = "ni3hao3"  (neutral tone has no digit)
+ * - pinyinInitials("nǐ hǎo") = "nh"
+ * - foldVietnamese("Xin chào, Đức") = "xin chao, duc"
+ *
+ * ü is written as "v", the usual keyboard convention (nǚ = nv3).
+ *
+ * @author Senior Backend Architect
+ */
+public final class SearchTextNormalizer {
+
+    private SearchTextNormalizer() {
+    }
+
+    public static String pinyinPlain(String pinyin) {
+        StringBuilder sb = new StringBuilder();
+        for (Syllable syllable : syllables(pinyin)) {
+            sb.append(syllable.letters);
+        }
+        return sb.toString();
+    }
+
+    public static String pinyinNumeric(String pinyin) {
+        StringBuilder sb = new StringBuilder();
+        for (Syllable syllable : syllables(pinyin)) {
+            sb.append(syllable.letters);
+            if (syllable.tone > 0) {
+                sb.append(syllable.tone);
+            }
+        }
+        return sb.toString();
+    }
+
+    public static String pinyinInitials(String pinyin) {
+        StringBuilder sb = new StringBuilder();
+        for (Syllable syllable : syllables(pinyin)) {
+            sb.append(syllable.letters.charAt(0));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Lower-case, strip diacritics (including đ) and collapse whitespace
+     */
+    public static String foldVietnamese(String text) {
+        if (text == null) {
+            return null;
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            sb.append(c == 'đ' || c == 'Đ' ? 'd' : c);
+        }
+        return sb.toString().toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Folded text with whitespace, apostrophes and hyphens removed, and ü as v like the
+     * stored pinyin columns ("Nǐ hǎo" -> "nihao", "nǚ" -> "nv"); the query-side key for them
+     */
+    public static String compact(String text) {
+        if (text == null) {
+            return null;
+        }
+        // Before folding, which would strip the diaeresis and leave "u"
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replace("u\u0308", "v")
+                .replace("U\u0308", "V");
+        return foldVietnamese(decomposed).replaceAll("[\\s'’-]+", "");
+    }
+
+    /**
+     * Split pinyin into syllables. Explicit separators (space, apostrophe, digits)
+     * always end a syllable; inside a run of letters a syllable ends after its
+     * tone-marked vowel cluster plus an optional n / ng / r coda that is not
+     * followed by a vowel (wǒmen = wǒ|men, péngyou = péng|you, Xī'ān = xī|ān).
+     */
+    private static List<Syllable> syllables(String pinyin) {
+        List<Syllable> result = new ArrayList<>();
+        if (pinyin == null) {
+            return result;
+        }
+        String s = Normalizer.normalize(pinyin.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+
+        StringBuilder letters = new StringBuilder();
+        int tone = 0;
+        boolean coda = false;
+
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+
+            int markTone = toneOf(c);
+            if (markTone > 0) {
+                tone = markTone;
+                continue;
+            }
+            if (c == '̈') {
+                int last = letters.length() - 1;
+                if (last >= 0 && letters.charAt(last) == 'u') {
+                    letters.setCharAt(last, 'v');
+                }
+                continue;
+            }
+            if (c >= '1' && c <= '5') {
+                if (letters.length() > 0) {
+                    result.add(new Syllable(letters.toString(), c == '5' ? 0 : c - '0'));
+                }
+                letters.setLength(0);
+                tone = 0;
+                coda = false;
+                continue;
+            }
+            if (c < 'a' || c > 'z') {
+                if (letters.length() > 0) {
+                    result.add(new Syllable(letters.toString(), tone));
+                }
+                letters.setLength(0);
+                tone = 0;
+                coda = false;
+                continue;
+            }
+
+            if (tone > 0 && (coda || !isVowel(c)) && !continuesCoda(s, i, letters, coda)) {
+                result.add(new Syllable(letters.toString(), tone));
+                letters.setLength(0);
+                tone = 0;
+                coda = false;
+            } else if (tone > 0 && !isVowel(c)) {
+                coda = true;
+            }
+            letters.append(c);
+        }
+        if (letters.length() > 0) {
+            result.add(new Syllable(letters.toString(), tone));
+        }
+        return result;
+    }
+
+    /**
+     * Whether the consonant at i still belongs to the current (toned) syllable
+     */
+    private static boolean continuesCoda(String s, int i, StringBuilder letters, boolean coda) {
+        char c = s.charAt(i);
+        char next = nextLetter(s, i);
+        if (!coda) {
+            if (c == 'n' && next == 'g') {
+                return !isVowel(nextLetter(s, nextLetterIndex(s, i)));
+            }
+            return (c == 'n' || c == 'r') && !isVowel(next);
+        }
+        // "g" after an "n" coda, already checked when the "n" was read
+        return c == 'g' && letters.charAt(letters.length() - 1) == 'n' && !isVowel(next);
+    }
+
+    private static int nextLetterIndex(String s, int i) {
+        int j = i + 1;
+        while (j < s.length() && Character.getType(s.charAt(j)) == Character.NON_SPACING_MARK) {
+            j++;
+        }
+        return j;
+    }
+
+    private static char nextLetter(String s, int i) {
+        int j = nextLetterIndex(s, i);
+        return j < s.length() ? s.charAt(j) : 0;
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u' || c == 'v';
+    }
+
+    private static int toneOf(char mark) {
+        switch (mark) {
+            case '̄':
+                return 1;
+            case '́':
+                return 2;
+            case '̌':
+                return 3;
+            case '̀':
+                return 4;
+            default:
+                return 0;
+        }
+    }
+
+    private static final class Syllable {
+        private final String letters;
+        private final int tone;
+
+        private Syllable(String letters, int tone) {
+            this.letters = letters;
+            this.tone = tone;
+        }
+    }
+}
@@ -10,6 +10,8 @@ import com.chineselearning.exception.custom.ResourceNotFoundException;
 import com.chineselearning.mapper.CourseMapper;
 import com.chineselearning.repository.CourseRepository;
 import com.chineselearning.repository.TextbookRepository;
+import com.chineselearning.search.service.DataSyncService;
+import com.chineselearning.search.service.SearchOutbox;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -35,9 +37,10 @@ public class CourseServiceImpl implements com.chineselearning.service.interfaces
     private final CourseRepository courseRepository;
     private final TextbookRepository textbookRepository;
     private final CourseMapper courseMapper;
+    private final SearchOutbox searchOutbox;
 
     @Override
-    @Cacheable(value = "courses", key = "'all'")
+    @Cacheable(value = "courses", key = "'all'", sync = true)
     public List<CourseResponse> getAllCourses() {
         log.debug("Fetching all courses");
         return courseRepository.findAll().stream()
@@ -46,7 +49,7 @@ public class CourseServiceImpl implements com.chineselearning.service.interfaces
     }
 
     @Override
-    @Cacheable(value = "courses", key = "'textbook-' + #textbookId")
+    @Cacheable(value = "courses", key = "'textbook-' + #textbookId", sync = true)
     public List<CourseResponse> getCoursesByTextbookId(Long textbookId) {
         log.debug("Fetching courses for textbook: {}", textbookId);
         return courseRepository.findByTextbookId(textbookId).stream()
@@ -55,7 +58,7 @@ public class CourseServiceImpl implements com.chineselearning.service.interfaces
     }
 
     @Override
-    @Cacheable(value = "courses", key = "#id")
+    @Cacheable(value = "courses", key = "#id", sync = true)
     public CourseResponse getCourseById(Long id) {
         log.debug("Fetching course by id: {}", id);
         Course course = courseRepository.findById(id)
@@ -87,6 +90,7 @@ public class CourseServiceImpl implements com.chineselearning.service.interfaces
         course.setTextbook(textbook);
 
         Course savedCourse = courseRepository.save(course);
+        searchOutbox.upsert(DataSyncService.COURSES, savedCourse.getId());
         log.info("Course created successfully with id: {}", savedCourse.getId());
 
         return courseMapper.toResponse(savedCourse);
@@ -124,6 +128,7 @@ public class CourseServiceImpl implements com.chineselearning.service.interfaces
         }
 
         Course updatedCourse = courseRepository.save(course);
+        searchOutbox.upsert(DataSyncService.COURSES, updatedCourse.getId());
         log.info("Course updated successfully: {}", updatedCourse.getId());
 
         return courseMapper.toResponse(updatedCourse);
@@ -140,6 +145,7 @@ public class CourseServiceImpl implements com.chineselearning.service.interfaces
         }
 
         courseRepository.deleteById(id);
+        searchOutbox.delete(DataSyncService.COURSES, id);
         log.info("Course deleted successfully: {}", id);
     }
 }
@@ -1,13 +1,17 @@
 package com.chineselearning.service;
 
 import com.chineselearning.domain.GrammarTopic;
+import com.chineselearning.dto.KeysetCursor;
 import com.chineselearning.dto.PageResponse;
 import com.chineselearning.dto.request.GrammarTopicRequest;
 import com.chineselearning.dto.response.GrammarTopicResponse;
 import com.chineselearning.exception.custom.DuplicateResourceException;
+import com.chineselearning.exception.custom.InvalidRequestException;
 import com.chineselearning.exception.custom.ResourceNotFoundException;
 import com.chineselearning.mapper.GrammarTopicMapper;
 import com.chineselearning.repository.GrammarTopicRepository;
+import com.chineselearning.search.service.DataSyncService;
+import com.chineselearning.search.service.SearchOutbox;
 import com.chineselearning.service.interfaces.GrammarTopicService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -37,6 +41,7 @@ public class GrammarTopicServiceImpl implements GrammarTopicService {
 
     private final GrammarTopicRepository grammarTopicRepository;
     private final GrammarTopicMapper grammarTopicMapper;
+    private final SearchOutbox searchOutbox;
 
     @Override
     @Transactional
@@ -54,13 +59,14 @@ public class GrammarTopicServiceImpl implements GrammarTopicService {
 
         GrammarTopic grammarTopic = grammarTopicMapper.toEntity(request);
         GrammarTopic saved = grammarTopicRepository.save(grammarTopic);
+        searchOutbox.upsert(DataSyncService.GRAMMAR, saved.getId());
 
         log.info("Grammar topic created successfully with ID: {}", saved.getId());
         return grammarTopicMapper.toResponse(saved);
     }
 
     @Override
-    @Cacheable(value = "grammarTopics", key = "#id")
+    @Cacheable(value = "grammarTopics", key = "#id", sync = true)
     public GrammarTopicResponse getById(Long id) {
         log.debug("Fetching grammar topic by ID: {}", id);
 
@@ -71,7 +77,7 @@ public class GrammarTopicServiceImpl implements GrammarTopicService {
     }
 
     @Override
-    @Cacheable(value = "grammarTopics", key = "'all'")
+    @Cacheable(value = "grammarTopics", key = "'all'", sync = true)
     public List<GrammarTopicResponse> getAll() {
         log.debug("Fetching all grammar topics");
 
@@ -81,7 +87,7 @@ public class GrammarTopicServiceImpl implements GrammarTopicService {
     }
 
     @Override
-    @Cacheable(value = "grammarTopics", key = "'page-' + #page + '-' + #size")
+    @Cacheable(value = "grammarTopics", key = "'page-' + #page + '-' + #size", sync = true)
     public PageResponse<GrammarTopicResponse> getPage(int page, int size) {
         log.debug("Fetching grammar topics page: {}, size: {}", page, size);
 
@@ -101,6 +107,24 @@ public class GrammarTopicServiceImpl implements GrammarTopicService {
         );
     }
 
+    @Override
+    @Cacheable(value = "grammarTopics", key = "'cursor-' + #cursor + '-' + #size", sync = true)
+    public PageResponse<GrammarTopicResponse> getPageByCursor(String cursor, int size) {
+        log.debug("Fetching grammar topics by cursor: {}, size: {}", cursor, size);
+        if (size < 1) {
+            throw new InvalidRequestException("Page size must be positive", "size", size);
+        }
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable limit = PageRequest.ofSize(size + 1);
+        List<GrammarTopic> rows = after == null
+                ? grammarTopicRepository.findFirstKeysetPage(limit)
+                : grammarTopicRepository.findKeysetPageAfter(after.getSortKey(), after.getId(), limit);
+
+        return PageResponse.ofCursor(rows, size, grammarTopicMapper::toResponse,
+                g -> KeysetCursor.encode(g.getTitle(), g.getId()), after != null);
+    }
+
     @Override
     @Transactional
     @CacheEvict(value = "grammarTopics", allEntries = true)
@@ -113,6 +137,7 @@ public class GrammarTopicServiceImpl implements GrammarTopicService {
         grammarTopicMapper.updateEntityFromRequest(request, grammarTopic);
 
         GrammarTopic updated = grammarTopicRepository.save(grammarTopic);
+        searchOutbox.upsert(DataSyncService.GRAMMAR, updated.getId());
 
         log.info("Grammar topic updated successfully: {}", updated.getId());
         return grammarTopicMapper.toResponse(updated);
@@ -129,6 +154,7 @@ public class GrammarTopicServiceImpl implements GrammarTopicService {
         }
 
         grammarTopicRepository.deleteById(id);
+        searchOutbox.delete(DataSyncService.GRAMMAR, id);
         log.info("Grammar topic deleted successfully: {}", id);
     }
 
@@ -154,7 +180,7 @@ public class GrammarTopicServiceImpl implements GrammarTopicService {
     }
 
     @Override
-    @Cacheable(value = "grammarTopics", key = "'level-' + #level")
+    @Cacheable(value = "grammarTopics", key = "'level-' + #level", sync = true)
     public List<GrammarTopicResponse> findByLevel(GrammarTopic.Level level) {
         log.debug("Finding grammar topics by level: {}", level);
 
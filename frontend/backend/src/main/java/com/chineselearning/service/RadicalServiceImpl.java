@@ -1,10 +1,12 @@
 package com.chineselearning.service;
 
 import com.chineselearning.domain.Radical;
+import com.chineselearning.dto.KeysetCursor;
 import com.chineselearning.dto.PageResponse;
 import com.chineselearning.dto.request.RadicalRequest;
 import com.chineselearning.dto.response.RadicalResponse;
 import com.chineselearning.exception.custom.DuplicateResourceException;
+import com.chineselearning.exception.custom.InvalidRequestException;
 import com.chineselearning.exception.custom.ResourceNotFoundException;
 import com.chineselearning.mapper.RadicalMapper;
 import com.chineselearning.repository.RadicalRepository;
@@ -58,7 +60,7 @@ public class RadicalServiceImpl implements RadicalService {
     }
 
     @Override
-    @Cacheable(value = "radicals", key = "#id")
+    @Cacheable(value = "radicals", key = "#id", sync = true)
     public RadicalResponse getById(Long id) {
         log.debug("Fetching radical by ID: {}", id);
 
@@ -69,7 +71,7 @@ public class RadicalServiceImpl implements RadicalService {
     }
 
     @Override
-    @Cacheable(value = "radicals", key = "'all'")
+    @Cacheable(value = "radicals", key = "'all'", sync = true)
     public List<RadicalResponse> getAll() {
         log.debug("Fetching all radicals");
 
@@ -79,7 +81,7 @@ public class RadicalServiceImpl implements RadicalService {
     }
 
     @Override
-    @Cacheable(value = "radicals", key = "'page-' + #page + '-' + #size")
+    @Cacheable(value = "radicals", key = "'page-' + #page + '-' + #size", sync = true)
     public PageResponse<RadicalResponse> getPage(int page, int size) {
         log.debug("Fetching radicals page: {}, size: {}", page, size);
 
@@ -99,6 +101,24 @@ public class RadicalServiceImpl implements RadicalService {
         );
     }
 
+    @Override
+    @Cacheable(value = "radicals", key = "'cursor-' + #cursor + '-' + #size", sync = true)
+    public PageResponse<RadicalResponse> getPageByCursor(String cursor, int size) {
+        log.debug("Fetching radicals by cursor: {}, size: {}", cursor, size);
+        if (size < 1) {
+            throw new InvalidRequestException("Page size must be positive", "size", size);
+        }
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable limit = PageRequest.ofSize(size + 1);
+        List<Radical> rows = after == null
+                ? radicalRepository.findFirstKeysetPage(limit)
+                : radicalRepository.findKeysetPageAfter(after.sortKeyAsInt(), after.getId(), limit);
+
+        return PageResponse.ofCursor(rows, size, radicalMapper::toResponse,
+                r -> KeysetCursor.encode(r.getStrokes(), r.getId()), after != null);
+    }
+
     @Override
     @Transactional
     @CacheEvict(value = "radicals", allEntries = true)
@@ -136,7 +156,7 @@ public class RadicalServiceImpl implements RadicalService {
     }
 
     @Override
-    @Cacheable(value = "radicals", key = "'stroke-' + #strokeCount")
+    @Cacheable(value = "radicals", key = "'stroke-' + #strokeCount", sync = true)
     public List<RadicalResponse> findByStrokeCount(Integer strokeCount) {
         log.debug("Finding radicals by stroke count: {}", strokeCount);
 
@@ -146,7 +166,7 @@ public class RadicalServiceImpl implements RadicalService {
     }
 
     @Override
-    @Cacheable(value = "radicals", key = "'radical-' + #radical")
+    @Cacheable(value = "radicals", key = "'radical-' + #radical", sync = true)
     public RadicalResponse findByRadical(String radical) {
         log.debug("Finding radical by character: {}", radical);
 
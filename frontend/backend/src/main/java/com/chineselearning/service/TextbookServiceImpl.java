@@ -1,14 +1,20 @@
 package com.chineselearning.service;
 
+import com.chineselearning.domain.Course;
 import com.chineselearning.domain.Textbook;
 import com.chineselearning.domain.Textbook.VersionType;
+import com.chineselearning.dto.KeysetCursor;
 import com.chineselearning.dto.PageResponse;
 import com.chineselearning.dto.request.TextbookRequest;
 import com.chineselearning.dto.response.TextbookResponse;
 import com.chineselearning.exception.custom.DuplicateResourceException;
+import com.chineselearning.exception.custom.InvalidRequestException;
 import com.chineselearning.exception.custom.ResourceNotFoundException;
 import com.chineselearning.mapper.TextbookMapper;
+import com.chineselearning.repository.CourseRepository;
 import com.chineselearning.repository.TextbookRepository;
+import com.chineselearning.search.service.DataSyncService;
+import com.chineselearning.search.service.SearchOutbox;
 import com.chineselearning.service.interfaces.TextbookService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -38,6 +44,8 @@ public class TextbookServiceImpl implements TextbookService {
 
     private final TextbookRepository textbookRepository;
     private final TextbookMapper textbookMapper;
+    private final CourseRepository courseRepository;
+    private final SearchOutbox searchOutbox;
 
     @Override
     @Transactional
@@ -66,7 +74,7 @@ public class TextbookServiceImpl implements TextbookService {
     }
 
     @Override
-    @Cacheable(value = "textbooks", key = "#id")
+    @Cacheable(value = "textbooks", key = "#id", sync = true)
     public TextbookResponse getById(Long id) {
         log.debug("Fetching textbook by ID: {}", id);
         
@@ -77,7 +85,7 @@ public class TextbookServiceImpl implements TextbookService {
     }
 
     @Override
-    @Cacheable(value = "textbooks", key = "'all'")
+    @Cacheable(value = "textbooks", key = "'all'", sync = true)
     public List<TextbookResponse> getAll() {
         log.debug("Fetching all textbooks");
         
@@ -87,7 +95,7 @@ public class TextbookServiceImpl implements TextbookService {
     }
 
     @Override
-    @Cacheable(value = "textbooks", key = "'page-' + #page + '-' + #size")
+    @Cacheable(value = "textbooks", key = "'page-' + #page + '-' + #size", sync = true)
     public PageResponse<TextbookResponse> getPage(int page, int size) {
         log.debug("Fetching textbooks page: {}, size: {}", page, size);
 
@@ -107,6 +115,24 @@ public class TextbookServiceImpl implements TextbookService {
         );
     }
 
+    @Override
+    @Cacheable(value = "textbooks", key = "'cursor-' + #cursor + '-' + #size", sync = true)
+    public PageResponse<TextbookResponse> getPageByCursor(String cursor, int size) {
+        log.debug("Fetching textbooks by cursor: {}, size: {}", cursor, size);
+        if (size < 1) {
+            throw new InvalidRequestException("Page size must be positive", "size", size);
+        }
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable limit = PageRequest.ofSize(size + 1);
+        List<Textbook> rows = after == null
+                ? textbookRepository.findFirstKeysetPage(limit)
+                : textbookRepository.findKeysetPageAfter(after.sortKeyAsInt(), after.getId(), limit);
+
+        return PageResponse.ofCursor(rows, size, textbookMapper::toResponse,
+                t -> KeysetCursor.encode(t.getPublicationYear(), t.getId()), after != null);
+    }
+
     @Override
     @Transactional
     @CacheEvict(value = "textbooks", allEntries = true)
@@ -120,6 +146,8 @@ public class TextbookServiceImpl implements TextbookService {
         textbookMapper.updateEntityFromRequest(request, textbook);
 
         Textbook updated = textbookRepository.save(textbook);
+        // Course documents carry the textbook name
+        searchOutbox.upsertAll(DataSyncService.COURSES, courseIdsOf(id));
 
         log.info("Textbook updated successfully: {}", updated.getId());
         return textbookMapper.toResponse(updated);
@@ -135,6 +163,8 @@ public class TextbookServiceImpl implements TextbookService {
             throw new ResourceNotFoundException("Textbook", "id", id);
         }
 
+        // Courses are removed with the textbook (cascade)
+        searchOutbox.deleteAll(DataSyncService.COURSES, courseIdsOf(id));
         textbookRepository.deleteById(id);
         log.info("Textbook deleted successfully: {}", id);
     }
@@ -145,7 +175,7 @@ public class TextbookServiceImpl implements TextbookService {
     }
 
     @Override
-    @Cacheable(value = "textbooks", key = "'version-' + #version")
+    @Cacheable(value = "textbooks", key = "'version-' + #version", sync = true)
     public List<TextbookResponse> findByVersion(VersionType version) {
         log.debug("Finding textbooks by version: {}", version);
 
@@ -155,7 +185,7 @@ public class TextbookServiceImpl implements TextbookService {
     }
 
     @Override
-    @Cacheable(value = "textbooks", key = "'year-' + #year")
+    @Cacheable(value = "textbooks", key = "'year-' + #year", sync = true)
     public List<TextbookResponse> findByPublicationYear(Integer year) {
         log.debug("Finding textbooks by year: {}", year);
 
@@ -173,5 +203,10 @@ public class TextbookServiceImpl implements TextbookService {
                 .map(textbookMapper::toResponse)
                 .collect(Collectors.toList());
     }
-}
 
+    private List<Long> courseIdsOf(Long textbookId) {
+        return courseRepository.findByTextbookId(textbookId).stream()
+                .map(Course::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,310 @@
+package com.chineselearning.service;
+
+import com.chineselearning.domain.Vocabulary;
+import com.chineselearning.dto.response.VocabularyImportResponse;
+import com.chineselearning.event.VocabularyChangedEvent;
+import com.chineselearning.importer.VocabularyImportRow;
+import com.chineselearning.importer.VocabularyRowReader;
+import com.chineselearning.search.service.DataSyncService;
+import com.chineselearning.search.service.SearchOutbox;
+import com.chineselearning.search.text.SearchTextNormalizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Vocabulary bulk import
+ *
+ * Rows are stream-parsed and written with COPY into a temp staging table, so
+ * neither the input nor the entities are ever held in memory. The merge is
+ * done in SQL, in the same transaction:
+ * - duplicates within the input collapse to the last row per (hanzi, pinyin)
+ * - existing (hanzi, pinyin) rows are updated, empty optional fields keep their value
+ * - new rows are inserted in one INSERT ... SELECT
+ * - tags are added to the vocabulary entry (existing tags are kept); a row
+ *   that gained tags gets a new updated_at like a content change
+ *
+ * The ids of inserted and changed rows go to the search outbox in the same
+ * transaction, so Elasticsearch gets them however long the import takes to
+ * commit, and to the {@link VocabularyChangedEvent} for the in-memory indexes.
+ * updated_at is clock_timestamp(), the time of the write, not of the start
+ * of the transaction.
+ *
+ * Bypasses JPA on purpose: IDENTITY ids disable Hibernate insert batching.
+ *
+ * @author Senior Backend Architect
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VocabularyImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final char TAG_SEPARATOR = '\u001f';
+
+    private static final String STAGE_COLUMNS = "line_no, hanzi, pinyin, nghia, example, variant, hsk_level, " +
+            "frequency_rank, tags, pinyin_plain, pinyin_numeric, pinyin_initials, nghia_folded";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SearchOutbox searchOutbox;
+
+    @Transactional
+    @CacheEvict(value = "vocabularies", allEntries = true)
+    public VocabularyImportResponse importRows(VocabularyRowReader reader) throws IOException {
+        long startTime = System.currentTimeMillis();
+
+        jdbcTemplate.execute("CREATE TEMP TABLE vocab_import_stage (" +
+                "line_no BIGINT, hanzi TEXT, pinyin TEXT, nghia TEXT, example TEXT, variant TEXT, " +
+                "hsk_level INTEGER, frequency_rank INTEGER, tags TEXT, pinyin_plain TEXT, " +
+                "pinyin_numeric TEXT, pinyin_initials TEXT, nghia_folded TEXT) ON COMMIT DROP");
+
+        List<String> errors = new ArrayList<>();
+        long[] counts = stage(reader, errors);
+        long received = counts[0];
+        long staged = counts[1];
+
+        jdbcTemplate.execute("CREATE TEMP TABLE vocab_import_rows ON COMMIT DROP AS " +
+                "SELECT DISTINCT ON (hanzi, pinyin) s.*, NULL::BIGINT AS vocab_id " +
+                "FROM vocab_import_stage s ORDER BY hanzi, pinyin, line_no DESC");
+        jdbcTemplate.execute("ANALYZE vocab_import_rows");
+        Long unique = jdbcTemplate.queryForObject("SELECT count(*) FROM vocab_import_rows", Long.class);
+        long uniqueRows = unique != null ? unique : 0;
+
+        // No unique constraint on (hanzi, pinyin): keep concurrent imports from inserting the same pair
+        jdbcTemplate.execute("LOCK TABLE vocabulary IN SHARE ROW EXCLUSIVE MODE");
+
+        jdbcTemplate.update("UPDATE vocab_import_rows r SET vocab_id = v.id " +
+                "FROM vocabulary v WHERE v.hanzi = r.hanzi AND v.pinyin = r.pinyin");
+
+        List<Long> updatedIds = jdbcTemplate.queryForList("UPDATE vocabulary v SET " +
+                "nghia = r.nghia, " +
+                "example = COALESCE(r.example, v.example), " +
+                "variant = COALESCE(r.variant, v.variant), " +
+                "hsk_level = COALESCE(r.hsk_level, v.hsk_level), " +
+                "frequency_rank = COALESCE(r.frequency_rank, v.frequency_rank), " +
+                "pinyin_plain = r.pinyin_plain, pinyin_numeric = r.pinyin_numeric, " +
+                "pinyin_initials = r.pinyin_initials, nghia_folded = r.nghia_folded, " +
+                "updated_at = clock_timestamp() " +
+                "FROM vocab_import_rows r WHERE v.id = r.vocab_id AND (" +
+                "v.nghia, v.example, v.variant, v.hsk_level, v.frequency_rank, v.nghia_folded) IS DISTINCT FROM (" +
+                "r.nghia, COALESCE(r.example, v.example), COALESCE(r.variant, v.variant), " +
+                "COALESCE(r.hsk_level, v.hsk_level), COALESCE(r.frequency_rank, v.frequency_rank), r.nghia_folded) " +
+                "RETURNING v.id", Long.class);
+
+        List<Long> insertedIds = jdbcTemplate.queryForList("WITH ins AS (" +
+                "INSERT INTO vocabulary (hanzi, pinyin, nghia, example, variant, hsk_level, frequency_rank, " +
+                "pinyin_plain, pinyin_numeric, pinyin_initials, nghia_folded, created_at, updated_at) " +
+                "SELECT hanzi, pinyin, nghia, example, COALESCE(variant, 'BOTH'), hsk_level, frequency_rank, " +
+                "pinyin_plain, pinyin_numeric, pinyin_initials, nghia_folded, clock_timestamp(), clock_timestamp() " +
+                "FROM vocab_import_rows WHERE vocab_id IS NULL ORDER BY line_no " +
+                "RETURNING id, hanzi, pinyin) " +
+                "UPDATE vocab_import_rows r SET vocab_id = ins.id " +
+                "FROM ins WHERE r.hanzi = ins.hanzi AND r.pinyin = ins.pinyin " +
+                "RETURNING ins.id", Long.class);
+
+        // One vocab_id per tag added; those rows changed too, so they get a new updated_at
+        List<Long> taggedIds = jdbcTemplate.queryForList("WITH added AS (" +
+                "INSERT INTO vocab_tags (vocab_id, tag) " +
+                "SELECT DISTINCT r.vocab_id, t.tag FROM vocab_import_rows r " +
+                "CROSS JOIN LATERAL unnest(string_to_array(r.tags, E'\\x1f')) AS t(tag) " +
+                "WHERE r.tags IS NOT NULL ON CONFLICT DO NOTHING " +
+                "RETURNING vocab_id), " +
+                "touched AS (UPDATE vocabulary v SET updated_at = clock_timestamp() " +
+                "WHERE v.id IN (SELECT vocab_id FROM added)) " +
+                "SELECT vocab_id FROM added", Long.class);
+
+        int updated = updatedIds.size();
+        int inserted = insertedIds.size();
+        int tagsAdded = taggedIds.size();
+
+        Set<Long> changedIds = new HashSet<>(updatedIds);
+        changedIds.addAll(insertedIds);
+        changedIds.addAll(taggedIds);
+        if (!changedIds.isEmpty()) {
+            searchOutbox.upsertAll(DataSyncService.VOCABULARY, changedIds);
+            eventPublisher.publishEvent(VocabularyChangedEvent.of(changedIds));
+        }
+
+        long durationMs = Math.max(1, System.currentTimeMillis() - startTime);
+        long rowsPerSecond = received * 1000 / durationMs;
+        log.info("Vocabulary import completed: {} rows ({} rejected, {} inserted, {} updated) in {} ms, {} rows/s",
+                received, received - staged, inserted, updated, durationMs, rowsPerSecond);
+
+        return VocabularyImportResponse.builder()
+                .received(received)
+                .rejected(received - staged)
+                .duplicates(staged - uniqueRows)
+                .inserted(inserted)
+                .updated(updated)
+                .tagsAdded(tagsAdded)
+                .durationMs(durationMs)
+                .rowsPerSecond(rowsPerSecond)
+                .errors(errors)
+                .build();
+    }
+
+    /**
+     * COPY valid rows into the staging table
+     *
+     * @return {received, staged}
+     */
+    private long[] stage(VocabularyRowReader reader, List<String> errors) throws IOException {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        long received = 0;
+        long staged = 0;
+
+        PGCopyOutputStream copy = null;
+        try {
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            copy = new PGCopyOutputStream(pgConnection,
+                    "COPY vocab_import_stage (" + STAGE_COLUMNS + ") FROM STDIN", 64 * 1024);
+            Writer out = new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8), 64 * 1024);
+
+            VocabularyImportRow row;
+            while ((row = reader.next()) != null) {
+                received++;
+                String error = row.getError() != null ? row.getError() : validate(row);
+                if (error != null) {
+                    if (errors.size() < MAX_REPORTED_ERRORS) {
+                        errors.add("line " + row.getLineNumber() + ": " + error);
+                    }
+                    continue;
+                }
+                writeRow(out, row);
+                staged++;
+            }
+
+            out.flush();
+            copy.endCopy();
+            return new long[]{received, staged};
+        } catch (SQLException e) {
+            throw new IOException("COPY into staging table failed", e);
+        } finally {
+            if (copy != null && copy.isActive()) {
+                try {
+                    copy.cancelCopy();
+                } catch (SQLException e) {
+                    log.warn("Could not cancel COPY", e);
+                }
+            }
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * Normalizes the row in place, returns an error message or null
+     */
+    private String validate(VocabularyImportRow row) {
+        if (isBlank(row.getHanzi()) || isBlank(row.getPinyin()) || isBlank(row.getMeaning())) {
+            return "hanzi, pinyin and meaning are required";
+        }
+        row.setHanzi(row.getHanzi().trim());
+        row.setPinyin(row.getPinyin().trim());
+        row.setMeaning(row.getMeaning().trim());
+        if (row.getHanzi().length() > 255 || row.getPinyin().length() > 255) {
+            return "hanzi and pinyin must be at most 255 characters";
+        }
+        if (row.getHskLevel() != null && (row.getHskLevel() < 1 || row.getHskLevel() > 6)) {
+            return "hskLevel must be between 1 and 6";
+        }
+        if (!isBlank(row.getVariant())) {
+            try {
+                row.setVariant(Vocabulary.VariantType.valueOf(row.getVariant().trim().toUpperCase(Locale.ROOT)).name());
+            } catch (IllegalArgumentException e) {
+                return "Invalid variant: " + row.getVariant();
+            }
+        } else {
+            row.setVariant(null);
+        }
+        if (row.getTags() != null) {
+            for (String tag : row.getTags()) {
+                if (tag != null && tag.length() > 100) {
+                    return "tags must be at most 100 characters";
+                }
+            }
+        }
+        return null;
+    }
+
+    private void writeRow(Writer out, VocabularyImportRow row) throws IOException {
+        out.write(Long.toString(row.getLineNumber()));
+        writeField(out, row.getHanzi());
+        writeField(out, row.getPinyin());
+        writeField(out, row.getMeaning());
+        writeField(out, isBlank(row.getExample()) ? null : row.getExample());
+        writeField(out, row.getVariant());
+        writeField(out, row.getHskLevel() != null ? row.getHskLevel().toString() : null);
+        writeField(out, row.getFrequencyRank() != null ? row.getFrequencyRank().toString() : null);
+        writeField(out, joinTags(row.getTags()));
+        writeField(out, SearchTextNormalizer.pinyinPlain(row.getPinyin()));
+        writeField(out, SearchTextNormalizer.pinyinNumeric(row.getPinyin()));
+        writeField(out, SearchTextNormalizer.pinyinInitials(row.getPinyin()));
+        writeField(out, SearchTextNormalizer.foldVietnamese(row.getMeaning()));
+        out.write('\n');
+    }
+
+    private static String joinTags(List<String> tags) {
+        if (tags == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (String tag : tags) {
+            if (isBlank(tag)) continue;
+            if (sb.length() > 0) sb.append(TAG_SEPARATOR);
+            sb.append(tag.trim());
+        }
+        return sb.length() > 0 ? sb.toString() : null;
+    }
+
+    /**
+     * Tab-separated COPY text format: \N for NULL, backslash escapes for control characters
+     */
+    private static void writeField(Writer out, String value) throws IOException {
+        out.write('\t');
+        if (value == null) {
+            out.write("\\N");
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\') {
+                out.write("\\\\");
+            } else if (c == '\t') {
+                out.write("\\t");
+            } else if (c == '\n') {
+                out.write("\\n");
+            } else if (c == '\r') {
+                out.write("\\r");
+            } else {
+                out.write(c);
+            }
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
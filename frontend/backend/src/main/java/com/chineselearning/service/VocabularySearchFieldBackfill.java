@@ -0,0 +1,93 @@
+package com.chineselearning.service;
+
+import com.chineselearning.event.VocabularyChangedEvent;
+import com.chineselearning.repository.VocabularyRepository;
+import com.chineselearning.search.text.SearchTextNormalizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fills the normalized search columns (pinyin_plain, pinyin_numeric,
+ * pinyin_initials, nghia_folded) for rows written before they existed
+ * or loaded with plain SQL. New writes fill them in the entity callbacks.
+ *
+ * Only those four columns are written, with one batched UPDATE per chunk:
+ * no entity merge and no @PreUpdate, so updated_at keeps its value and the
+ * incremental search sync does not mistake the backfill for content changes.
+ * In-memory indexes already derive the same keys for rows that lack them;
+ * one event with the backfilled ids at the end lets them pick up the stored
+ * values (a full refresh when there are more than VocabularyChangedEvent.MAX_IDS).
+ *
+ * @author Senior Backend Architect
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VocabularySearchFieldBackfill {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String UPDATE_SQL = "UPDATE vocabulary SET pinyin_plain = ?, pinyin_numeric = ?, " +
+            "pinyin_initials = ?, nghia_folded = ? WHERE id = ?";
+
+    private final VocabularyRepository vocabularyRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Async
+    public void backfillOnStartup() {
+        try {
+            backfill();
+        } catch (Exception e) {
+            log.error("Error backfilling normalized vocabulary search columns", e);
+        }
+    }
+
+    public int backfill() {
+        long startTime = System.currentTimeMillis();
+        int total = 0;
+        Set<Long> ids = new HashSet<>();
+
+        long afterId = 0;
+        List<VocabularyRepository.SearchRow> batch;
+        while (!(batch = vocabularyRepository.findUnnormalizedAfter(afterId, PageRequest.ofSize(BATCH_SIZE))).isEmpty()) {
+            List<Object[]> updates = new ArrayList<>(batch.size());
+            for (VocabularyRepository.SearchRow row : batch) {
+                updates.add(new Object[]{
+                        SearchTextNormalizer.pinyinPlain(row.getPinyin()),
+                        SearchTextNormalizer.pinyinNumeric(row.getPinyin()),
+                        SearchTextNormalizer.pinyinInitials(row.getPinyin()),
+                        SearchTextNormalizer.foldVietnamese(row.getMeaning()),
+                        row.getId()
+                });
+            }
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+            total += batch.size();
+            // Past MAX_IDS the event is a full refresh anyway
+            if (ids.size() <= VocabularyChangedEvent.MAX_IDS) {
+                batch.forEach(row -> ids.add(row.getId()));
+            }
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+
+        if (total > 0) {
+            eventPublisher.publishEvent(VocabularyChangedEvent.of(ids));
+            log.info("Normalized search columns backfilled: {} rows in {} ms",
+                    total, System.currentTimeMillis() - startTime);
+        }
+        return total;
+    }
+}
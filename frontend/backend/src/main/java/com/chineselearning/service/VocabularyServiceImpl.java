@@ -1,12 +1,28 @@
 package com.chineselearning.service;
 
+import com.chineselearning.cache.RedisBatchCache;
 import com.chineselearning.domain.Vocabulary;
+import com.chineselearning.dto.KeysetCursor;
 import com.chineselearning.dto.PageResponse;
+import com.chineselearning.dto.response.AnnotatedTokenResponse;
+import com.chineselearning.dto.response.AnnotationResponse;
 import com.chineselearning.dto.response.VocabularyResponse;
+import com.chineselearning.exception.custom.InvalidRequestException;
 import com.chineselearning.exception.custom.ResourceNotFoundException;
+import com.chineselearning.index.VocabularyNgramIndex;
+import com.chineselearning.index.VocabularyNgramIndexManager;
+import com.chineselearning.index.VocabularySegmenter;
+import com.chineselearning.index.VocabularySegmenterManager;
+import com.chineselearning.index.VocabularySnapshot;
+import com.chineselearning.index.VocabularySnapshotManager;
 import com.chineselearning.mapper.VocabularyMapper;
 import com.chineselearning.repository.VocabularyRepository;
+import com.chineselearning.search.text.SearchTextNormalizer;
 import com.chineselearning.service.interfaces.VocabularyService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
@@ -18,9 +34,20 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Vocabulary Service Implementation
@@ -34,41 +61,54 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class VocabularyServiceImpl implements VocabularyService {
 
+    private static final String CACHE_NAME = "vocabularies";
+
     private final VocabularyRepository vocabularyRepository;
     private final VocabularyMapper vocabularyMapper;
+    private final VocabularySnapshotManager snapshotManager;
+    private final VocabularyNgramIndexManager ngramIndexManager;
+    private final VocabularySegmenterManager segmenterManager;
+    private final ObjectMapper objectMapper;
+    private final RedisBatchCache batchCache;
 
-    @Override
-    @Cacheable(value = "vocabularies", key = "'page-' + #page + '-' + #size + '-' + #search + '-' + #variant")
-    public PageResponse<VocabularyResponse> getVocabulary(int page, int size, String search, String variant) {
-        log.debug("Fetching vocabulary: page={}, size={}, search={}, variant={}", page, size, search, variant);
+    // Resolved on the first search; null until then
+    private volatile Boolean trigramRanking;
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "id"));
+    /**
+     * Browsing without a search term is answered from the in-memory snapshot (no DB, no Redis);
+     * only search queries, or requests before the first snapshot is built, go through the cache and JPA.
+     */
+    @Override
+    @Cacheable(value = "vocabularies",
+            key = "'page-' + #page + '-' + #size + '-' + #search + '-' + #variant + '-' + #hskLevel",
+            condition = "(#search != null && !#search.isEmpty()) || !@vocabularySnapshotManager.isReady()",
+            sync = true)
+    public PageResponse<VocabularyResponse> getVocabulary(int page, int size, String search, String variant,
+                                                          Integer hskLevel) {
+        log.debug("Fetching vocabulary: page={}, size={}, search={}, variant={}, hskLevel={}",
+                page, size, search, variant, hskLevel);
+        if (page < 0) {
+            throw new InvalidRequestException("Page index must not be negative", "page", page);
+        }
+        if (size < 1) {
+            throw new InvalidRequestException("Page size must be positive", "size", size);
+        }
 
-        // Build specification for filtering
-        Specification<Vocabulary> spec = Specification.where(null);
+        Vocabulary.VariantType variantType = parseVariant(variant);
 
-        if (search != null && !search.isEmpty()) {
-            spec = spec.and((root, query, cb) ->
-                    cb.or(
-                            cb.like(cb.lower(root.get("hanzi")), "%" + search.toLowerCase() + "%"),
-                            cb.like(cb.lower(root.get("pinyin")), "%" + search.toLowerCase() + "%"),
-                            cb.like(cb.lower(root.get("meaning")), "%" + search.toLowerCase() + "%")
-                    )
-            );
+        VocabularySnapshot snapshot = snapshotManager.current();
+        if (snapshot != null && (search == null || search.isEmpty())) {
+            return snapshot.page(page, size, variantType, hskLevel);
         }
 
-        if (variant != null && !variant.isEmpty()) {
-            try {
-                Vocabulary.VariantType variantType = Vocabulary.VariantType.valueOf(variant.toUpperCase());
-                spec = spec.and((root, query, cb) ->
-                        cb.or(
-                                cb.equal(root.get("variant"), variantType),
-                                cb.equal(root.get("variant"), Vocabulary.VariantType.BOTH)
-                        )
-                );
-            } catch (IllegalArgumentException e) {
-                log.warn("Invalid variant type: {}", variant);
-            }
+        Pageable pageable;
+        Specification<Vocabulary> spec = buildSpecification(search, variantType, hskLevel);
+        if (search != null && !search.isEmpty() && isTrigramRankingAvailable()) {
+            // Order comes from the specification: best trigram match first
+            pageable = PageRequest.of(page, size);
+            spec = spec.and(rankedBySimilarity(search));
+        } else {
+            pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "id"));
         }
 
         Page<Vocabulary> vocabPage = vocabularyRepository.findAll(spec, pageable);
@@ -87,7 +127,43 @@ public class VocabularyServiceImpl implements VocabularyService {
     }
 
     @Override
-    @Cacheable(value = "vocabularies", key = "#id")
+    @Cacheable(value = "vocabularies",
+            key = "'cursor-' + #cursor + '-' + #size + '-' + #search + '-' + #variant + '-' + #hskLevel",
+            condition = "(#search != null && !#search.isEmpty()) || !@vocabularySnapshotManager.isReady()",
+            sync = true)
+    public PageResponse<VocabularyResponse> getVocabularyByCursor(String cursor, int size, String search,
+                                                                  String variant, Integer hskLevel) {
+        log.debug("Fetching vocabulary by cursor: cursor={}, size={}, search={}, variant={}, hskLevel={}",
+                cursor, size, search, variant, hskLevel);
+        if (size < 1) {
+            throw new InvalidRequestException("Page size must be positive", "size", size);
+        }
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Long afterId = after != null ? after.getId() : null;
+        Vocabulary.VariantType variantType = parseVariant(variant);
+
+        VocabularySnapshot snapshot = snapshotManager.current();
+        if (snapshot != null && (search == null || search.isEmpty())) {
+            return snapshot.pageAfter(afterId, size, variantType, hskLevel);
+        }
+
+        Specification<Vocabulary> spec = buildSpecification(search, variantType, hskLevel);
+        if (afterId != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThan(root.get("id"), afterId));
+        }
+
+        List<Vocabulary> rows = vocabularyRepository.findBy(spec, query -> query
+                .sortBy(Sort.by(Sort.Direction.ASC, "id"))
+                .limit(size + 1)
+                .all());
+
+        return PageResponse.ofCursor(rows, size, vocabularyMapper::toResponse,
+                v -> KeysetCursor.encode(null, v.getId()), after != null);
+    }
+
+    @Override
+    @Cacheable(value = "vocabularies", key = "#id", sync = true)
     public VocabularyResponse getById(Long id) {
         log.debug("Fetching vocabulary by ID: {}", id);
         Vocabulary vocabulary = vocabularyRepository.findById(id)
@@ -95,8 +171,54 @@ public class VocabularyServiceImpl implements VocabularyService {
         return vocabularyMapper.toResponse(vocabulary);
     }
 
+    /**
+     * Resolved in at most three round-trips for any number of ids: snapshot hits
+     * first, then one MGET against the getById cache entries, one findAllById for
+     * the misses and one pipelined write-back of what was loaded
+     */
+    @Override
+    public List<VocabularyResponse> getByIds(List<Long> ids) {
+        log.debug("Fetching vocabulary by IDs: {} ids", ids.size());
+
+        Map<Long, VocabularyResponse> found = new HashMap<>();
+        List<Long> pending = new ArrayList<>();
+
+        VocabularySnapshot snapshot = snapshotManager.current();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            int row = snapshot != null ? snapshot.rowOf(id) : -1;
+            if (row >= 0) {
+                found.put(id, snapshot.toResponse(row));
+            } else {
+                pending.add(id);
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            Map<Long, VocabularyResponse> cached = batchCache.getAll(CACHE_NAME, pending, VocabularyResponse.class);
+            found.putAll(cached);
+            pending.removeAll(cached.keySet());
+        }
+
+        if (!pending.isEmpty()) {
+            Map<Long, VocabularyResponse> loaded = new HashMap<>();
+            for (Vocabulary vocabulary : vocabularyRepository.findAllById(pending)) {
+                loaded.put(vocabulary.getId(), vocabularyMapper.toResponse(vocabulary));
+            }
+            batchCache.putAll(CACHE_NAME, loaded);
+            found.putAll(loaded);
+        }
+
+        return ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Not cached: the whole corpus as one Redis value costs more than it saves.
+     * Bulk consumers should use {@link #exportAll(OutputStream)}.
+     */
     @Override
-    @Cacheable(value = "vocabularies", key = "'all'")
     public List<VocabularyResponse> getAll() {
         log.debug("Fetching all vocabulary");
         return vocabularyRepository.findAll(Sort.by(Sort.Direction.ASC, "id")).stream()
@@ -104,15 +226,249 @@ public class VocabularyServiceImpl implements VocabularyService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Writes one JSON object per line from two server-side cursors (rows and tags,
+     * both in id order) merged as they are read, so memory stays flat regardless
+     * of table size. The caller owns the stream and is responsible for closing it.
+     */
+    @Override
+    public long exportAll(OutputStream out) throws IOException {
+        long startTime = System.currentTimeMillis();
+        long count = 0;
+
+        try (Stream<VocabularyRepository.ExportRow> rows = vocabularyRepository.streamAllExportRows();
+             Stream<VocabularyRepository.TagRow> tagRows = vocabularyRepository.streamAllTagRows();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            Iterator<VocabularyRepository.TagRow> tags = tagRows.iterator();
+            VocabularyRepository.TagRow pendingTag = tags.hasNext() ? tags.next() : null;
+
+            for (Iterator<VocabularyRepository.ExportRow> it = rows.iterator(); it.hasNext(); ) {
+                VocabularyRepository.ExportRow row = it.next();
+
+                Set<String> rowTags = new HashSet<>();
+                while (pendingTag != null && pendingTag.getVocabId() <= row.getId()) {
+                    if (pendingTag.getVocabId().equals(row.getId())) {
+                        rowTags.add(pendingTag.getTag());
+                    }
+                    pendingTag = tags.hasNext() ? tags.next() : null;
+                }
+
+                objectMapper.writeValue(generator, VocabularyResponse.builder()
+                        .id(row.getId())
+                        .hanzi(row.getHanzi())
+                        .pinyin(row.getPinyin())
+                        .meaning(row.getMeaning())
+                        .example(row.getExample())
+                        .variant(row.getVariant() != null ? row.getVariant().name() : null)
+                        .hskLevel(row.getHskLevel())
+                        .frequencyRank(row.getFrequencyRank())
+                        .tags(rowTags)
+                        .build());
+                generator.writeRaw('\n');
+                count++;
+            }
+            generator.flush();
+        }
+
+        log.info("Vocabulary export completed: {} rows in {} ms", count, System.currentTimeMillis() - startTime);
+        return count;
+    }
+
+    /**
+     * Pure in-memory work on the segmenter tries; no database or cache access
+     */
+    @Override
+    public AnnotationResponse annotate(String text, String mode) {
+        VocabularySegmenter.Mode segmentMode = parseSegmentMode(mode);
+        VocabularySegmenter segmenter = segmenterManager.currentOrBuild();
+        if (segmenter == null) {
+            throw new InvalidRequestException("Text annotation is disabled");
+        }
+
+        List<VocabularySegmenter.Token> tokens = segmenter.segment(text, segmentMode);
+        List<AnnotatedTokenResponse> annotated = new ArrayList<>(tokens.size());
+        int known = 0;
+        for (VocabularySegmenter.Token token : tokens) {
+            AnnotatedTokenResponse.AnnotatedTokenResponseBuilder builder = AnnotatedTokenResponse.builder()
+                    .text(text.substring(token.getStart(), token.getEnd()))
+                    .start(token.getStart())
+                    .end(token.getEnd())
+                    .known(token.isKnown());
+            if (token.isKnown()) {
+                int word = token.getWord();
+                builder.vocabId(segmenter.primaryIdOf(word))
+                        .vocabIds(Arrays.stream(segmenter.idsOf(word)).boxed().collect(Collectors.toList()))
+                        .pinyin(segmenter.pinyinOf(word))
+                        .meaning(segmenter.meaningOf(word));
+                known++;
+            }
+            annotated.add(builder.build());
+        }
+
+        return AnnotationResponse.builder()
+                .mode(segmentMode.name())
+                .knownTokens(known)
+                .unknownTokens(tokens.size() - known)
+                .tokens(annotated)
+                .build();
+    }
+
+    /**
+     * Answered by the in-memory n-gram index; falls back to a DB-side LIKE query
+     * while the index is still being built
+     */
     @Override
     public List<VocabularyResponse> search(String keyword) {
         log.debug("Searching vocabulary by keyword: {}", keyword);
-        return vocabularyRepository.findAll().stream()
-                .filter(v -> v.getHanzi().contains(keyword)
-                        || v.getPinyin().toLowerCase().contains(keyword.toLowerCase())
-                        || v.getMeaning().toLowerCase().contains(keyword.toLowerCase()))
-                .map(vocabularyMapper::toResponse)
+
+        VocabularyNgramIndex index = ngramIndexManager.current();
+        if (index == null) {
+            return vocabularyRepository.findAll(buildSpecification(keyword, null, null), Sort.by(Sort.Direction.ASC, "id"))
+                    .stream()
+                    .map(vocabularyMapper::toResponse)
+                    .collect(Collectors.toList());
+        }
+
+        return toResponses(index.searchAny(searchKeys(keyword)));
+    }
+
+    /**
+     * The keyword as typed plus its normalized forms, matched against both raw and normalized fields
+     */
+    private static List<String> searchKeys(String keyword) {
+        return Arrays.asList(keyword,
+                SearchTextNormalizer.foldVietnamese(keyword),
+                SearchTextNormalizer.compact(keyword));
+    }
+
+    /**
+     * Resolve ids (in the given order) from the snapshot, loading only snapshot misses from the DB
+     */
+    private List<VocabularyResponse> toResponses(long[] ids) {
+        VocabularySnapshot snapshot = snapshotManager.current();
+        VocabularyResponse[] ordered = new VocabularyResponse[ids.length];
+        Map<Long, Integer> missing = new HashMap<>();
+
+        for (int i = 0; i < ids.length; i++) {
+            int row = snapshot != null ? snapshot.rowOf(ids[i]) : -1;
+            if (row >= 0) {
+                ordered[i] = snapshot.toResponse(row);
+            } else {
+                missing.put(ids[i], i);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (Vocabulary vocabulary : vocabularyRepository.findAllById(missing.keySet())) {
+                ordered[missing.get(vocabulary.getId())] = vocabularyMapper.toResponse(vocabulary);
+            }
+        }
+
+        return Arrays.stream(ordered)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
-}
 
+    static Specification<Vocabulary> buildSpecification(String search, Vocabulary.VariantType variantType,
+                                                        Integer hskLevel) {
+        // Build specification for filtering
+        Specification<Vocabulary> spec = Specification.where(null);
+
+        if (search != null && !search.isEmpty()) {
+            // Normalized columns: "nihao" / "ni3hao3" / "nh" as pinyin prefixes, "xin chao" in meanings
+            String folded = SearchTextNormalizer.foldVietnamese(search);
+            String compact = SearchTextNormalizer.compact(search);
+            spec = spec.and((root, query, cb) -> {
+                List<Predicate> matches = new ArrayList<>();
+                matches.add(cb.like(cb.lower(root.get("hanzi")), "%" + search.toLowerCase() + "%"));
+                matches.add(cb.like(cb.lower(root.get("pinyin")), "%" + search.toLowerCase() + "%"));
+                matches.add(cb.like(cb.lower(root.get("meaning")), "%" + search.toLowerCase() + "%"));
+                if (!compact.isEmpty()) {
+                    matches.add(cb.like(root.get("pinyinPlain"), compact + "%"));
+                    matches.add(cb.like(root.get("pinyinNumeric"), compact + "%"));
+                    matches.add(cb.equal(root.get("pinyinInitials"), compact));
+                    matches.add(cb.like(root.get("meaningFolded"), "%" + folded + "%"));
+                }
+                return cb.or(matches.toArray(new Predicate[0]));
+            });
+        }
+
+        if (variantType != null) {
+            spec = spec.and((root, query, cb) ->
+                    cb.or(
+                            cb.equal(root.get("variant"), variantType),
+                            cb.equal(root.get("variant"), Vocabulary.VariantType.BOTH)
+                    )
+            );
+        }
+
+        if (hskLevel != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("hskLevel"), hskLevel));
+        }
+
+        return spec;
+    }
+
+    /**
+     * ORDER BY the best pg_trgm similarity across hanzi, pinyin and meaning, then id.
+     * Skipped for the count query, which must not carry an ORDER BY.
+     */
+    private Specification<Vocabulary> rankedBySimilarity(String search) {
+        return (root, query, cb) -> {
+            if (!Long.class.equals(query.getResultType())) {
+                Expression<String> term = cb.literal(search.toLowerCase());
+                query.orderBy(
+                        cb.desc(cb.function("greatest", Double.class,
+                                cb.function("similarity", Double.class, cb.lower(root.get("hanzi")), term),
+                                cb.function("similarity", Double.class, cb.lower(root.get("pinyin")), term),
+                                cb.function("similarity", Double.class, cb.lower(root.get("meaning")), term))),
+                        cb.asc(root.get("id"))
+                );
+            }
+            return null;
+        };
+    }
+
+    /**
+     * similarity() only exists once the V4 migration has created pg_trgm; without it
+     * search pages fall back to id order instead of failing
+     */
+    private boolean isTrigramRankingAvailable() {
+        Boolean available = trigramRanking;
+        if (available == null) {
+            available = vocabularyRepository.isTrigramExtensionInstalled();
+            if (!available) {
+                log.warn("pg_trgm extension not installed (migration V4__trigram_search_indexes.sql not applied); " +
+                        "vocabulary search results are ordered by id");
+            }
+            trigramRanking = available;
+        }
+        return available;
+    }
+
+    private VocabularySegmenter.Mode parseSegmentMode(String mode) {
+        if (mode == null || mode.isEmpty()) {
+            return VocabularySegmenter.Mode.BIDIRECTIONAL;
+        }
+        try {
+            return VocabularySegmenter.Mode.valueOf(mode.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid segmentation mode", "mode", mode);
+        }
+    }
+
+    private Vocabulary.VariantType parseVariant(String variant) {
+        if (variant == null || variant.isEmpty()) {
+            return null;
+        }
+        try {
+            return Vocabulary.VariantType.valueOf(variant.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid variant type: {}", variant);
+            return null;
+        }
+    }
+}
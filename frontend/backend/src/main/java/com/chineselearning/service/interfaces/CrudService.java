@@ -36,6 +36,12 @@ public interface CrudService<REQUEST, RESPONSE, ID> {
      */
     PageResponse<RESPONSE> getPage(int page, int size);
 
+    /**
+     * Get resources with keyset pagination (no COUNT query);
+     * an empty cursor starts from the first page
+     */
+    PageResponse<RESPONSE> getPageByCursor(String cursor, int size);
+
     /**
      * Update existing resource
      */
@@ -1,8 +1,11 @@
 package com.chineselearning.service.interfaces;
 
 import com.chineselearning.dto.PageResponse;
+import com.chineselearning.dto.response.AnnotationResponse;
 import com.chineselearning.dto.response.VocabularyResponse;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 /**
@@ -14,20 +17,45 @@ import java.util.List;
 public interface VocabularyService {
 
     /**
-     * Get paginated vocabulary list
+     * Get paginated vocabulary list, optionally filtered by variant and HSK level
      */
-    PageResponse<VocabularyResponse> getVocabulary(int page, int size, String search, String variant);
+    PageResponse<VocabularyResponse> getVocabulary(int page, int size, String search, String variant, Integer hskLevel);
+
+    /**
+     * Get vocabulary list with keyset pagination on id (no COUNT query)
+     */
+    PageResponse<VocabularyResponse> getVocabularyByCursor(String cursor, int size, String search, String variant,
+                                                           Integer hskLevel);
 
     /**
      * Get vocabulary by ID
      */
     VocabularyResponse getById(Long id);
 
+    /**
+     * Get many vocabulary entries by id, in the requested order; unknown ids are skipped
+     */
+    List<VocabularyResponse> getByIds(List<Long> ids);
+
     /**
      * Get all vocabulary
      */
     List<VocabularyResponse> getAll();
 
+    /**
+     * Stream the whole corpus as NDJSON (one VocabularyResponse per line) in id order
+     *
+     * @return number of rows written
+     */
+    long exportAll(OutputStream out) throws IOException;
+
+    /**
+     * Split Chinese text into dictionary words, annotated with pinyin and meaning
+     *
+     * @param mode BIDIRECTIONAL (default), FORWARD or BACKWARD maximum matching
+     */
+    AnnotationResponse annotate(String text, String mode);
+
     /**
      * Search vocabulary by hanzi, pinyin or meaning
      */
@@ -0,0 +1,6 @@
+-- Composite indexes backing keyset (cursor) pagination
+-- Each matches the ORDER BY of the seek query, so a page is an index range scan
+CREATE INDEX IF NOT EXISTS idx_textbooks_year_id ON textbooks(publication_year DESC, id);
+CREATE INDEX IF NOT EXISTS idx_radicals_strokes_id ON radicals(strokes, id);
+CREATE INDEX IF NOT EXISTS idx_grammar_topics_title_id ON grammar_topics(title, id);
+CREATE INDEX IF NOT EXISTS idx_vocabulary_hsk_level_id ON vocabulary(hsk_level, id);
@@ -0,0 +1,8 @@
+-- Trigram indexes for substring search on vocabulary
+-- The service filters with lower(col) LIKE '%term%', which a btree index cannot serve;
+-- GIN indexes on the same lower(col) expressions with gin_trgm_ops can.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_vocabulary_hanzi_trgm ON vocabulary USING gin (lower(hanzi) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_vocabulary_pinyin_trgm ON vocabulary USING gin (lower(pinyin) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_vocabulary_nghia_trgm ON vocabulary USING gin (lower(nghia) gin_trgm_ops);
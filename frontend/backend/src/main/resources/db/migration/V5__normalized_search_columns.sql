@@ -0,0 +1,19 @@
+-- Normalized search keys for vocabulary
+-- Computed by the application on every write (Vocabulary.normalizeSearchFields) and
+-- backfilled for existing rows on startup, so lookups compare against stored values:
+--   pinyin_plain    'nihao'    tone marks stripped, no separators
+--   pinyin_numeric  'ni3hao3'  numeric tones
+--   pinyin_initials 'nh'       first letter of each syllable
+--   nghia_folded    'xin chao' Vietnamese meaning without diacritics
+ALTER TABLE vocabulary ADD COLUMN IF NOT EXISTS pinyin_plain VARCHAR(255);
+ALTER TABLE vocabulary ADD COLUMN IF NOT EXISTS pinyin_numeric VARCHAR(255);
+ALTER TABLE vocabulary ADD COLUMN IF NOT EXISTS pinyin_initials VARCHAR(64);
+ALTER TABLE vocabulary ADD COLUMN IF NOT EXISTS nghia_folded TEXT;
+
+-- text_pattern_ops lets btree indexes serve LIKE 'prefix%' regardless of the DB collation
+CREATE INDEX IF NOT EXISTS idx_vocabulary_pinyin_plain ON vocabulary (pinyin_plain text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_vocabulary_pinyin_numeric ON vocabulary (pinyin_numeric text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_vocabulary_pinyin_initials ON vocabulary (pinyin_initials);
+
+-- Meanings are matched anywhere in the text, as with nghia (see V4)
+CREATE INDEX IF NOT EXISTS idx_vocabulary_nghia_folded_trgm ON vocabulary USING gin (nghia_folded gin_trgm_ops);
@@ -0,0 +1,4 @@
+-- Lookup key for bulk import upserts (hanzi + pinyin)
+-- Not UNIQUE: existing data may already contain duplicate pairs; the import
+-- serializes itself with a table lock instead.
+CREATE INDEX IF NOT EXISTS idx_vocabulary_hanzi_pinyin ON vocabulary(hanzi, pinyin);
@@ -0,0 +1,13 @@
+-- Incremental Elasticsearch sync
+-- Seek indexes matching ORDER BY updated_at, id of the change queries, so a
+-- tick with nothing to do is a single index probe instead of a table scan
+CREATE INDEX IF NOT EXISTS idx_vocabulary_updated_at_id ON vocabulary(updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_grammar_topics_updated_at_id ON grammar_topics(updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_courses_updated_at_id ON courses(updated_at, id);
+
+-- Last synced updated_at per entity
+CREATE TABLE IF NOT EXISTS search_sync_watermarks (
+    entity VARCHAR(50) PRIMARY KEY,
+    watermark TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
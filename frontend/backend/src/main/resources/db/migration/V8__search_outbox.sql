@@ -0,0 +1,9 @@
+-- Transactional outbox for per-entity Elasticsearch updates
+-- Drained in id order by the search outbox indexer; rows are deleted once applied
+CREATE TABLE IF NOT EXISTS search_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    entity VARCHAR(50) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    operation VARCHAR(10) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,54 @@
+package com.chineselearning.dto;
+
+import com.chineselearning.exception.custom.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Senior Backend Architect
+ */
+class KeysetCursorTest {
+
+    @Test
+    void roundTripsSortKeyAndId() {
+        KeysetCursor cursor = KeysetCursor.decode(KeysetCursor.encode(3, 1234L));
+
+        assertThat(cursor.getSortKey()).isEqualTo("3");
+        assertThat(cursor.sortKeyAsInt()).isEqualTo(3);
+        assertThat(cursor.getId()).isEqualTo(1234L);
+    }
+
+    @Test
+    void idOnlyCursorHasNullSortKey() {
+        KeysetCursor cursor = KeysetCursor.decode(KeysetCursor.encode(null, 42L));
+
+        assertThat(cursor.getSortKey()).isNull();
+        assertThat(cursor.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void sortKeyMayContainAnyText() {
+        String encoded = KeysetCursor.encode("学习 / xué xí", 7L);
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+        assertThat(KeysetCursor.decode(encoded).getSortKey()).isEqualTo("学习 / xué xí");
+    }
+
+    @Test
+    void emptyCursorMeansFirstPage() {
+        assertThat(KeysetCursor.decode(null)).isNull();
+        assertThat(KeysetCursor.decode("")).isNull();
+    }
+
+    @Test
+    void tamperedCursorIsRejected() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not base64!"))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode("bm8tc2VwYXJhdG9y"))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(KeysetCursor.encode("x", 1L)).sortKeyAsInt())
+                .isInstanceOf(InvalidRequestException.class);
+    }
+}
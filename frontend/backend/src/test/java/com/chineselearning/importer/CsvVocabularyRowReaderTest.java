@@ -0,0 +1,91 @@
+package com.chineselearning.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Senior Backend Architect
+ */
+class CsvVocabularyRowReaderTest {
+
+    @Test
+    void readsColumnsByHeaderNameInAnyOrder() throws IOException {
+        List<VocabularyImportRow> rows = read("pinyin,HANZI,nghia,hsk_level,frequency_rank,tags,variant\n" +
+                "nǐ hǎo,你好,Xin chào,1,10,greeting | hsk1;basic,BOTH\n");
+
+        assertThat(rows).hasSize(1);
+        VocabularyImportRow row = rows.get(0);
+        assertThat(row.getHanzi()).isEqualTo("你好");
+        assertThat(row.getPinyin()).isEqualTo("nǐ hǎo");
+        assertThat(row.getMeaning()).isEqualTo("Xin chào");
+        assertThat(row.getHskLevel()).isEqualTo(1);
+        assertThat(row.getFrequencyRank()).isEqualTo(10);
+        assertThat(row.getVariant()).isEqualTo("BOTH");
+        assertThat(row.getTags()).containsExactly("greeting", "hsk1", "basic");
+        assertThat(row.getExample()).isNull();
+        assertThat(row.getLineNumber()).isEqualTo(1);
+    }
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+        List<VocabularyImportRow> rows = read("hanzi,meaning,example\r\n" +
+                "好,\"tốt, hay\",\"他说：\"\"好\"\"\r\nhết\"\r\n");
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).getMeaning()).isEqualTo("tốt, hay");
+        assertThat(rows.get(0).getExample()).isEqualTo("他说：\"好\"\r\nhết");
+    }
+
+    @Test
+    void skipsByteOrderMarkAndBlankLines() throws IOException {
+        List<VocabularyImportRow> rows = read("\uFEFFhanzi,pinyin\n一,yī\n\n二,èr");
+
+        assertThat(rows).extracting(VocabularyImportRow::getHanzi).containsExactly("一", "二");
+        assertThat(rows).extracting(VocabularyImportRow::getLineNumber).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void blankAndMissingTrailingFieldsAreNull() throws IOException {
+        List<VocabularyImportRow> rows = read("hanzi,pinyin,meaning,hskLevel\n三,  ,ba\n");
+
+        assertThat(rows.get(0).getPinyin()).isNull();
+        assertThat(rows.get(0).getHskLevel()).isNull();
+        assertThat(rows.get(0).getTags()).isNull();
+    }
+
+    @Test
+    void invalidNumberFailsOnlyThatRow() throws IOException {
+        List<VocabularyImportRow> rows = read("hanzi,hskLevel\n四,four\n五,5\n");
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).getError()).startsWith("Invalid number");
+        assertThat(rows.get(0).getLineNumber()).isEqualTo(1);
+        assertThat(rows.get(1).getError()).isNull();
+        assertThat(rows.get(1).getHskLevel()).isEqualTo(5);
+    }
+
+    @Test
+    void emptyInputHasNoRows() throws IOException {
+        assertThat(read("")).isEmpty();
+        assertThat(read("hanzi,pinyin\n")).isEmpty();
+    }
+
+    private static List<VocabularyImportRow> read(String csv) throws IOException {
+        List<VocabularyImportRow> rows = new ArrayList<>();
+        try (CsvVocabularyRowReader reader =
+                     new CsvVocabularyRowReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)))) {
+            VocabularyImportRow row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
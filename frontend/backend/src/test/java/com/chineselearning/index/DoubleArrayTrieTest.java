@@ -0,0 +1,92 @@
+package com.chineselearning.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Senior Backend Architect
+ */
+class DoubleArrayTrieTest {
+
+    @Test
+    void longestPrefixPicksTheLongestKey() {
+        TreeMap<String, Integer> entries = new TreeMap<>();
+        entries.put("中", 0);
+        entries.put("中国", 1);
+        entries.put("中国人", 2);
+        entries.put("人", 3);
+        DoubleArrayTrie trie = DoubleArrayTrie.build(entries);
+        int[] value = new int[1];
+
+        assertThat(trie.size()).isEqualTo(4);
+        assertThat(trie.maxKeyLength()).isEqualTo(3);
+        assertThat(trie.longestPrefix("我是中国人们", 2, value)).isEqualTo(3);
+        assertThat(value[0]).isEqualTo(2);
+        assertThat(trie.longestPrefix("中国话", 0, value)).isEqualTo(2);
+        assertThat(value[0]).isEqualTo(1);
+        assertThat(trie.longestPrefix("我是", 0, value)).isZero();
+        assertThat(trie.longestPrefix("中", 1, value)).isZero();
+    }
+
+    @Test
+    void reversedWalkFindsTheLongestKeyEndingAtAPosition() {
+        TreeMap<String, Integer> entries = new TreeMap<>();
+        entries.put(new StringBuilder("学生").reverse().toString(), 0);
+        entries.put(new StringBuilder("大学生").reverse().toString(), 1);
+        DoubleArrayTrie trie = DoubleArrayTrie.build(entries);
+        int[] value = new int[1];
+
+        assertThat(trie.longestPrefixReversed("他是大学生吗", 5, value)).isEqualTo(3);
+        assertThat(value[0]).isEqualTo(1);
+        assertThat(trie.longestPrefixReversed("他是大学生吗", 6, value)).isZero();
+    }
+
+    @Test
+    void agreesWithBruteForceOnRandomKeys() {
+        Random random = new Random(7);
+        String alphabet = "的一是不了人我在有他这中大来上国个到说们abcxyz";
+        TreeMap<String, Integer> entries = new TreeMap<>();
+        while (entries.size() < 2000) {
+            entries.putIfAbsent(randomString(random, alphabet, 1 + random.nextInt(5)), entries.size());
+        }
+        DoubleArrayTrie trie = DoubleArrayTrie.build(entries);
+        int[] value = new int[1];
+
+        for (int round = 0; round < 5000; round++) {
+            String text = randomString(random, alphabet, 1 + random.nextInt(8));
+            int expectedLength = 0;
+            for (int length = 1; length <= text.length(); length++) {
+                if (entries.containsKey(text.substring(0, length))) {
+                    expectedLength = length;
+                }
+            }
+
+            int length = trie.longestPrefix(text, 0, value);
+
+            assertThat(length).as(text).isEqualTo(expectedLength);
+            if (length > 0) {
+                assertThat(value[0]).as(text).isEqualTo(entries.get(text.substring(0, length)));
+            }
+        }
+    }
+
+    @Test
+    void emptyTrieMatchesNothing() {
+        DoubleArrayTrie trie = DoubleArrayTrie.build(new TreeMap<>());
+
+        assertThat(trie.size()).isZero();
+        assertThat(trie.longestPrefix("中国", 0, new int[1])).isZero();
+    }
+
+    private static String randomString(Random random, String alphabet, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.chineselearning.index;
+
+import com.chineselearning.event.VocabularyChangedEvent;
+import com.chineselearning.repository.VocabularyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Events with ids (imports, backfills) update the live index in place; only
+ * full refreshes read the whole table
+ *
+ * @author Senior Backend Architect
+ */
+class VocabularyNgramIndexManagerTest {
+
+    private final VocabularyRepository vocabularyRepository = mock(VocabularyRepository.class);
+
+    private VocabularyNgramIndexManager manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = new VocabularyNgramIndexManager(vocabularyRepository);
+        ReflectionTestUtils.setField(manager, "enabled", true);
+        List<VocabularyRepository.SearchRow> rows = List.of(
+                row(1L, "你好", "nǐ hǎo", "Xin chào"),
+                row(2L, "学习", "xué xí", "Học tập"));
+        when(vocabularyRepository.findAllSearchRows()).thenReturn(rows);
+        manager.rebuild();
+    }
+
+    @Test
+    void idEventUpsertsAndRemovesWithoutRebuilding() {
+        // 1 changed, 2 deleted, 3 inserted
+        List<VocabularyRepository.SearchRow> changed = List.of(
+                row(1L, "你们", "nǐ men", "Các bạn"),
+                row(3L, "好学", "hào xué", "Ham học"));
+        when(vocabularyRepository.findSearchRowsByIdIn(Set.of(1L, 2L, 3L))).thenReturn(changed);
+
+        manager.onVocabularyChanged(VocabularyChangedEvent.of(List.of(1L, 2L, 3L)));
+
+        VocabularyNgramIndex index = manager.current();
+        assertThat(index.search("你")).containsExactly(1);
+        assertThat(index.search("你好")).isEmpty();
+        assertThat(index.search("学")).containsExactly(3);
+        assertThat(index.search("ham hoc")).containsExactly(3);
+        verify(vocabularyRepository, times(1)).findAllSearchRows();
+    }
+
+    @Test
+    void fullRefreshRebuilds() {
+        manager.onVocabularyChanged(VocabularyChangedEvent.all());
+
+        verify(vocabularyRepository, times(2)).findAllSearchRows();
+    }
+
+    private static VocabularyRepository.SearchRow row(Long id, String hanzi, String pinyin, String meaning) {
+        VocabularyRepository.SearchRow row = mock(VocabularyRepository.SearchRow.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getHanzi()).thenReturn(hanzi);
+        when(row.getPinyin()).thenReturn(pinyin);
+        when(row.getMeaning()).thenReturn(meaning);
+        return row;
+    }
+}
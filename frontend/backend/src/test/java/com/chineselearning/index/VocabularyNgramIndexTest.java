@@ -0,0 +1,94 @@
+package com.chineselearning.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Senior Backend Architect
+ */
+class VocabularyNgramIndexTest {
+
+    @Test
+    void shortAndLongQueriesMatchSubstringsIgnoringCase() {
+        VocabularyNgramIndex index = new VocabularyNgramIndex();
+        index.upsert(1, "你好", "nǐ hǎo", "Xin chào");
+        index.upsert(2, "学习", "xué xí", "Học tập");
+        index.upsert(3, "好学", "hào xué", "Ham học");
+
+        assertThat(index.search("好")).containsExactly(1, 3);
+        assertThat(index.search("HỌC")).containsExactly(2, 3);
+        assertThat(index.search("xin chào")).containsExactly(1);
+        assertThat(index.search("tập")).containsExactly(2);
+        assertThat(index.search("zzz")).isEmpty();
+    }
+
+    @Test
+    void longQueryRequiresTheGramsAtConsecutiveOffsets() {
+        VocabularyNgramIndex index = new VocabularyNgramIndex();
+        // Every trigram of "abcdab" ("abc", "bcd", "cda", "dab") occurs, but not the whole string
+        index.upsert(1, "abcd dab cda");
+        index.upsert(2, "xabcdabx");
+
+        assertThat(index.search("abcdab")).containsExactly(2);
+    }
+
+    @Test
+    void gramsDoNotSpanTwoFields() {
+        VocabularyNgramIndex index = new VocabularyNgramIndex();
+        index.upsert(1, "ab", "cd");
+
+        assertThat(index.search("bc")).isEmpty();
+        assertThat(index.search("ab")).containsExactly(1);
+    }
+
+    @Test
+    void upsertReplacesAndRemoveDeletes() {
+        VocabularyNgramIndex index = new VocabularyNgramIndex();
+        index.upsert(7, "苹果", "píng guǒ", "Quả táo");
+        index.upsert(7, "香蕉", "xiāng jiāo", "Quả chuối");
+
+        assertThat(index.search("táo")).isEmpty();
+        assertThat(index.search("chuối")).containsExactly(7);
+        assertThat(index.size()).isEqualTo(1);
+
+        index.remove(7);
+        assertThat(index.search("chuối")).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void compactionKeepsResultsAfterManyUpdates() {
+        VocabularyNgramIndex index = new VocabularyNgramIndex();
+        for (long id = 1; id <= 100; id++) {
+            index.upsert(id, "word" + id, null, "v0");
+        }
+        for (int round = 1; round <= 20; round++) {
+            for (long id = 1; id <= 100; id++) {
+                index.upsert(id, "word" + id, null, "v" + round);
+            }
+        }
+
+        assertThat(index.size()).isEqualTo(100);
+        assertThat(index.search("v20")).hasSize(100);
+        assertThat(index.search("v19")).isEmpty();
+        assertThat(index.search("word42")).containsExactly(42);
+    }
+
+    @Test
+    void searchAnyReturnsDistinctAscendingUnion() {
+        VocabularyNgramIndex index = new VocabularyNgramIndex();
+        index.upsert(30, "三", "sān", "ba");
+        index.upsert(10, "一", "yī", "một");
+        index.upsert(20, "二", "èr", "hai");
+
+        long[] ids = index.searchAny(Arrays.asList("sān", "yī", "一", null, " "));
+
+        assertThat(ids).containsExactly(10, 30);
+        assertThat(index.searchAny(List.of(" "))).isEmpty();
+        assertThat(index.search(null)).isEmpty();
+    }
+}
@@ -0,0 +1,75 @@
+package com.chineselearning.index;
+
+import com.chineselearning.event.VocabularyChangedEvent;
+import com.chineselearning.repository.VocabularyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Events with ids (imports, backfills) refresh the live trie incrementally; only
+ * full refreshes read the whole table
+ *
+ * @author Senior Backend Architect
+ */
+class VocabularySuggestTrieManagerTest {
+
+    private final VocabularyRepository vocabularyRepository = mock(VocabularyRepository.class);
+
+    private VocabularySuggestTrieManager manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = new VocabularySuggestTrieManager(vocabularyRepository);
+        ReflectionTestUtils.setField(manager, "enabled", true);
+        ReflectionTestUtils.setField(manager, "topK", 20);
+        List<VocabularyRepository.SuggestRow> rows = List.of(
+                row(1L, "你好", "nǐ hǎo", "Xin chào", 10),
+                row(2L, "你们", "nǐ men", "Các bạn", 20));
+        when(vocabularyRepository.findAllSuggestRows()).thenReturn(rows);
+        manager.rebuild();
+    }
+
+    @Test
+    void idEventUpsertsAndRemovesWithoutRebuilding() {
+        // 1 changed, 2 deleted, 3 inserted
+        List<VocabularyRepository.SuggestRow> changed = List.of(
+                row(1L, "你好", "nǐ hǎo", "Chào bạn", 10),
+                row(3L, "你的", "nǐ de", "Của bạn", 5));
+        when(vocabularyRepository.findSuggestRowsByIdIn(Set.of(1L, 2L, 3L))).thenReturn(changed);
+
+        manager.onVocabularyChanged(VocabularyChangedEvent.of(List.of(1L, 2L, 3L)));
+
+        assertThat(manager.suggest("ni", 10)).containsExactly("你的", "你好");
+        assertThat(manager.suggest("chao", 10)).containsExactly("你好");
+        assertThat(manager.suggest("xin chao", 10)).isEmpty();
+        verify(vocabularyRepository, times(1)).findAllSuggestRows();
+    }
+
+    @Test
+    void fullRefreshRebuilds() {
+        manager.onVocabularyChanged(VocabularyChangedEvent.all());
+
+        verify(vocabularyRepository, times(2)).findAllSuggestRows();
+    }
+
+    private static VocabularyRepository.SuggestRow row(Long id, String hanzi, String pinyin, String meaning,
+                                                       Integer frequencyRank) {
+        VocabularyRepository.SuggestRow row = mock(VocabularyRepository.SuggestRow.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getHanzi()).thenReturn(hanzi);
+        when(row.getPinyin()).thenReturn(pinyin);
+        when(row.getMeaning()).thenReturn(meaning);
+        when(row.getFrequencyRank()).thenReturn(frequencyRank);
+        return row;
+    }
+}
@@ -0,0 +1,143 @@
+package com.chineselearning.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Senior Backend Architect
+ */
+class VocabularySuggestTrieTest {
+
+    @Test
+    void ranksByFrequencyThenHskLevelThenId() {
+        VocabularySuggestTrie trie = new VocabularySuggestTrie(10);
+        trie.update(List.of(
+                item(1, "学", null, 1, "xue"),
+                item(2, "学习", 50, 1, "xuexi"),
+                item(3, "学生", 20, 2, "xuesheng"),
+                item(4, "学校", 20, 1, "xuexiao"),
+                item(5, "雪", null, null, "xue")), List.of());
+
+        assertThat(trie.suggest(List.of("xue"), 10)).containsExactly("学校", "学生", "学习", "学", "雪");
+        assertThat(trie.suggest(List.of("xuex"), 10)).containsExactly("学校", "学习");
+        assertThat(trie.suggest(List.of("xuexia"), 10)).containsExactly("学校");
+        assertThat(trie.suggest(List.of("zh"), 10)).isEmpty();
+    }
+
+    @Test
+    void limitIsCappedByTopK() {
+        VocabularySuggestTrie trie = new VocabularySuggestTrie(2);
+        trie.update(List.of(item(1, "一", 1, 1, "yi"), item(2, "医", 2, 1, "yi"), item(3, "衣", 3, 1, "yi")),
+                List.of());
+
+        assertThat(trie.suggest(List.of("y"), 10)).containsExactly("一", "医");
+        assertThat(trie.suggest(List.of("y"), 1)).containsExactly("一");
+        assertThat(trie.suggest(List.of("y"), 0)).isEmpty();
+        assertThatThrownBy(() -> new VocabularySuggestTrie(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void suggestionsAreDistinctByHanziAcrossKeysAndPrefixes() {
+        VocabularySuggestTrie trie = new VocabularySuggestTrie(10);
+        trie.update(List.of(
+                item(1, "好", 5, 1, "hao", "hao3", "h"),
+                item(2, "好", 9, 1, "hao4"),
+                item(3, "号", 7, 1, "hao", "hao4")), List.of());
+
+        assertThat(trie.suggest(List.of("hao", "h"), 10)).containsExactly("好", "号");
+    }
+
+    @Test
+    void updatesReplaceKeysAndRemovalsDropEntries() {
+        VocabularySuggestTrie trie = new VocabularySuggestTrie(10);
+        trie.update(List.of(item(1, "苹果", 1, 1, "pingguo"), item(2, "平时", 2, 2, "pingshi")), List.of());
+
+        trie.update(List.of(item(1, "苹果", 1, 1, "apple")), List.of(2L));
+
+        assertThat(trie.suggest(List.of("ping"), 10)).isEmpty();
+        assertThat(trie.suggest(List.of("app"), 10)).containsExactly("苹果");
+        assertThat(trie.size()).isEqualTo(1);
+    }
+
+    @Test
+    void agreesWithBruteForceOnRandomUpdates() {
+        Random random = new Random(11);
+        VocabularySuggestTrie trie = new VocabularySuggestTrie(5);
+        Map<Long, Object[]> live = new HashMap<>();
+
+        for (int batch = 0; batch < 50; batch++) {
+            // Last operation per id wins: an item, or null for a removal
+            Map<Long, VocabularySuggestTrie.Item> operations = new HashMap<>();
+            for (int i = 0; i < 20; i++) {
+                long id = 1 + random.nextInt(200);
+                if (random.nextInt(4) == 0) {
+                    operations.put(id, null);
+                    live.remove(id);
+                } else {
+                    String hanzi = "字" + random.nextInt(150);
+                    int rank = random.nextInt(30);
+                    String key = randomKey(random);
+                    operations.put(id, item(id, hanzi, rank, 1, key));
+                    live.put(id, new Object[]{id, hanzi, rank, key});
+                }
+            }
+            List<VocabularySuggestTrie.Item> upserts = new ArrayList<>();
+            List<Long> removals = new ArrayList<>();
+            for (Map.Entry<Long, VocabularySuggestTrie.Item> operation : operations.entrySet()) {
+                if (operation.getValue() != null) {
+                    upserts.add(operation.getValue());
+                } else {
+                    removals.add(operation.getKey());
+                }
+            }
+            trie.update(upserts, removals);
+
+            for (String prefix : List.of("a", "b", "ab", "ba", "abc", "cab", "c")) {
+                assertThat(trie.suggest(List.of(prefix), 5)).as(prefix).isEqualTo(bruteForce(live, prefix, 5));
+            }
+        }
+        assertThat(trie.size()).isEqualTo(live.size());
+    }
+
+    private static List<String> bruteForce(Map<Long, Object[]> live, String prefix, int limit) {
+        List<Object[]> matches = new ArrayList<>();
+        for (Object[] entry : live.values()) {
+            if (((String) entry[3]).startsWith(prefix)) {
+                matches.add(entry);
+            }
+        }
+        matches.sort(Comparator.<Object[]>comparingInt(e -> (Integer) e[2]).thenComparingLong(e -> (Long) e[0]));
+        Set<String> hanzi = new LinkedHashSet<>();
+        for (Object[] entry : matches) {
+            if (hanzi.size() < limit) {
+                hanzi.add((String) entry[1]);
+            }
+        }
+        return new ArrayList<>(hanzi);
+    }
+
+    private static String randomKey(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int length = 1 + random.nextInt(4);
+        for (int i = 0; i < length; i++) {
+            sb.append("abc".charAt(random.nextInt(3)));
+        }
+        return sb.toString();
+    }
+
+    private static VocabularySuggestTrie.Item item(long id, String hanzi, Integer frequencyRank, Integer hskLevel,
+                                                   String... keys) {
+        return new VocabularySuggestTrie.Item(id, hanzi, frequencyRank, hskLevel, List.of(keys));
+    }
+}
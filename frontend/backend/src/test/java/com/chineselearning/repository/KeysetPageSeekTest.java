@@ -0,0 +1,165 @@
+package com.chineselearning.repository;
+
+import com.chineselearning.domain.GrammarTopic;
+import com.chineselearning.domain.Radical;
+import com.chineselearning.domain.Textbook;
+import com.chineselearning.support.CapturedSql;
+import com.chineselearning.support.PostgresRepositoryTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * findKeysetPageAfter walks every row once and seeks on the V3 composite indexes
+ *
+ * @author Senior Backend Architect
+ */
+@TestPropertySource(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.chineselearning.support.CapturedSql")
+class KeysetPageSeekTest extends PostgresRepositoryTest {
+
+    private static final int ROWS = 20_000;
+    private static final int PAGE = 500;
+
+    @Autowired
+    private RadicalRepository radicalRepository;
+
+    @Autowired
+    private GrammarTopicRepository grammarTopicRepository;
+
+    @Autowired
+    private TextbookRepository textbookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void loadRows() {
+        jdbcTemplate.update("DELETE FROM radicals");
+        jdbcTemplate.update("DELETE FROM grammar_topics");
+        jdbcTemplate.update("UPDATE courses SET textbook_id = NULL");
+        jdbcTemplate.update("DELETE FROM textbooks");
+        // Few distinct sort keys, so the id tie-break is exercised on every page boundary
+        jdbcTemplate.update("INSERT INTO radicals (hanzi, strokes) " +
+                "SELECT 'r' || i, 1 + i % 17 FROM generate_series(1, ?) AS i", ROWS);
+        jdbcTemplate.update("INSERT INTO grammar_topics (title, level) " +
+                "SELECT 'Topic ' || (i % 300), 'BASIC' FROM generate_series(1, ?) AS i", ROWS);
+        jdbcTemplate.update("INSERT INTO textbooks (name, version, publication_year) " +
+                "SELECT 'Book ' || i, 'NEW', 1990 + i % 30 FROM generate_series(1, ?) AS i", ROWS);
+        jdbcTemplate.execute("ANALYZE radicals");
+        jdbcTemplate.execute("ANALYZE grammar_topics");
+        jdbcTemplate.execute("ANALYZE textbooks");
+        CapturedSql.clear();
+    }
+
+    @Test
+    void radicalPagesVisitEveryRowOnce() {
+        List<Long> seen = new ArrayList<>();
+        List<Radical> rows = radicalRepository.findFirstKeysetPage(PageRequest.ofSize(PAGE));
+        while (!rows.isEmpty()) {
+            rows.forEach(r -> seen.add(r.getId()));
+            Radical last = rows.get(rows.size() - 1);
+            rows = radicalRepository.findKeysetPageAfter(last.getStrokes(), last.getId(), PageRequest.ofSize(PAGE));
+        }
+
+        assertThat(seen).isEqualTo(jdbcTemplate.queryForList(
+                "SELECT id FROM radicals ORDER BY strokes, id", Long.class));
+    }
+
+    @Test
+    void grammarTopicPagesVisitEveryRowOnce() {
+        List<Long> seen = new ArrayList<>();
+        List<GrammarTopic> rows = grammarTopicRepository.findFirstKeysetPage(PageRequest.ofSize(PAGE));
+        while (!rows.isEmpty()) {
+            rows.forEach(g -> seen.add(g.getId()));
+            GrammarTopic last = rows.get(rows.size() - 1);
+            rows = grammarTopicRepository.findKeysetPageAfter(last.getTitle(), last.getId(), PageRequest.ofSize(PAGE));
+        }
+
+        assertThat(seen).isEqualTo(jdbcTemplate.queryForList(
+                "SELECT id FROM grammar_topics ORDER BY title, id", Long.class));
+    }
+
+    @Test
+    void textbookPagesVisitEveryRowOnce() {
+        List<Long> seen = new ArrayList<>();
+        List<Textbook> rows = textbookRepository.findFirstKeysetPage(PageRequest.ofSize(PAGE));
+        while (!rows.isEmpty()) {
+            rows.forEach(t -> seen.add(t.getId()));
+            Textbook last = rows.get(rows.size() - 1);
+            rows = textbookRepository.findKeysetPageAfter(last.getPublicationYear(), last.getId(),
+                    PageRequest.ofSize(PAGE));
+        }
+
+        assertThat(seen).isEqualTo(jdbcTemplate.queryForList(
+                "SELECT id FROM textbooks ORDER BY publication_year DESC, id", Long.class));
+    }
+
+    @Test
+    void radicalSeekIsAnIndexRangeCondition() {
+        radicalRepository.findKeysetPageAfter(9, 0L, PageRequest.ofSize(20));
+
+        assertThat(explain(CapturedSql.last("FROM radicals r WHERE"), "9, 0, 20"))
+                .contains("Index Scan using idx_radicals_strokes_id")
+                .containsPattern("Index Cond: \\(ROW\\(strokes, id\\) > ROW\\(")
+                .doesNotContain("Filter")
+                .doesNotContain("Sort");
+    }
+
+    @Test
+    void grammarTopicSeekIsAnIndexRangeCondition() {
+        grammarTopicRepository.findKeysetPageAfter("Topic 5", 0L, PageRequest.ofSize(20));
+
+        assertThat(explain(CapturedSql.last("FROM grammar_topics g WHERE"), "'Topic 5', 0, 20"))
+                .contains("Index Scan using idx_grammar_topics_title_id")
+                .containsPattern("Index Cond: \\(ROW\\(\\(title\\)::text, id\\) > ROW\\(")
+                .doesNotContain("Filter")
+                .doesNotContain("Sort");
+    }
+
+    @Test
+    void textbookSeekStartsAtTheYear() {
+        textbookRepository.findKeysetPageAfter(2005, 0L, PageRequest.ofSize(20));
+        String sql = CapturedSql.last("publication_year<=");
+
+        // Only rows of the cursor year are filtered, the range starts at that year
+        assertThat(explain(sql, "2005, 2005, 0, 0, 20"))
+                .contains("Index Scan using idx_textbooks_year_id")
+                .containsPattern("Index Cond: \\(publication_year <= ")
+                .doesNotContain("Sort");
+    }
+
+    /**
+     * Plan of sql as a prepared statement executed with the given parameters
+     */
+    private String explain(String sql, String parameters) {
+        jdbcTemplate.execute("PREPARE keyset_page AS " + numberPlaceholders(sql));
+        try {
+            return String.join("\n", jdbcTemplate.queryForList(
+                    "EXPLAIN EXECUTE keyset_page(" + parameters + ")", String.class));
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE keyset_page");
+        }
+    }
+
+    private static String numberPlaceholders(String sql) {
+        StringBuilder sb = new StringBuilder();
+        int n = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                sb.append('$').append(++n);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
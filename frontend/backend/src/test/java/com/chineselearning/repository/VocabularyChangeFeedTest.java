@@ -0,0 +1,107 @@
+package com.chineselearning.repository;
+
+import com.chineselearning.domain.Vocabulary;
+import com.chineselearning.support.CapturedSql;
+import com.chineselearning.support.PostgresRepositoryTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * findChangedAfter walks (updated_at, id) with a seek on idx_vocabulary_updated_at_id
+ *
+ * @author Senior Backend Architect
+ */
+@TestPropertySource(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.chineselearning.support.CapturedSql")
+class VocabularyChangeFeedTest extends PostgresRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final int ROWS = 1_000;
+
+    @Autowired
+    private VocabularyRepository vocabularyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void loadRows() {
+        jdbcTemplate.update("DELETE FROM vocabulary");
+        // Ten rows per timestamp, so the id tie-break is exercised on every chunk boundary
+        jdbcTemplate.update("INSERT INTO vocabulary (hanzi, pinyin, nghia, variant, updated_at) " +
+                "SELECT md5(i::text), 'cí', 'Nghĩa', 'BOTH', ?::timestamp + (i / 10) * interval '1 second' " +
+                "FROM generate_series(1, ?) AS i", Timestamp.valueOf(START), ROWS);
+        jdbcTemplate.execute("ANALYZE vocabulary");
+        CapturedSql.clear();
+    }
+
+    @Test
+    void chunksVisitEveryRowOnceInUpdatedAtIdOrder() {
+        List<Long> seen = new ArrayList<>();
+        List<Vocabulary> rows = vocabularyRepository.findChangedAfter(START.minusDays(1), Long.MAX_VALUE,
+                PageRequest.ofSize(37));
+        while (!rows.isEmpty()) {
+            rows.forEach(v -> seen.add(v.getId()));
+            Vocabulary last = rows.get(rows.size() - 1);
+            rows = vocabularyRepository.findChangedAfter(last.getUpdatedAt(), last.getId(), PageRequest.ofSize(37));
+        }
+
+        List<Long> expected = jdbcTemplate.queryForList("SELECT id FROM vocabulary ORDER BY updated_at, id", Long.class);
+        assertThat(seen).isEqualTo(expected);
+    }
+
+    @Test
+    void maxIdCursorSkipsRowsAtTheWatermark() {
+        LocalDateTime watermark = START.plusSeconds(99);
+
+        List<Vocabulary> rows = vocabularyRepository.findChangedAfter(watermark, Long.MAX_VALUE, PageRequest.ofSize(5));
+
+        assertThat(rows).isNotEmpty().allSatisfy(v -> assertThat(v.getUpdatedAt()).isAfter(watermark));
+    }
+
+    @Test
+    void seekIsAnIndexRangeCondition() {
+        vocabularyRepository.findChangedAfter(START, 0L, PageRequest.ofSize(20));
+        String sql = CapturedSql.last("FROM vocabulary v WHERE");
+
+        // Explained as a prepared statement, with the same parameters the sync passes
+        jdbcTemplate.execute("PREPARE change_feed AS " + numberPlaceholders(sql));
+        String plan;
+        try {
+            plan = String.join("\n", jdbcTemplate.queryForList(
+                    "EXPLAIN EXECUTE change_feed('" + START + "', 0, 20)", String.class));
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE change_feed");
+        }
+
+        assertThat(plan)
+                .contains("Index Scan using idx_vocabulary_updated_at_id")
+                .containsPattern("Index Cond: \\(ROW\\(updated_at, id\\) > ROW\\(")
+                .doesNotContain("Seq Scan")
+                .doesNotContain("Sort");
+    }
+
+    private static String numberPlaceholders(String sql) {
+        StringBuilder sb = new StringBuilder();
+        int n = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                sb.append('$').append(++n);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
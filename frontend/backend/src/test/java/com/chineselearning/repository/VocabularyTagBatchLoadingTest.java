@@ -0,0 +1,57 @@
+package com.chineselearning.repository;
+
+import com.chineselearning.domain.Vocabulary;
+import com.chineselearning.support.PostgresRepositoryTest;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vocabulary.tags is batch-loaded: touching the tags of a whole page costs one query, not one per row
+ *
+ * @author Senior Backend Architect
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class VocabularyTagBatchLoadingTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private VocabularyRepository vocabularyRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void pageOfVocabulariesLoadsTagsInOneStatement() {
+        jdbcTemplate.update("INSERT INTO vocabulary (hanzi, pinyin, nghia, variant) " +
+                "SELECT '词' || i, 'cí', 'Nghĩa ' || i, 'BOTH' FROM generate_series(1, 50) AS i");
+        jdbcTemplate.update("INSERT INTO vocab_tags (vocab_id, tag) " +
+                "SELECT id, 'tag' || (id % 3) FROM vocabulary ON CONFLICT DO NOTHING");
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<Vocabulary> page = vocabularyRepository.findAll(PageRequest.of(0, 20, Sort.by("id")));
+        int tagged = 0;
+        for (Vocabulary vocabulary : page.getContent()) {
+            tagged += vocabulary.getTags().isEmpty() ? 0 : 1;
+        }
+
+        assertThat(page.getContent()).hasSize(20);
+        assertThat(tagged).isEqualTo(20);
+        // Page select + count + a single batched vocab_tags IN query (21+ without @BatchSize)
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+}
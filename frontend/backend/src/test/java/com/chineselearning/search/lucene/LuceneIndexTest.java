@@ -0,0 +1,60 @@
+package com.chineselearning.search.lucene;
+
+import com.chineselearning.search.service.SearchIndexManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.lucene.search.IndexSearcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A replaced index version stays on disk and searchable until its last reference is released
+ *
+ * @author Senior Backend Architect
+ */
+class LuceneIndexTest {
+
+    @TempDir
+    Path root;
+
+    private LuceneSchema schema;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        try (InputStream in = new ClassPathResource(
+                SearchIndexManager.settingsFile(SearchIndexManager.GRAMMAR_TOPICS)).getInputStream()) {
+            schema = LuceneSchema.fromSettings(new ObjectMapper().readTree(in));
+        }
+    }
+
+    @Test
+    void lastReleaseDropsTheIndex() throws IOException {
+        Path path = root.resolve("grammar_topics_1");
+        LuceneIndex index = LuceneIndex.open("grammar_topics_1", path, schema, true);
+        index.commit();
+
+        // A search takes a reference, then the owner retires the version
+        assertThat(index.tryIncRef()).isTrue();
+        index.decRef();
+
+        assertThat(path).exists();
+        IndexSearcher searcher = index.acquire();
+        try {
+            assertThat(searcher.getIndexReader().numDocs()).isZero();
+        } finally {
+            index.release(searcher);
+        }
+
+        index.decRef();
+        assertThat(Files.exists(path)).isFalse();
+        assertThat(index.tryIncRef()).isFalse();
+    }
+}
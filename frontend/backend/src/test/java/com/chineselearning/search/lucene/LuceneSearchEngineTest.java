@@ -0,0 +1,315 @@
+package com.chineselearning.search.lucene;
+
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import com.chineselearning.search.document.GrammarTopicDocument;
+import com.chineselearning.search.dto.SearchRequest;
+import com.chineselearning.search.service.SearchIndexManager;
+import com.chineselearning.search.service.SearchQueryBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.core.suggest.Completion;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Embedded engine against a temporary directory: queries built by
+ * SearchQueryBuilder, incremental writes, reopening, and rebuilds that run
+ * while the alias is searched and written
+ *
+ * @author Senior Backend Architect
+ */
+class LuceneSearchEngineTest {
+
+    private static final String ALIAS = SearchIndexManager.GRAMMAR_TOPICS;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @TempDir
+    Path root;
+
+    private LuceneSearchEngine engine;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        engine = openEngine();
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    void rebuildMakesTheLoadedDocumentsSearchable() {
+        rebuild(topics(1, 20));
+
+        SearchHits<GrammarTopicDocument> hits = search(request("comparison"));
+
+        assertThat(hits.getTotalHits()).isEqualTo(20);
+        assertThat(hits.getSearchHits()).hasSize(10);
+        assertThat(hits.getSearchHit(0).getContent().getTitle()).startsWith("Comparison");
+    }
+
+    @Test
+    void fuzzySearchToleratesTyposUnlessDisabled() {
+        rebuild(topics(1, 5));
+
+        SearchRequest typo = request("comparisn");
+        assertThat(search(typo).getTotalHits()).isEqualTo(5);
+
+        typo.setFuzzySearch(false);
+        assertThat(search(typo).getTotalHits()).isZero();
+    }
+
+    @Test
+    void levelFilterAndFacetsCountTheOtherLevels() {
+        rebuild(topics(1, 9));
+
+        SearchRequest request = request(null);
+        request.setGrammarLevel("BASIC");
+        request.setFacets(true);
+        SearchHits<GrammarTopicDocument> hits = search(request);
+
+        assertThat(hits.getTotalHits()).isEqualTo(3);
+        assertThat(hits.getSearchHits()).allMatch(hit -> "BASIC".equals(hit.getContent().getLevel()));
+        ElasticsearchAggregations aggregations = (ElasticsearchAggregations) hits.getAggregations();
+        List<StringTermsBucket> buckets = aggregations.get("level").aggregation().getAggregate().filter()
+                .aggregations().get(SearchQueryBuilder.FACET_VALUES).sterms().buckets().array();
+        assertThat(buckets).extracting(StringTermsBucket::key)
+                .extracting(key -> key.stringValue())
+                .containsExactly("ADVANCED", "BASIC", "MEDIUM");
+        assertThat(buckets).extracting(StringTermsBucket::docCount).containsOnly(3L);
+    }
+
+    @Test
+    void searchAfterPagesThroughEveryDocumentOnce() {
+        rebuild(topics(1, 25));
+
+        List<Long> ids = new ArrayList<>();
+        List<Object> after = null;
+        while (true) {
+            NativeQuery query = SearchQueryBuilder.grammar(request(null))
+                    .withSort(Sort.by(Sort.Order.desc("updatedAt"), Sort.Order.asc("id")))
+                    .withPageable(PageRequest.of(0, 10))
+                    .withSearchAfter(after)
+                    .build();
+            SearchHits<GrammarTopicDocument> page = engine.search(query, GrammarTopicDocument.class, ALIAS);
+            if (page.getSearchHits().isEmpty()) {
+                break;
+            }
+            for (SearchHit<GrammarTopicDocument> hit : page) {
+                ids.add(hit.getContent().getId());
+            }
+            after = page.getSearchHit(page.getSearchHits().size() - 1).getSortValues();
+        }
+
+        assertThat(ids).containsExactlyElementsOf(
+                LongStream.rangeClosed(1, 25).map(id -> 26 - id).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    void minScoreDropsWeakHits() {
+        List<GrammarTopicDocument> topics = topics(1, 4);
+        topics.get(0).setTitle("Comparison with 比 comparison comparison");
+        topics.get(0).buildSearchText();
+        rebuild(topics);
+
+        SearchRequest request = request("comparison");
+        float best = search(request).getMaxScore();
+        request.setMinScore(best);
+
+        SearchHits<GrammarTopicDocument> hits = search(request);
+        assertThat(hits.getTotalHits()).isEqualTo(1);
+        assertThat(hits.getSearchHit(0).getContent().getId()).isEqualTo(1L);
+    }
+
+    @Test
+    void suggestReturnsTitlesByWeight() {
+        List<GrammarTopicDocument> topics = topics(1, 3);
+        topics.get(2).setTitleSuggest(completion(topics.get(2).getTitle(), 50));
+        rebuild(topics);
+
+        assertThat(engine.suggest(ALIAS, "titleSuggest", "COMP", 2, null))
+                .containsExactly("Comparison 3", "Comparison 1");
+        assertThat(engine.suggest(ALIAS, "titleSuggest", "xyz", 5, null)).isEmpty();
+    }
+
+    @Test
+    void writesAndDeletesAreSearchableAndSurviveReopening() throws IOException {
+        rebuild(topics(1, 3));
+
+        engine.save(ALIAS, 4L, topic(4));
+        engine.delete(ALIAS, List.of(1L));
+        assertThat(ids(search(request(null)))).containsExactlyInAnyOrder(2L, 3L, 4L);
+
+        engine.close();
+        engine = openEngine();
+        assertThat(ids(search(request(null)))).containsExactlyInAnyOrder(2L, 3L, 4L);
+    }
+
+    @Test
+    void writesDuringARebuildAreKeptByTheNewVersion() {
+        rebuild(topics(1, 3));
+
+        engine.rebuild(ALIAS, name -> {
+            engine.index(name, queries(topics(1, 3)));
+            // Written through the alias while the load runs, after the loader read its rows
+            engine.save(ALIAS, 4L, topic(4));
+            engine.delete(ALIAS, List.of(2L));
+            engine.save(ALIAS, 3L, renamed(topic(3), "Resultative complements"));
+            assertThat(ids(search(request(null)))).containsExactlyInAnyOrder(1L, 3L, 4L);
+            return null;
+        });
+
+        SearchHits<GrammarTopicDocument> hits = search(request(null));
+        assertThat(ids(hits)).containsExactlyInAnyOrder(1L, 3L, 4L);
+        assertThat(hits.getSearchHits()).filteredOn(hit -> hit.getContent().getId() == 3L)
+                .extracting(hit -> hit.getContent().getTitle())
+                .containsExactly("Resultative complements");
+    }
+
+    @Test
+    void searchesKeepWorkingWhileVersionsAreReplaced() throws Exception {
+        rebuild(topics(1, 50));
+        AtomicBoolean rebuilding = new AtomicBoolean(true);
+        ExecutorService searchers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(searchers.submit(() -> {
+                    int searches = 0;
+                    while (rebuilding.get()) {
+                        assertThat(search(request("comparison")).getTotalHits()).isEqualTo(50);
+                        assertThat(engine.suggest(ALIAS, "titleSuggest", "comp", 5, null)).hasSize(5);
+                        searches++;
+                    }
+                    return searches;
+                }));
+            }
+            for (int i = 0; i < 20; i++) {
+                rebuild(topics(1, 50));
+            }
+            rebuilding.set(false);
+            for (Future<Integer> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS)).isPositive();
+            }
+        } finally {
+            rebuilding.set(false);
+            searchers.shutdownNow();
+        }
+
+        // Replaced versions were removed once released; only the live one is left
+        try (Stream<Path> versions = Files.list(root)) {
+            assertThat(versions.filter(dir -> dir.getFileName().toString().startsWith(ALIAS + "_"))).hasSize(1);
+        }
+    }
+
+    private LuceneSearchEngine openEngine() throws IOException {
+        LuceneSearchEngine opened = new LuceneSearchEngine(objectMapper);
+        ReflectionTestUtils.setField(opened, "engine", LuceneSearchEngine.ENGINE);
+        ReflectionTestUtils.setField(opened, "path", root.toString());
+        opened.open();
+        return opened;
+    }
+
+    private void rebuild(List<GrammarTopicDocument> topics) {
+        engine.rebuild(ALIAS, name -> {
+            engine.index(name, queries(topics));
+            return null;
+        });
+    }
+
+    private SearchHits<GrammarTopicDocument> search(SearchRequest request) {
+        NativeQuery query = SearchQueryBuilder.grammar(request)
+                .withPageable(PageRequest.of(request.getPage(), request.getSize()))
+                .withMinScore(request.getMinScore() == null ? 0 : request.getMinScore())
+                .build();
+        return engine.search(query, GrammarTopicDocument.class, ALIAS);
+    }
+
+    private static SearchRequest request(String query) {
+        SearchRequest request = new SearchRequest();
+        request.setQuery(query);
+        request.setSize(10);
+        return request;
+    }
+
+    private static List<Long> ids(SearchHits<GrammarTopicDocument> hits) {
+        return hits.getSearchHits().stream().map(hit -> hit.getContent().getId()).collect(Collectors.toList());
+    }
+
+    private static List<IndexQuery> queries(List<GrammarTopicDocument> topics) {
+        return topics.stream()
+                .map(topic -> new IndexQueryBuilder().withId(String.valueOf(topic.getId())).withObject(topic).build())
+                .collect(Collectors.toList());
+    }
+
+    private static List<GrammarTopicDocument> topics(int first, int last) {
+        List<GrammarTopicDocument> topics = new ArrayList<>();
+        for (int id = first; id <= last; id++) {
+            topics.add(topic(id));
+        }
+        return topics;
+    }
+
+    private static GrammarTopicDocument topic(int id) {
+        String[] levels = {"BASIC", "MEDIUM", "ADVANCED"};
+        GrammarTopicDocument topic = GrammarTopicDocument.builder()
+                .id((long) id)
+                .title("Comparison " + id)
+                .description("Sentences with 比")
+                .content("A 比 B adjective")
+                .level(levels[(id - 1) % levels.length])
+                .createdAt(START)
+                .updatedAt(START.plusMinutes(id))
+                .titleSuggest(completion("Comparison " + id, 10 - Math.min(id, 9)))
+                .build();
+        topic.buildSearchText();
+        return topic;
+    }
+
+    private static GrammarTopicDocument renamed(GrammarTopicDocument topic, String title) {
+        topic.setTitle(title);
+        topic.setTitleSuggest(completion(title, 1));
+        topic.buildSearchText();
+        return topic;
+    }
+
+    private static Completion completion(String input, int weight) {
+        Completion completion = new Completion(new String[]{input});
+        completion.setWeight(weight);
+        return completion;
+    }
+}
@@ -0,0 +1,95 @@
+package com.chineselearning.search.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import com.chineselearning.search.lucene.LuceneSearchEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Writes made through the alias while a rebuild loads are replayed into the new index around the swap
+ *
+ * @author Senior Backend Architect
+ */
+class SearchIndexManagerTest {
+
+    private final ElasticsearchOperations operations = mock(ElasticsearchOperations.class, RETURNS_DEEP_STUBS);
+    private final ElasticsearchClient client = mock(ElasticsearchClient.class, RETURNS_DEEP_STUBS);
+    private final SearchIndexManager manager = new SearchIndexManager(operations, client, new ObjectMapper(),
+            mock(LuceneSearchEngine.class));
+
+    @Test
+    void changesDuringTheLoadAreReplayedBeforeAndAfterTheSwap() {
+        IndexOperations indexOps = operations.indexOps(any(IndexCoordinates.class));
+        List<Set<Long>> replayed = new ArrayList<>();
+        BiConsumer<IndexCoordinates, Set<Long>> replay = mockReplay(replayed, (index, ids) -> {
+            if (replayed.size() == 1) {
+                // A write racing with the swap
+                manager.recordChange(SearchIndexManager.VOCABULARIES, List.of(3L));
+            }
+        });
+
+        manager.recordChange(SearchIndexManager.VOCABULARIES, List.of(99L));
+        String result = manager.rebuild(SearchIndexManager.VOCABULARIES, index -> {
+            manager.recordChange(SearchIndexManager.VOCABULARIES, List.of(1L, 2L));
+            manager.recordChange(SearchIndexManager.COURSES, List.of(7L));
+            return "loaded";
+        }, replay);
+        manager.recordChange(SearchIndexManager.VOCABULARIES, List.of(4L));
+
+        assertThat(result).isEqualTo("loaded");
+        assertThat(replayed).containsExactly(Set.of(1L, 2L), Set.of(3L));
+
+        InOrder order = inOrder(replay, indexOps);
+        order.verify(replay).accept(any(), any());
+        order.verify(indexOps).alias(any());
+        order.verify(replay).accept(any(), any());
+    }
+
+    @Test
+    void failedReplayKeepsTheCurrentIndex() {
+        IndexOperations indexOps = operations.indexOps(any(IndexCoordinates.class));
+        BiConsumer<IndexCoordinates, Set<Long>> replay = mockReplay(new ArrayList<>(), (index, ids) -> {
+            throw new IllegalStateException("replay failed");
+        });
+
+        assertThatThrownBy(() -> manager.rebuild(SearchIndexManager.GRAMMAR_TOPICS, index -> {
+            manager.recordChange(SearchIndexManager.GRAMMAR_TOPICS, List.of(5L));
+            return "loaded";
+        }, replay)).hasMessage("replay failed");
+
+        verify(indexOps, never()).alias(any());
+        verify(indexOps).delete();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<IndexCoordinates, Set<Long>> mockReplay(List<Set<Long>> calls,
+                                                                      BiConsumer<IndexCoordinates, Set<Long>> then) {
+        BiConsumer<IndexCoordinates, Set<Long>> replay = mock(BiConsumer.class);
+        doAnswer(call -> {
+            calls.add(new HashSet<>(call.<Set<Long>>getArgument(1)));
+            then.accept(call.getArgument(0), call.getArgument(1));
+            return null;
+        }).when(replay).accept(any(), any());
+        return replay;
+    }
+}
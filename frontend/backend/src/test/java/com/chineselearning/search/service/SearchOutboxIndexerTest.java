@@ -0,0 +1,87 @@
+package com.chineselearning.search.service;
+
+import com.chineselearning.domain.SearchOutboxEntry;
+import com.chineselearning.repository.SearchOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Outbox entries leave the table only once their documents were acknowledged
+ *
+ * @author Senior Backend Architect
+ */
+class SearchOutboxIndexerTest {
+
+    private final SearchOutboxRepository outboxRepository = mock(SearchOutboxRepository.class);
+    private final DataSyncService dataSyncService = mock(DataSyncService.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+    private SearchOutboxIndexer indexer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        indexer = new SearchOutboxIndexer(outboxRepository, dataSyncService, transactionTemplate,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(indexer, "enabled", true);
+        ReflectionTestUtils.setField(indexer, "batchSize", 10);
+        ReflectionTestUtils.setField(indexer, "maxBatchesPerPoll", 5);
+        indexer.registerMetrics();
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(call -> ((TransactionCallback<Integer>) call.getArgument(0)).doInTransaction(null));
+    }
+
+    @Test
+    void rejectedDocumentsKeepTheirEntries() {
+        when(outboxRepository.lockNextBatch(anyInt())).thenReturn(List.of(
+                entry(1, "vocabulary", 100, SearchOutboxEntry.Operation.UPSERT),
+                entry(2, "vocabulary", 101, SearchOutboxEntry.Operation.UPSERT),
+                entry(3, "vocabulary", 100, SearchOutboxEntry.Operation.UPSERT),
+                entry(4, "courses", 7, SearchOutboxEntry.Operation.DELETE)));
+        when(dataSyncService.applyChanges(eq("vocabulary"), anySet(), anySet())).thenReturn(Set.of(100L));
+        when(dataSyncService.applyChanges(eq("courses"), anySet(), anySet())).thenReturn(Set.of());
+
+        indexer.poll();
+
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(2L, 4L));
+    }
+
+    @Test
+    void failedRequestDeletesNothing() {
+        when(outboxRepository.lockNextBatch(anyInt())).thenReturn(List.of(
+                entry(1, "grammar", 5, SearchOutboxEntry.Operation.DELETE)));
+        when(dataSyncService.applyChanges(eq("grammar"), anySet(), anySet()))
+                .thenThrow(new IllegalStateException("cluster unavailable"));
+
+        indexer.poll();
+
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    private static SearchOutboxEntry entry(long id, String entity, long entityId, SearchOutboxEntry.Operation operation) {
+        return SearchOutboxEntry.builder()
+                .id(id)
+                .entity(entity)
+                .entityId(entityId)
+                .operation(operation)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
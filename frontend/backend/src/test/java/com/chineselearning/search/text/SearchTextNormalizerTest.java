@@ -0,0 +1,72 @@
+package com.chineselearning.search.text;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Senior Backend Architect
+ */
+class SearchTextNormalizerTest {
+
+    @Test
+    void pinyinFormsOfToneMarkedText() {
+        assertThat(SearchTextNormalizer.pinyinPlain("nǐ hǎo")).isEqualTo("nihao");
+        assertThat(SearchTextNormalizer.pinyinNumeric("nǐ hǎo")).isEqualTo("ni3hao3");
+        assertThat(SearchTextNormalizer.pinyinInitials("nǐ hǎo")).isEqualTo("nh");
+    }
+
+    @Test
+    void syllablesAreSplitInsideARunOfLetters() {
+        assertThat(SearchTextNormalizer.pinyinNumeric("wǒmen")).isEqualTo("wo3men");
+        assertThat(SearchTextNormalizer.pinyinNumeric("péngyou")).isEqualTo("peng2you");
+        assertThat(SearchTextNormalizer.pinyinNumeric("Xī'ān")).isEqualTo("xi1an1");
+        assertThat(SearchTextNormalizer.pinyinNumeric("zhōngguó")).isEqualTo("zhong1guo2");
+        assertThat(SearchTextNormalizer.pinyinInitials("Zhōngguó rén")).isEqualTo("zgr");
+    }
+
+    @Test
+    void umlautIsWrittenAsV() {
+        assertThat(SearchTextNormalizer.pinyinNumeric("nǚ")).isEqualTo("nv3");
+        assertThat(SearchTextNormalizer.pinyinPlain("lǜsè")).isEqualTo("lvse");
+    }
+
+    @Test
+    void numberedPinyinKeepsItsTonesAndDropsTheNeutralDigit() {
+        assertThat(SearchTextNormalizer.pinyinNumeric("ni3 hao3")).isEqualTo("ni3hao3");
+        assertThat(SearchTextNormalizer.pinyinNumeric("ma5")).isEqualTo("ma");
+        assertThat(SearchTextNormalizer.pinyinPlain("xue2xi2")).isEqualTo("xuexi");
+    }
+
+    @Test
+    void nullPinyinGivesEmptyKeys() {
+        assertThat(SearchTextNormalizer.pinyinPlain(null)).isEmpty();
+        assertThat(SearchTextNormalizer.pinyinNumeric(null)).isEmpty();
+        assertThat(SearchTextNormalizer.pinyinInitials(null)).isEmpty();
+    }
+
+    @Test
+    void foldVietnameseStripsDiacriticsAndCollapsesWhitespace() {
+        assertThat(SearchTextNormalizer.foldVietnamese("Xin chào, Đức")).isEqualTo("xin chao, duc");
+        assertThat(SearchTextNormalizer.foldVietnamese("  Học   tập\t")).isEqualTo("hoc tap");
+        assertThat(SearchTextNormalizer.foldVietnamese("Người đẹp")).isEqualTo("nguoi dep");
+        assertThat(SearchTextNormalizer.foldVietnamese(null)).isNull();
+    }
+
+    @Test
+    void compactRemovesSeparators() {
+        assertThat(SearchTextNormalizer.compact("Nǐ hǎo")).isEqualTo("nihao");
+        assertThat(SearchTextNormalizer.compact("Xī'ān")).isEqualTo("xian");
+        assertThat(SearchTextNormalizer.compact("e-mail’s")).isEqualTo("emails");
+        assertThat(SearchTextNormalizer.compact(null)).isNull();
+    }
+
+    @Test
+    void compactWritesUmlautAsVLikeTheStoredColumns() {
+        assertThat(SearchTextNormalizer.compact("nü")).isEqualTo("nv");
+        assertThat(SearchTextNormalizer.compact("nǚ")).isEqualTo(SearchTextNormalizer.pinyinPlain("nǚ"));
+        assertThat(SearchTextNormalizer.pinyinNumeric("nǚ rén")).startsWith(SearchTextNormalizer.compact("nü"));
+        assertThat(SearchTextNormalizer.compact("Lǜ sè")).isEqualTo("lvse");
+        assertThat(SearchTextNormalizer.compact("lv4")).isEqualTo("lv4");
+    }
+}
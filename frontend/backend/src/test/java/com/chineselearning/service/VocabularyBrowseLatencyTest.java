@@ -0,0 +1,134 @@
+package com.chineselearning.service;
+
+import com.chineselearning.cache.RedisBatchCache;
+import com.chineselearning.dto.PageResponse;
+import com.chineselearning.dto.response.VocabularyResponse;
+import com.chineselearning.index.VocabularyNgramIndexManager;
+import com.chineselearning.index.VocabularySegmenterManager;
+import com.chineselearning.index.VocabularySnapshotManager;
+import com.chineselearning.mapper.VocabularyMapperImpl;
+import com.chineselearning.repository.VocabularyRepository;
+import com.chineselearning.support.PostgresRepositoryTest;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * p99 latency of GET /api/vocab browsing: in-memory snapshot vs the JPA path it replaced
+ *
+ * Same service call, same random pages and HSK filters; the JPA path is
+ * measured with the snapshot switched off (app.vocabulary.snapshot.enabled).
+ *
+ * @author Senior Backend Architect
+ */
+@Import({VocabularyServiceImpl.class, VocabularyMapperImpl.class, VocabularyBrowseLatencyTest.SnapshotConfig.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Slf4j
+class VocabularyBrowseLatencyTest extends PostgresRepositoryTest {
+
+    private static final int ROWS = 20_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP = 200;
+    private static final int SAMPLES = 1_000;
+
+    // Snapshot pages must beat the JPA path by at least this factor at p99
+    private static final long MIN_SPEEDUP = 5;
+
+    @Autowired
+    private VocabularyServiceImpl vocabularyService;
+
+    @Autowired
+    private VocabularySnapshotManager snapshotManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private VocabularyNgramIndexManager ngramIndexManager;
+
+    @MockBean
+    private VocabularySegmenterManager segmenterManager;
+
+    @MockBean
+    private RedisBatchCache batchCache;
+
+    @Test
+    void snapshotP99BeatsJpaPath() {
+        jdbcTemplate.update("INSERT INTO vocabulary (hanzi, pinyin, nghia, variant, hsk_level, frequency_rank) " +
+                "SELECT '词' || i, 'cí ' || i, 'Nghĩa số ' || i, 'BOTH', 1 + i % 6, i " +
+                "FROM generate_series(1, ?) AS i", ROWS);
+        jdbcTemplate.update("INSERT INTO vocab_tags (vocab_id, tag) " +
+                "SELECT id, 'hsk' || hsk_level FROM vocabulary ON CONFLICT DO NOTHING");
+        jdbcTemplate.execute("ANALYZE vocabulary");
+
+        snapshotManager.rebuild();
+        ReflectionTestUtils.setField(snapshotManager, "enabled", false);
+        long jpaP99 = p99();
+
+        ReflectionTestUtils.setField(snapshotManager, "enabled", true);
+        assertThat(snapshotManager.current()).isNotNull();
+        long snapshotP99 = p99();
+
+        log.info("GET /api/vocab p99 over {} rows: JPA {} us, snapshot {} us",
+                ROWS, jpaP99 / 1000, snapshotP99 / 1000);
+        assertThat(snapshotP99 * MIN_SPEEDUP).isLessThan(jpaP99);
+    }
+
+    /**
+     * Registered under its component name: cache conditions reference @vocabularySnapshotManager
+     */
+    @TestConfiguration
+    static class SnapshotConfig {
+
+        @Bean
+        VocabularySnapshotManager vocabularySnapshotManager(VocabularyRepository vocabularyRepository,
+                                                            ApplicationEventPublisher eventPublisher) {
+            return new VocabularySnapshotManager(vocabularyRepository, eventPublisher);
+        }
+    }
+
+    /**
+     * p99 in nanoseconds over random pages, a third of them filtered by HSK level
+     */
+    private long p99() {
+        Random random = new Random(42);
+        int pages = ROWS / PAGE_SIZE;
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < WARMUP + SAMPLES; i++) {
+            int page = random.nextInt(pages / 6);
+            Integer hskLevel = random.nextInt(3) == 0 ? 1 + random.nextInt(6) : null;
+
+            long start = System.nanoTime();
+            PageResponse<VocabularyResponse> response =
+                    vocabularyService.getVocabulary(page, PAGE_SIZE, null, null, hskLevel);
+            long elapsed = System.nanoTime() - start;
+            // Each request gets its own persistence context in production; the test shares one
+            entityManager.clear();
+
+            assertThat(response.getContent()).hasSize(PAGE_SIZE);
+            if (i >= WARMUP) {
+                samples[i - WARMUP] = elapsed;
+            }
+        }
+        Arrays.sort(samples);
+        return samples[(int) Math.ceil(SAMPLES * 0.99) - 1];
+    }
+}
@@ -0,0 +1,103 @@
+package com.chineselearning.service;
+
+import com.chineselearning.dto.response.VocabularyImportResponse;
+import com.chineselearning.event.VocabularyChangedEvent;
+import com.chineselearning.importer.CsvVocabularyRowReader;
+import com.chineselearning.search.service.DataSyncService;
+import com.chineselearning.search.service.SearchOutbox;
+import com.chineselearning.support.PostgresRepositoryTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The import hands exactly the rows it inserted or changed (tags included) to
+ * the search outbox and the change event
+ *
+ * @author Senior Backend Architect
+ */
+@Import({VocabularyImportService.class, SearchOutbox.class})
+@RecordApplicationEvents
+class VocabularyImportServiceTest extends PostgresRepositoryTest {
+
+    private static final LocalDateTime LOADED_AT = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Autowired
+    private VocabularyImportService importService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @BeforeEach
+    void loadRows() {
+        jdbcTemplate.update("DELETE FROM search_outbox");
+        jdbcTemplate.update("DELETE FROM vocab_tags");
+        jdbcTemplate.update("DELETE FROM vocabulary");
+        jdbcTemplate.update("INSERT INTO vocabulary (hanzi, pinyin, nghia, variant, nghia_folded, updated_at) VALUES " +
+                "('好', 'hǎo', 'Tốt', 'BOTH', 'tot', ?), " +
+                "('你', 'nǐ', 'Bạn', 'BOTH', 'ban', ?), " +
+                "('我', 'wǒ', 'Tôi', 'BOTH', 'toi', ?)",
+                Timestamp.valueOf(LOADED_AT), Timestamp.valueOf(LOADED_AT), Timestamp.valueOf(LOADED_AT));
+    }
+
+    @Test
+    void changedRowsGoToTheOutboxAndTheEvent() throws IOException {
+        VocabularyImportResponse response = importService.importRows(csv("hanzi,pinyin,nghia,tags\n" +
+                "好,hǎo,Tốt,hsk1\n" +       // tag only
+                "你,nǐ,Bạn bè,\n" +          // meaning changed
+                "我,wǒ,Tôi,\n" +             // unchanged
+                "他,tā,Anh ấy,\n"));         // new
+
+        assertThat(response.getInserted()).isEqualTo(1);
+        assertThat(response.getUpdated()).isEqualTo(1);
+        assertThat(response.getTagsAdded()).isEqualTo(1);
+
+        List<Long> changed = idsOf("好", "你", "他");
+        assertThat(jdbcTemplate.queryForList("SELECT entity_id FROM search_outbox " +
+                "WHERE entity = ? AND operation = 'UPSERT'", Long.class, DataSyncService.VOCABULARY))
+                .containsExactlyInAnyOrderElementsOf(changed);
+
+        // The tag-only change moved updated_at like a content change; the unchanged row kept it
+        assertThat(jdbcTemplate.queryForList("SELECT hanzi FROM vocabulary WHERE updated_at = ?",
+                String.class, Timestamp.valueOf(LOADED_AT))).containsExactly("我");
+
+        List<VocabularyChangedEvent> published = events.stream(VocabularyChangedEvent.class).toList();
+        assertThat(published).hasSize(1);
+        assertThat(published.get(0).isFullRefresh()).isFalse();
+        assertThat(published.get(0).getIds()).containsExactlyInAnyOrderElementsOf(changed);
+    }
+
+    @Test
+    void unchangedImportWritesNothing() throws IOException {
+        VocabularyImportResponse response = importService.importRows(csv("hanzi,pinyin,nghia\n好,hǎo,Tốt\n"));
+
+        assertThat(response.getUpdated()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM search_outbox", Integer.class)).isZero();
+        assertThat(events.stream(VocabularyChangedEvent.class)).isEmpty();
+    }
+
+    private List<Long> idsOf(String... hanzi) {
+        return jdbcTemplate.queryForList("SELECT id FROM vocabulary WHERE hanzi = ANY(?)", Long.class,
+                (Object) hanzi);
+    }
+
+    private static CsvVocabularyRowReader csv(String content) {
+        return new CsvVocabularyRowReader(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,67 @@
+package com.chineselearning.service;
+
+import com.chineselearning.event.VocabularyChangedEvent;
+import com.chineselearning.support.PostgresRepositoryTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The backfill writes only the normalized columns: updated_at stays put and one event
+ * with the backfilled ids is published
+ *
+ * @author Senior Backend Architect
+ */
+@Import(VocabularySearchFieldBackfill.class)
+@RecordApplicationEvents
+class VocabularySearchFieldBackfillTest extends PostgresRepositoryTest {
+
+    private static final LocalDateTime LOADED_AT = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Autowired
+    private VocabularySearchFieldBackfill backfill;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    void fillsNormalizedColumnsWithoutTouchingUpdatedAt() {
+        jdbcTemplate.update("UPDATE vocabulary SET pinyin_plain = NULL, pinyin_numeric = NULL, " +
+                "pinyin_initials = NULL, nghia_folded = NULL, updated_at = ?", Timestamp.valueOf(LOADED_AT));
+        jdbcTemplate.update("INSERT INTO vocabulary (hanzi, pinyin, nghia, variant, updated_at) " +
+                "SELECT '词' || i, 'nǐ hǎo', 'Xin chào ' || i, 'BOTH', ? FROM generate_series(1, 1200) AS i",
+                Timestamp.valueOf(LOADED_AT));
+        int rows = jdbcTemplate.queryForObject("SELECT count(*) FROM vocabulary", Integer.class);
+
+        assertThat(backfill.backfill()).isEqualTo(rows);
+
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT pinyin_plain, pinyin_numeric, pinyin_initials, " +
+                "nghia_folded FROM vocabulary WHERE hanzi = '词7'");
+        assertThat(row).containsEntry("pinyin_plain", "nihao")
+                .containsEntry("pinyin_numeric", "ni3hao3")
+                .containsEntry("pinyin_initials", "nh")
+                .containsEntry("nghia_folded", "xin chao 7");
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM vocabulary WHERE pinyin_plain IS NULL " +
+                "OR updated_at <> ?", Integer.class, Timestamp.valueOf(LOADED_AT))).isZero();
+
+        List<VocabularyChangedEvent> published = events.stream(VocabularyChangedEvent.class).toList();
+        assertThat(published).hasSize(1);
+        assertThat(published.get(0).getIds()).hasSize(rows)
+                .containsAll(jdbcTemplate.queryForList("SELECT id FROM vocabulary", Long.class));
+
+        assertThat(backfill.backfill()).isZero();
+    }
+}
@@ -0,0 +1,40 @@
+package com.chineselearning.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Hibernate statement inspector that records every SQL string it prepares
+ *
+ * Register with spring.jpa.properties.hibernate.session_factory.statement_inspector.
+ *
+ * @author Senior Backend Architect
+ */
+public class CapturedSql implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    /**
+     * Last recorded statement that contains fragment
+     */
+    public static String last(String fragment) {
+        for (int i = STATEMENTS.size() - 1; i >= 0; i--) {
+            if (STATEMENTS.get(i).contains(fragment)) {
+                return STATEMENTS.get(i);
+            }
+        }
+        throw new AssertionError("No statement containing '" + fragment + "' in " + STATEMENTS);
+    }
+}